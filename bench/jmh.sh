@@ -0,0 +1,17 @@
+#!/usr/bin/env bash
+# Builds the JMH jar and runs the benchmark suite, writing JSON results for
+# regression tracking. Arguments are passed to JMH, e.g. a benchmark regex:
+#
+#   bench/jmh.sh                          # everything
+#   bench/jmh.sh TaskSearch -p tasks=10000
+set -euo pipefail
+cd "$(dirname "$0")/.."
+
+OUT=target/jmh/results-$(date +%Y%m%d-%H%M%S).json
+
+./mvnw -B -q -DskipTests package
+mkdir -p target/jmh
+
+java -jar target/benchmarks.jar -rf json -rff "$OUT" "$@"
+
+echo "Results written to $OUT"
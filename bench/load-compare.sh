@@ -0,0 +1,46 @@
+#!/usr/bin/env bash
+# Runs the same HTTP load against the application in platform-thread and
+# virtual-thread mode and prints throughput and latency percentiles for both.
+#
+#   USERS=200 DURATION=30 WARMUP=10 bench/load-compare.sh
+#
+# DB_PROFILE=h2 (default) uses the in-memory database. Set DB_PROFILE= (empty) to
+# use the datasource from application.properties, e.g. the MySQL of docker-compose,
+# which is what makes blocking JDBC time show up in the comparison.
+set -euo pipefail
+cd "$(dirname "$0")/.."
+
+USERS=${USERS:-200}
+DURATION=${DURATION:-30}
+WARMUP=${WARMUP:-10}
+PORT=${PORT:-18080}
+DB_PROFILE=${DB_PROFILE-h2}
+OUT=target/load/results-$(date +%Y%m%d-%H%M%S).jsonl
+
+./mvnw -B -q -DskipTests package
+mkdir -p target/load
+
+for mode in platform virtual; do
+  profiles=$DB_PROFILE
+  if [ "$mode" = virtual ]; then
+    profiles=${profiles:+$profiles,}virtual
+  fi
+  java -jar target/TodoList-0.0.1-SNAPSHOT-exec.jar \
+      --server.port="$PORT" ${profiles:+--spring.profiles.active=$profiles} \
+      > "target/load/$mode.log" 2>&1 &
+  pid=$!
+  trap 'kill $pid 2>/dev/null || true' EXIT
+  until curl -sf -o /dev/null "http://localhost:$PORT/signin"; do
+    kill -0 "$pid" 2>/dev/null || { echo "$mode: application failed to start, see target/load/$mode.log"; exit 1; }
+    sleep 1
+  done
+
+  java -cp target/classes com.testProjects.todolist.bench.HttpLoadBenchmark \
+      --url "http://localhost:$PORT" --label "$mode" \
+      --users "$USERS" --duration "$DURATION" --warmup "$WARMUP" --out "$OUT"
+
+  kill "$pid"
+  wait "$pid" 2>/dev/null || true
+done
+
+echo "Results written to $OUT"
@@ -0,0 +1,53 @@
+#!/usr/bin/env bash
+# Measures time-to-first-request of the application in each startup mode:
+#
+#   jar      java -jar on the Boot executable jar (nested jars, no AOT, default CDS)
+#   cds      unpacked layout (-cds.jar + target/lib) with an application CDS archive
+#   aot      unpacked layout with Spring AOT bean definitions
+#   aot-cds  both, as in the Docker image
+#
+#   RUNS=5 bench/startup.sh
+#   MODES="jar aot-cds" bench/startup.sh
+#
+# DB_PROFILE=h2 (default) uses the in-memory database. Set DB_PROFILE= (empty) to
+# use the datasource from application.properties, or DB_PROFILE=prod to start the way
+# production does; the schema must exist then (see the schema profile in the README).
+#
+# The AOT build leaves generated classes in target/classes; run mvn clean before
+# mvn test or a plain package afterwards.
+set -euo pipefail
+cd "$(dirname "$0")/.."
+
+RUNS=${RUNS:-5}
+MODES=${MODES:-jar cds aot aot-cds}
+PORT=${PORT:-18080}
+DB_PROFILE=${DB_PROFILE-h2}
+OUT=target/startup/results-$(date +%Y%m%d-%H%M%S).jsonl
+
+./mvnw -B -q -DskipTests -Pfast-startup package
+mkdir -p target/startup
+
+JAR=$(ls target/TodoList-*-exec.jar)
+CDS_JAR=$(ls target/TodoList-*-cds.jar)
+ARGS=(--server.port="$PORT" ${DB_PROFILE:+--spring.profiles.active=$DB_PROFILE})
+
+# the archive built by the profile was trained with AOT on; train one without it
+if [[ " $MODES " == *" cds "* ]]; then
+  java -XX:ArchiveClassesAtExit=target/startup/cds.jsa -Xlog:cds=error -Dspring.context.exit=onRefresh \
+      -jar "$CDS_JAR" --spring.profiles.active=h2 --server.port=0 > target/startup/cds-training.log 2>&1
+fi
+
+for mode in $MODES; do
+  case $mode in
+    jar)     cmd=(java -jar "$JAR") ;;
+    cds)     cmd=(java -XX:SharedArchiveFile=target/startup/cds.jsa -jar "$CDS_JAR") ;;
+    aot)     cmd=(java -Dspring.aot.enabled=true -jar "$CDS_JAR") ;;
+    aot-cds) cmd=(java -XX:SharedArchiveFile=target/app.jsa -Dspring.aot.enabled=true -jar "$CDS_JAR") ;;
+    *)       echo "unknown mode $mode"; exit 1 ;;
+  esac
+  java -cp target/classes com.testProjects.todolist.bench.StartupBenchmark \
+      --url "http://localhost:$PORT/signin" --label "$mode" --runs "$RUNS" --out "$OUT" \
+      --log "target/startup/$mode.log" -- "${cmd[@]}" "${ARGS[@]}"
+done
+
+echo "Results written to $OUT"
@@ -0,0 +1,72 @@
+package com.testProjects.todolist.bench;
+
+import com.testProjects.todolist.dto.TaskText;
+import com.testProjects.todolist.models.Priority;
+import com.testProjects.todolist.models.Task;
+import com.testProjects.todolist.repositories.TaskRepository;
+
+import java.lang.reflect.Proxy;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/** Deterministic task data shared by the benchmarks. */
+final class BenchData {
+
+    static final String USER = "bench";
+
+    private static final String[] WORDS = {
+            "milk", "report", "invoice", "plumber", "meeting", "dentist", "groceries", "deploy",
+            "review", "budget", "garden", "laundry", "flight", "birthday", "taxes", "backup"};
+
+    private BenchData() {
+    }
+
+    /** Tasks with ids 1..count; ids and createdAt are only set when {@code withIds}. */
+    static List<Task> tasks(int count, boolean withIds) {
+        Random random = new Random(42);
+        LocalDateTime start = LocalDateTime.of(2024, 1, 1, 9, 0);
+        Priority[] priorities = Priority.values();
+        List<Task> tasks = new ArrayList<>(count);
+        for (int i = 1; i <= count; i++) {
+            Task task = new Task();
+            if (withIds) {
+                task.setId((long) i);
+                task.setCreatedAt(start.plusMinutes(i));
+            }
+            task.setTitle(word(random) + " " + word(random) + " " + i);
+            task.setDescription("Remember the " + word(random) + " and the " + word(random)
+                    + " before the " + word(random) + " deadline");
+            task.setPriority(priorities[random.nextInt(priorities.length)]);
+            task.setDeadline(LocalDate.of(2024, 1, 1).plusDays(random.nextInt(365)));
+            tasks.add(task);
+        }
+        return tasks;
+    }
+
+    private static String word(Random random) {
+        return WORDS[random.nextInt(WORDS.length)];
+    }
+
+    /** A TaskRepository that only answers the search index's text query. */
+    static TaskRepository textRepository(List<Task> tasks) {
+        List<TaskText> texts = tasks.stream().map(BenchData::text).toList();
+        return (TaskRepository) Proxy.newProxyInstance(TaskRepository.class.getClassLoader(),
+                new Class<?>[]{TaskRepository.class}, (proxy, method, args) -> {
+                    if (method.getName().equals("findTextByUserUsername")) {
+                        return texts;
+                    }
+                    throw new UnsupportedOperationException(method.getName());
+                });
+    }
+
+    private static TaskText text(Task task) {
+        return new TaskText() {
+            public Long getId() { return task.getId(); }
+            public String getTitle() { return task.getTitle(); }
+            public String getDescription() { return task.getDescription(); }
+        };
+    }
+}
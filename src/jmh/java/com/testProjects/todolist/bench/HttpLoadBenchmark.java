@@ -0,0 +1,296 @@
+package com.testProjects.todolist.bench;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.CookieManager;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Closed-loop HTTP load driver for a running instance of the application.
+ *
+ * Each simulated user signs up, logs in through the form (so requests carry a session
+ * cookie and do not pay for BCrypt each time) and then loops over the JSON API:
+ * list ({@code GET /api/tasks}), create ({@code POST /api/tasks}) and update
+ * ({@code PUT /api/tasks/{id}}). After the warmup, per-operation throughput and
+ * latency percentiles are printed and, with {@code --out}, appended as JSON lines.
+ *
+ * <pre>
+ * java -cp target/classes com.testProjects.todolist.bench.HttpLoadBenchmark \
+ *     --url http://localhost:8080 --label virtual --users 200 --duration 30 --warmup 10
+ * </pre>
+ *
+ * {@code bench/load-compare.sh} runs it against both thread modes.
+ */
+public final class HttpLoadBenchmark {
+
+    enum Op { LIST, CREATE, UPDATE }
+
+    private static final Pattern CSRF = Pattern.compile("name=\"_csrf\" value=\"([^\"]+)\"");
+    private static final Pattern ID = Pattern.compile("\"id\":(\\d+)");
+
+    private final String baseUrl;
+    private final int listPercent;
+    private final int createPercent;
+
+    private HttpLoadBenchmark(String baseUrl, int listPercent, int createPercent) {
+        this.baseUrl = baseUrl;
+        this.listPercent = listPercent;
+        this.createPercent = createPercent;
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> opts = parse(args);
+        String url = opts.getOrDefault("url", "http://localhost:8080");
+        String label = opts.getOrDefault("label", "run");
+        int users = Integer.parseInt(opts.getOrDefault("users", "100"));
+        int duration = Integer.parseInt(opts.getOrDefault("duration", "30"));
+        int warmup = Integer.parseInt(opts.getOrDefault("warmup", "10"));
+        int listPercent = Integer.parseInt(opts.getOrDefault("list", "70"));
+        int createPercent = Integer.parseInt(opts.getOrDefault("create", "15"));
+        String out = opts.get("out");
+
+        HttpLoadBenchmark bench = new HttpLoadBenchmark(url, listPercent, createPercent);
+        Window window = new Window(users, warmup, duration);
+
+        List<Worker> workers = new ArrayList<>();
+        List<Future<?>> running = new ArrayList<>();
+        try (ExecutorService pool = Executors.newVirtualThreadPerTaskExecutor()) {
+            String run = UUID.randomUUID().toString().substring(0, 8);
+            for (int i = 0; i < users; i++) {
+                Worker worker = bench.new Worker("load-" + run + "-" + i, window);
+                workers.add(worker);
+                running.add(pool.submit(worker));
+            }
+        }
+        for (Future<?> f : running) {
+            try {
+                f.get();
+            } catch (ExecutionException e) {
+                System.err.println("worker failed: " + e.getCause());
+            }
+        }
+
+        List<String> lines = new ArrayList<>();
+        System.out.printf(Locale.ROOT, "%-10s %-7s %9s %7s %10s %9s %9s %9s%n",
+                "label", "op", "count", "errors", "req/s", "p50 ms", "p99 ms", "max ms");
+        for (Op op : Op.values()) {
+            long[] all = workers.stream().flatMapToLong(w -> Arrays.stream(w.latencies(op))).sorted().toArray();
+            long errors = workers.stream().mapToLong(w -> w.errors.get(op)).sum();
+            double throughput = all.length / (double) duration;
+            double p50 = percentile(all, 0.50), p99 = percentile(all, 0.99);
+            double max = all.length == 0 ? 0 : all[all.length - 1] / 1e6;
+            System.out.printf(Locale.ROOT, "%-10s %-7s %9d %7d %10.1f %9.2f %9.2f %9.2f%n",
+                    label, op, all.length, errors, throughput, p50, p99, max);
+            lines.add(String.format(Locale.ROOT,
+                    "{\"label\":\"%s\",\"op\":\"%s\",\"users\":%d,\"durationSeconds\":%d,\"count\":%d,\"errors\":%d,"
+                            + "\"throughput\":%.2f,\"p50Ms\":%.3f,\"p99Ms\":%.3f,\"maxMs\":%.3f}",
+                    label, op, users, duration, all.length, errors, throughput, p50, p99, max));
+        }
+        if (out != null) {
+            Path path = Path.of(out);
+            if (path.getParent() != null) {
+                Files.createDirectories(path.getParent());
+            }
+            Files.write(path, lines, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        }
+    }
+
+    private static double percentile(long[] sortedNanos, double p) {
+        if (sortedNanos.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(p * sortedNanos.length) - 1;
+        return sortedNanos[Math.max(0, index)] / 1e6;
+    }
+
+    private static Map<String, String> parse(String[] args) {
+        Map<String, String> opts = new java.util.HashMap<>();
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            opts.put(args[i].replaceFirst("^--", ""), args[i + 1]);
+        }
+        return opts;
+    }
+
+    /**
+     * Measurement window shared by all workers. It opens only once every worker has
+     * signed up and logged in, so the BCrypt-heavy setup never counts as load.
+     */
+    private static final class Window {
+        private final CountDownLatch ready;
+        private final long warmupNanos;
+        private final long durationNanos;
+        private volatile long measureFrom;
+        private volatile long stopAt;
+
+        Window(int users, int warmupSeconds, int durationSeconds) {
+            this.ready = new CountDownLatch(users);
+            this.warmupNanos = Duration.ofSeconds(warmupSeconds).toNanos();
+            this.durationNanos = Duration.ofSeconds(durationSeconds).toNanos();
+        }
+
+        synchronized void arrive() {
+            ready.countDown();
+            if (ready.getCount() == 0 && measureFrom == 0) {
+                measureFrom = System.nanoTime() + warmupNanos;
+                stopAt = measureFrom + durationNanos;
+            }
+        }
+
+        void awaitOpen() throws InterruptedException {
+            ready.await();
+        }
+    }
+
+    private final class Worker implements Runnable {
+        final String username;
+        final Window window;
+        final HttpClient client;
+        final List<Long> ownIds = new ArrayList<>();
+        final Map<Op, LongList> latencies = new EnumMap<>(Op.class);
+        final Map<Op, Long> errors = new EnumMap<>(Op.class);
+
+        Worker(String username, Window window) {
+            this.username = username;
+            this.window = window;
+            this.client = HttpClient.newBuilder()
+                    .cookieHandler(new CookieManager())
+                    .followRedirects(HttpClient.Redirect.NORMAL)
+                    .connectTimeout(Duration.ofSeconds(10))
+                    .build();
+            for (Op op : Op.values()) {
+                latencies.put(op, new LongList());
+                errors.put(op, 0L);
+            }
+        }
+
+        long[] latencies(Op op) {
+            return latencies.get(op).toArray();
+        }
+
+        @Override
+        public void run() {
+            try {
+                try {
+                    form("/signup", "/signup", "username=" + enc(username) + "&password=pw&confirmPassword=pw");
+                    form("/signin", "/login", "username=" + enc(username) + "&password=pw");
+                    for (int i = 0; i < 5; i++) {
+                        execute(Op.CREATE);
+                    }
+                } finally {
+                    // a failed setup must not keep the other workers waiting
+                    window.arrive();
+                }
+                window.awaitOpen();
+                long measureFrom = window.measureFrom;
+                long stopAt = window.stopAt;
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                while (System.nanoTime() < stopAt) {
+                    int roll = random.nextInt(100);
+                    Op op = roll < listPercent ? Op.LIST : roll < listPercent + createPercent ? Op.CREATE : Op.UPDATE;
+                    long start = System.nanoTime();
+                    boolean ok = execute(op);
+                    long end = System.nanoTime();
+                    if (start >= measureFrom && end <= stopAt) {
+                        latencies.get(op).add(end - start);
+                        if (!ok) {
+                            errors.merge(op, 1L, Long::sum);
+                        }
+                    }
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        private boolean execute(Op op) throws IOException, InterruptedException {
+            HttpRequest.Builder request;
+            switch (op) {
+                case LIST -> request = HttpRequest.newBuilder(uri("/api/tasks?size=20")).GET();
+                case CREATE -> request = HttpRequest.newBuilder(uri("/api/tasks"))
+                        .header("Content-Type", "application/json")
+                        .POST(HttpRequest.BodyPublishers.ofString(
+                                "{\"title\":\"load task\",\"description\":\"created by the load driver\",\"priority\":\"MEDIUM\"}"));
+                default -> {
+                    if (ownIds.isEmpty()) {
+                        return execute(Op.CREATE);
+                    }
+                    long id = ownIds.get(ThreadLocalRandom.current().nextInt(ownIds.size()));
+                    request = HttpRequest.newBuilder(uri("/api/tasks/" + id))
+                            .header("Content-Type", "application/json")
+                            .PUT(HttpRequest.BodyPublishers.ofString(
+                                    "{\"title\":\"updated\",\"priority\":\"HIGH\",\"deadline\":\"2030-01-01\"}"));
+                }
+            }
+            HttpResponse<String> response = client.send(request.build(), HttpResponse.BodyHandlers.ofString());
+            if (op == Op.CREATE && response.statusCode() == 201) {
+                Matcher m = ID.matcher(response.body());
+                if (m.find()) {
+                    ownIds.add(Long.parseLong(m.group(1)));
+                }
+            }
+            return response.statusCode() / 100 == 2;
+        }
+
+        private void form(String pagePath, String postPath, String body) throws IOException, InterruptedException {
+            String page = client.send(HttpRequest.newBuilder(uri(pagePath)).GET().build(),
+                    HttpResponse.BodyHandlers.ofString()).body();
+            Matcher m = CSRF.matcher(page);
+            String token = m.find() ? "&_csrf=" + enc(m.group(1)) : "";
+            client.send(HttpRequest.newBuilder(uri(postPath))
+                    .header("Content-Type", "application/x-www-form-urlencoded")
+                    .POST(HttpRequest.BodyPublishers.ofString(body + token)).build(),
+                    HttpResponse.BodyHandlers.discarding());
+        }
+
+        private URI uri(String path) {
+            return URI.create(baseUrl + path);
+        }
+    }
+
+    private static String enc(String s) {
+        return URLEncoder.encode(s, StandardCharsets.UTF_8);
+    }
+
+    /** Growable primitive list so recording a sample does not box. */
+    private static final class LongList {
+        private long[] values = new long[1024];
+        private int size;
+
+        void add(long v) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = v;
+        }
+
+        long[] toArray() {
+            return Arrays.copyOf(values, size);
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package com.testProjects.todolist.bench;
+
+import com.testProjects.todolist.dto.TaskPage;
+import com.testProjects.todolist.dto.TaskSummary;
+import org.openjdk.jmh.annotations.*;
+import org.thymeleaf.IEngineConfiguration;
+import org.thymeleaf.context.Context;
+import org.thymeleaf.context.IExpressionContext;
+import org.thymeleaf.linkbuilder.StandardLinkBuilder;
+import org.thymeleaf.spring6.SpringTemplateEngine;
+import org.thymeleaf.templatemode.TemplateMode;
+import org.thymeleaf.templateresolver.ClassLoaderTemplateResolver;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/** Renders {@code list.html} with the engine setup Spring Boot uses, minus the servlet request. */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+// Thymeleaf's interpreter takes a while to get JIT-compiled
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ListRenderBenchmark {
+
+    // default and maximum page size of the list page
+    @Param({"20", "100"})
+    public int rows;
+
+    private SpringTemplateEngine engine;
+    private Context context;
+
+    @Setup
+    public void setUp() {
+        ClassLoaderTemplateResolver resolver = new ClassLoaderTemplateResolver();
+        resolver.setPrefix("templates/");
+        resolver.setSuffix(".html");
+        resolver.setTemplateMode(TemplateMode.HTML);
+        resolver.setCacheable(true);
+
+        engine = new SpringTemplateEngine();
+        engine.setTemplateResolver(resolver);
+        engine.setEnableSpringELCompiler(true);
+        // context-relative links (@{/...}) normally need the servlet request for the context path
+        engine.setLinkBuilder(new StandardLinkBuilder() {
+            @Override
+            protected String computeContextPath(IExpressionContext context, String base, Map<String, Object> parameters) {
+                return "";
+            }
+        });
+
+        List<TaskSummary> tasks = BenchData.tasks(rows, true).stream().map(TaskSummary::of).toList();
+        context = new Context();
+        context.setVariable("tasks", tasks);
+        context.setVariable("page", TaskPage.of(tasks, true, true));
+        context.setVariable("size", rows);
+    }
+
+    @Benchmark
+    public long render() {
+        CountingWriter out = new CountingWriter();
+        engine.process("list", context, out);
+        return out.chars;
+    }
+
+    /** Discards output so that buffer growth is not part of the measurement. */
+    private static final class CountingWriter extends Writer {
+        long chars;
+
+        @Override
+        public void write(char[] buf, int off, int len) throws IOException {
+            chars += len;
+        }
+
+        @Override
+        public void write(String str, int off, int len) {
+            chars += len;
+        }
+
+        @Override
+        public void flush() {
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package com.testProjects.todolist.bench;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time-to-first-request of the application: launches the command after {@code --}
+ * {@code runs} times and measures from process start until {@code url} first answers
+ * below 500, then stops the process. Prints the median, min and max and, with
+ * {@code --out}, appends them as a JSON line.
+ *
+ * <pre>
+ * java -cp target/classes com.testProjects.todolist.bench.StartupBenchmark \
+ *     --url http://localhost:18080/signin --label jar --runs 5 \
+ *     -- java -jar target/TodoList-0.0.1-SNAPSHOT-exec.jar --server.port=18080
+ * </pre>
+ *
+ * {@code bench/startup.sh} runs it for each startup mode.
+ */
+public final class StartupBenchmark {
+
+    private StartupBenchmark() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        int separator = Arrays.asList(args).indexOf("--");
+        if (separator < 0 || separator == args.length - 1) {
+            throw new IllegalArgumentException("usage: [--url U] [--label L] [--runs N] [--out F] -- command...");
+        }
+        Map<String, String> opts = parse(Arrays.copyOfRange(args, 0, separator));
+        List<String> command = List.of(Arrays.copyOfRange(args, separator + 1, args.length));
+        URI url = URI.create(opts.getOrDefault("url", "http://localhost:8080/signin"));
+        String label = opts.getOrDefault("label", "run");
+        int runs = Integer.parseInt(opts.getOrDefault("runs", "5"));
+        Duration timeout = Duration.ofSeconds(Long.parseLong(opts.getOrDefault("timeout", "120")));
+        Path log = Path.of(opts.getOrDefault("log", "target/startup/" + label + ".log"));
+        String out = opts.get("out");
+        if (log.getParent() != null) {
+            Files.createDirectories(log.getParent());
+        }
+
+        HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofMillis(200)).build();
+        long[] millis = new long[runs];
+        for (int run = 0; run < runs; run++) {
+            millis[run] = timeToFirstRequest(client, command, url, timeout, log);
+            System.out.printf(Locale.ROOT, "%-10s run %d: %d ms%n", label, run + 1, millis[run]);
+        }
+        Arrays.sort(millis);
+        long median = millis[(runs - 1) / 2];
+        System.out.printf(Locale.ROOT, "%-10s %5s %10s %8s %8s%n", "label", "runs", "median ms", "min ms", "max ms");
+        System.out.printf(Locale.ROOT, "%-10s %5d %10d %8d %8d%n", label, runs, median, millis[0], millis[runs - 1]);
+        if (out != null) {
+            Path path = Path.of(out);
+            if (path.getParent() != null) {
+                Files.createDirectories(path.getParent());
+            }
+            String line = String.format(Locale.ROOT,
+                    "{\"label\":\"%s\",\"runs\":%d,\"medianMs\":%d,\"minMs\":%d,\"maxMs\":%d}",
+                    label, runs, median, millis[0], millis[runs - 1]);
+            Files.write(path, List.of(line), StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        }
+    }
+
+    private static long timeToFirstRequest(HttpClient client, List<String> command, URI url, Duration timeout,
+                                           Path log) throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(url).timeout(Duration.ofSeconds(5)).GET().build();
+        long start = System.nanoTime();
+        Process process = new ProcessBuilder(command).redirectErrorStream(true)
+                .redirectOutput(log.toFile()).start();
+        try {
+            while (System.nanoTime() - start < timeout.toNanos()) {
+                if (!process.isAlive()) {
+                    throw new IllegalStateException("application exited with " + process.exitValue() + ", see " + log);
+                }
+                try {
+                    if (client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() < 500) {
+                        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+                    }
+                } catch (IOException notListeningYet) {
+                    // keep polling
+                }
+                Thread.sleep(10);
+            }
+            throw new IllegalStateException("no answer from " + url + " within " + timeout + ", see " + log);
+        } finally {
+            process.destroy();
+            if (!process.waitFor(30, TimeUnit.SECONDS)) {
+                process.destroyForcibly().waitFor();
+            }
+        }
+    }
+
+    private static Map<String, String> parse(String[] args) {
+        Map<String, String> opts = new HashMap<>();
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            opts.put(args[i].replaceFirst("^--", ""), args[i + 1]);
+        }
+        return opts;
+    }
+}
@@ -0,0 +1,56 @@
+package com.testProjects.todolist.bench;
+
+import com.testProjects.todolist.models.Task;
+import com.testProjects.todolist.search.SearchHit;
+import com.testProjects.todolist.search.TaskSearchIndex;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Search over one user's tasks: the inverted index behind the list page's {@code q}
+ * parameter against the linear substring scan the controller used to do.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TaskSearchBenchmark {
+
+    @Param({"100", "1000", "10000"})
+    public int tasks;
+
+    // a common word, a rare two-term query, and an id fragment
+    @Param({"milk", "dentist budget", "42"})
+    public String query;
+
+    private List<Task> all;
+    private TaskSearchIndex index;
+
+    @Setup
+    public void setUp() {
+        all = BenchData.tasks(tasks, true);
+        index = new TaskSearchIndex(BenchData.textRepository(all), 10, Duration.ofDays(1));
+        index.search(BenchData.USER, "warm", 1); // builds the index outside the measurement
+    }
+
+    @Benchmark
+    public List<SearchHit> indexed() {
+        return index.search(BenchData.USER, query, 100);
+    }
+
+    @Benchmark
+    public List<Task> linearScan() {
+        String qLower = query.toLowerCase();
+        return all.stream()
+                .filter(t ->
+                        (t.getTitle() != null && t.getTitle().toLowerCase().contains(qLower)) ||
+                        (t.getDescription() != null && t.getDescription().toLowerCase().contains(qLower)) ||
+                        (t.getId() != null && String.valueOf(t.getId()).contains(query)))
+                .toList();
+    }
+}
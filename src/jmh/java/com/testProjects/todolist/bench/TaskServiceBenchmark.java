@@ -0,0 +1,125 @@
+package com.testProjects.todolist.bench;
+
+import com.testProjects.todolist.TodoListApplication;
+import com.testProjects.todolist.cache.SecondLevelCacheReport;
+import com.testProjects.todolist.cache.SecondLevelCacheStats;
+import com.testProjects.todolist.dto.TaskPage;
+import com.testProjects.todolist.dto.TaskSummary;
+import com.testProjects.todolist.models.Priority;
+import com.testProjects.todolist.models.Task;
+import com.testProjects.todolist.models.User;
+import com.testProjects.todolist.repositories.TaskRepository;
+import com.testProjects.todolist.repositories.UserRepository;
+import com.testProjects.todolist.security.CustomUserDetails;
+import com.testProjects.todolist.services.TaskService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.context.SecurityContextImpl;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link TaskService} reads and writes for one user, against the application context
+ * started with the in-memory H2 profile. {@code cache} switches the task read cache,
+ * {@code l2} Hibernate's second-level cache; each trial ends by printing the database
+ * round trips made and saved by the second-level cache.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TaskServiceBenchmark {
+
+    @Param({"100", "1000", "10000"})
+    public int tasks;
+
+    @Param({"true", "false"})
+    public boolean cache;
+
+    @Param({"true", "false"})
+    public boolean l2;
+
+    private ConfigurableApplicationContext context;
+    private TaskService taskService;
+    private CustomUserDetails principal;
+    private Long middleTaskId;
+    private SecondLevelCacheStats secondLevelCache;
+
+    @Setup(Level.Trial)
+    public void start() {
+        // arguments, not default properties: those lose against application.properties
+        context = new SpringApplicationBuilder(TodoListApplication.class)
+                .web(WebApplicationType.NONE)
+                .profiles("h2")
+                .run("--todolist.cache.enabled=" + cache,
+                        "--spring.jpa.properties.hibernate.cache.use_second_level_cache=" + l2,
+                        "--todolist.metrics.enabled=false",
+                        "--logging.level.root=warn");
+        taskService = context.getBean(TaskService.class);
+
+        UserRepository userRepository = context.getBean(UserRepository.class);
+        User user = new User();
+        user.setUsername(BenchData.USER);
+        user.setPassword("{noop}unused");
+        user = userRepository.save(user);
+        principal = new CustomUserDetails(user);
+
+        List<Task> seed = BenchData.tasks(tasks, false);
+        for (Task task : seed) {
+            task.setUser(user);
+        }
+        context.getBean(TaskRepository.class).saveAll(seed);
+        userRepository.bumpTasksVersion(user.getId());
+        middleTaskId = seed.get(seed.size() / 2).getId();
+        secondLevelCache = context.getBean(SecondLevelCacheStats.class);
+        secondLevelCache.clear();
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        SecondLevelCacheReport report = secondLevelCache.report();
+        System.out.printf("%nstatements=%d l2-hits=%d %s%n", report.statements(), report.saved(), report.regions());
+        context.close();
+    }
+
+    /** The service reads the user from the security context, which is per thread. */
+    @State(Scope.Thread)
+    public static class LoggedIn {
+        @Setup(Level.Trial)
+        public void login(TaskServiceBenchmark bench) {
+            SecurityContextHolder.setContext(new SecurityContextImpl(
+                    new UsernamePasswordAuthenticationToken(bench.principal, null, bench.principal.getAuthorities())));
+        }
+    }
+
+    @Benchmark
+    public TaskPage firstPage(LoggedIn user) {
+        return taskService.getTaskPageForCurrentUser(null, null, 20);
+    }
+
+    @Benchmark
+    public Task findById(LoggedIn user) {
+        return taskService.findTaskById(middleTaskId);
+    }
+
+    @Benchmark
+    public List<TaskSummary> search(LoggedIn user) {
+        return taskService.searchTasksForCurrentUser("milk", 100);
+    }
+
+    @Benchmark
+    public Task create(LoggedIn user) {
+        Task task = new Task();
+        task.setTitle("benchmark task");
+        task.setDescription("created by TaskServiceBenchmark");
+        task.setPriority(Priority.MEDIUM);
+        return taskService.saveTask(task);
+    }
+}
@@ -0,0 +1,8 @@
+package com.testProjects.todolist.archive;
+
+/**
+ * A task the archiver has just moved, with what is needed to drop it from the
+ * owner's in-memory indexes.
+ */
+public record ArchivedTaskRef(Long taskId, Long userId, String username) {
+}
@@ -0,0 +1,155 @@
+package com.testProjects.todolist.archive;
+
+import com.testProjects.todolist.cache.TaskCache;
+import com.testProjects.todolist.feed.TaskChange;
+import com.testProjects.todolist.feed.TaskChangeHub;
+import com.testProjects.todolist.reminder.DeadlineReminders;
+import com.testProjects.todolist.repositories.TaskRepository;
+import com.testProjects.todolist.repositories.UserRepository;
+import com.testProjects.todolist.search.TaskSearchIndex;
+import com.testProjects.todolist.stats.TaskStatistics;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Moves tasks completed more than {@code after} ago from the task table to
+ * archived_task, so the table every list and filter query reads holds live tasks only.
+ *
+ * Each run takes the due tasks oldest completion first, {@code batchSize} per
+ * transaction, until none are left; a batch locks only its own rows and only for the
+ * time of three statements. Once a batch is committed its tasks are dropped from the
+ * search index, the reminders and the statistics, and open list pages are told.
+ */
+@Component
+public class TaskArchiver {
+
+    private static final Logger log = LoggerFactory.getLogger(TaskArchiver.class);
+
+    // beyond this many tasks of one user in a batch, a list reload is cheaper than the events
+    private static final int MAX_DELETE_EVENTS = 10;
+
+    private final TransactionTemplate transactionTemplate;
+    private final TaskRepository taskRepository;
+    private final UserRepository userRepository;
+    private final TaskSearchIndex searchIndex;
+    private final TaskCache taskCache;
+    private final DeadlineReminders deadlineReminders;
+    private final TaskStatistics taskStatistics;
+    private final TaskChangeHub changeHub;
+    private final boolean enabled;
+    private final Duration after;
+    private final int batchSize;
+    private final Clock clock;
+    private final Counter archived;
+
+    @Autowired
+    public TaskArchiver(PlatformTransactionManager transactionManager,
+                        TaskRepository taskRepository,
+                        UserRepository userRepository,
+                        TaskSearchIndex searchIndex,
+                        TaskCache taskCache,
+                        DeadlineReminders deadlineReminders,
+                        TaskStatistics taskStatistics,
+                        TaskChangeHub changeHub,
+                        MeterRegistry meterRegistry,
+                        @Value("${todolist.archive.enabled:true}") boolean enabled,
+                        @Value("${todolist.archive.after:P30D}") Duration after,
+                        @Value("${todolist.archive.batch-size:500}") int batchSize) {
+        this(new TransactionTemplate(transactionManager), taskRepository, userRepository, searchIndex, taskCache,
+                deadlineReminders, taskStatistics, changeHub, meterRegistry, enabled, after, batchSize,
+                Clock.systemDefaultZone());
+    }
+
+    TaskArchiver(TransactionTemplate transactionTemplate, TaskRepository taskRepository,
+                 UserRepository userRepository, TaskSearchIndex searchIndex, TaskCache taskCache,
+                 DeadlineReminders deadlineReminders, TaskStatistics taskStatistics, TaskChangeHub changeHub,
+                 MeterRegistry meterRegistry, boolean enabled, Duration after, int batchSize, Clock clock) {
+        this.transactionTemplate = transactionTemplate;
+        this.taskRepository = taskRepository;
+        this.userRepository = userRepository;
+        this.searchIndex = searchIndex;
+        this.taskCache = taskCache;
+        this.deadlineReminders = deadlineReminders;
+        this.taskStatistics = taskStatistics;
+        this.changeHub = changeHub;
+        this.enabled = enabled;
+        this.after = after;
+        this.batchSize = batchSize;
+        this.clock = clock;
+        this.archived = Counter.builder("todolist.archive.tasks")
+                .description("Completed tasks moved to the archive")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${todolist.archive.interval:PT1H}",
+            initialDelayString = "${todolist.archive.initial-delay:PT5M}")
+    public void run() {
+        if (enabled) {
+            archiveDue();
+        }
+    }
+
+    /** Archives every task completed before the cut-off; returns how many were moved. */
+    public int archiveDue() {
+        LocalDateTime now = LocalDateTime.now(clock);
+        LocalDateTime cutoff = now.minus(after);
+        long start = System.nanoTime();
+        int total = 0;
+        int batches = 0;
+        List<ArchivedTaskRef> moved;
+        do {
+            moved = transactionTemplate.execute(status -> {
+                List<ArchivedTaskRef> batch = taskRepository.archiveCompleted(cutoff, now, batchSize);
+                batch.stream().map(ArchivedTaskRef::userId).distinct().forEach(userRepository::bumpTasksVersion);
+                return batch;
+            });
+            forget(moved);
+            total += moved.size();
+            batches++;
+        } while (moved.size() >= batchSize);
+        if (total > 0) {
+            log.info("Archived {} tasks completed before {} in {} batches, {} ms",
+                    total, cutoff, batches, (System.nanoTime() - start) / 1_000_000);
+        }
+        return total;
+    }
+
+    /** Drops committed archive moves from everything held in memory about live tasks. */
+    private void forget(List<ArchivedTaskRef> moved) {
+        if (moved.isEmpty()) {
+            return;
+        }
+        archived.increment(moved.size());
+        Map<Long, List<ArchivedTaskRef>> byUser = moved.stream()
+                .collect(Collectors.groupingBy(ArchivedTaskRef::userId, LinkedHashMap::new, Collectors.toList()));
+        byUser.forEach((userId, tasks) -> {
+            for (ArchivedTaskRef task : tasks) {
+                taskCache.evict(task.username(), task.taskId());
+                searchIndex.remove(task.username(), task.taskId());
+                deadlineReminders.cancel(task.taskId());
+            }
+            taskStatistics.invalidate(userId);
+            if (tasks.size() > MAX_DELETE_EVENTS) {
+                changeHub.publish(userId, TaskChange.reload());
+            } else {
+                tasks.forEach(task -> changeHub.publish(userId, TaskChange.deleted(task.taskId())));
+            }
+        });
+    }
+}
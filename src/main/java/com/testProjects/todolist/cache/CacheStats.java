@@ -0,0 +1,17 @@
+package com.testProjects.todolist.cache;
+
+/**
+ * Point-in-time counters of one cache region.
+ *
+ * @param stale   lookups that found an entry whose version stamp no longer matched
+ * @param expired entries dropped because their TTL had passed
+ * @param evicted entries dropped to stay within the weight bound
+ */
+public record CacheStats(String name, long hits, long misses, long stale, long expired, long evicted,
+                         int entries, long weight, long maxWeight) {
+
+    public double hitRate() {
+        long lookups = hits + misses;
+        return lookups == 0 ? 0 : (double) hits / lookups;
+    }
+}
@@ -0,0 +1,14 @@
+package com.testProjects.todolist.cache;
+
+/**
+ * Point-in-time counters of one Hibernate second-level cache region.
+ *
+ * @param hits lookups answered from the region, each one a query the database did not see
+ */
+public record RegionStats(String region, long hits, long misses, long puts) {
+
+    public double hitRate() {
+        long lookups = hits + misses;
+        return lookups == 0 ? 0 : (double) hits / lookups;
+    }
+}
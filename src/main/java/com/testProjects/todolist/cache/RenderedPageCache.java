@@ -0,0 +1,58 @@
+package com.testProjects.todolist.cache;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+/**
+ * Rendered task list pages, gzipped, stamped with the owner's {@code tasksVersion}.
+ *
+ * A page embeds the CSRF token of the browser session it was rendered for, so pages
+ * are kept per user and per client (session or token cookie), never shared between
+ * the devices of one user. Bounded by the summed size of the compressed bodies.
+ */
+@Component
+public class RenderedPageCache {
+
+    /** One rendered list: who it is for and the query string that selected it. */
+    public record PageKey(Long userId, String client, String query) {
+    }
+
+    /** Compressed page body and what is needed to send it again. */
+    public record RenderedPage(byte[] gzipped, int length, String contentType) {
+    }
+
+    private final boolean enabled;
+    private final VersionedCache<PageKey, RenderedPage> pages;
+
+    public RenderedPageCache(@Value("${todolist.page-cache.enabled:false}") boolean enabled,
+                             @Value("${todolist.page-cache.max-size:16MB}") DataSize maxSize,
+                             @Value("${todolist.page-cache.ttl:5m}") Duration ttl) {
+        this.enabled = enabled;
+        this.pages = new VersionedCache<>("renderedPages", maxSize.toBytes(), ttl.toNanos(),
+                page -> page.gzipped().length);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public RenderedPage get(PageKey key, Object stamp) {
+        if (!enabled || stamp == null) {
+            return null;
+        }
+        return pages.get(key, stamp);
+    }
+
+    public void put(PageKey key, Object stamp, RenderedPage page) {
+        if (enabled && stamp != null) {
+            pages.put(key, stamp, page);
+        }
+    }
+
+    public CacheStats stats() {
+        return pages.stats();
+    }
+}
@@ -0,0 +1,150 @@
+package com.testProjects.todolist.cache;
+
+import com.testProjects.todolist.repositories.UserRepository;
+import com.testProjects.todolist.security.CurrentUser;
+import com.testProjects.todolist.writebehind.TaskWriteBehind;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpSession;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Serves {@code GET /} from {@link RenderedPageCache} while the user's task version is
+ * unchanged, skipping the list queries and the template rendering; gzip-accepting
+ * clients get the stored bytes as they are. Runs after the security filter chain, so
+ * the user is known. A miss renders as usual and stores the result.
+ */
+@Component
+public class RenderedPageCacheFilter extends OncePerRequestFilter {
+
+    // CookieCsrfTokenRepository's cookie, which identifies the client in stateless mode
+    private static final String CSRF_COOKIE = "XSRF-TOKEN";
+
+    private final RenderedPageCache pageCache;
+    private final UserRepository userRepository;
+    private final TaskWriteBehind writeBehind;
+    private final Duration pendingWritesTimeout;
+
+    public RenderedPageCacheFilter(RenderedPageCache pageCache,
+                                   UserRepository userRepository,
+                                   TaskWriteBehind writeBehind,
+                                   @Value("${todolist.write-behind.read-timeout:5s}") Duration pendingWritesTimeout) {
+        this.pageCache = pageCache;
+        this.userRepository = userRepository;
+        this.writeBehind = writeBehind;
+        this.pendingWritesTimeout = pendingWritesTimeout;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !pageCache.isEnabled()
+                || !"GET".equals(request.getMethod())
+                || !"/".equals(request.getRequestURI().substring(request.getContextPath().length()));
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        Long userId = CurrentUser.id();
+        String client = client(request);
+        if (authentication == null || userId == null || client == null) {
+            chain.doFilter(request, response);
+            return;
+        }
+        // the version is only bumped once queued writes are applied; wait for them first,
+        // as the controller's own reads would
+        writeBehind.awaitPending(userId, pendingWritesTimeout);
+        Long version = userRepository.findTasksVersionByUsername(authentication.getName()).orElse(null);
+        RenderedPageCache.PageKey key = new RenderedPageCache.PageKey(userId, client, request.getQueryString());
+        RenderedPageCache.RenderedPage page = pageCache.get(key, version);
+        if (page != null) {
+            send(request, response, page);
+            return;
+        }
+
+        ContentCachingResponseWrapper rendering = new ContentCachingResponseWrapper(response);
+        chain.doFilter(request, rendering);
+        byte[] body = rendering.getContentAsByteArray();
+        String contentType = rendering.getContentType();
+        if (rendering.getStatus() != HttpStatus.OK.value() || body.length == 0
+                || contentType == null || !contentType.startsWith("text/html")) {
+            rendering.copyBodyToResponse();
+            return;
+        }
+        page = new RenderedPageCache.RenderedPage(gzip(body), body.length, contentType);
+        pageCache.put(key, version, page);
+        send(request, response, page);
+    }
+
+    /** The browser session, or the CSRF cookie when there is none; null if neither exists yet. */
+    private static String client(HttpServletRequest request) {
+        HttpSession session = request.getSession(false);
+        if (session != null) {
+            return "session:" + session.getId();
+        }
+        Cookie[] cookies = request.getCookies();
+        if (cookies != null) {
+            for (Cookie cookie : cookies) {
+                if (CSRF_COOKIE.equals(cookie.getName())) {
+                    return "csrf:" + cookie.getValue();
+                }
+            }
+        }
+        return null;
+    }
+
+    private static void send(HttpServletRequest request, HttpServletResponse response,
+                             RenderedPageCache.RenderedPage page) throws IOException {
+        response.setContentType(page.contentType());
+        response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        byte[] body;
+        if (acceptsGzip(request)) {
+            response.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+            body = page.gzipped();
+        } else {
+            body = gunzip(page.gzipped(), page.length());
+        }
+        response.setContentLength(body.length);
+        response.getOutputStream().write(body);
+    }
+
+    private static boolean acceptsGzip(HttpServletRequest request) {
+        String accepted = request.getHeader(HttpHeaders.ACCEPT_ENCODING);
+        return accepted != null && accepted.contains("gzip");
+    }
+
+    static byte[] gzip(byte[] body) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(body.length / 4 + 64);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(body);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+
+    static byte[] gunzip(byte[] gzipped, int length) throws IOException {
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(gzipped))) {
+            return in.readNBytes(length);
+        }
+    }
+}
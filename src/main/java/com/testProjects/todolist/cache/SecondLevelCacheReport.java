@@ -0,0 +1,12 @@
+package com.testProjects.todolist.cache;
+
+import java.util.List;
+
+/**
+ * Hibernate's statement and second-level cache counters since startup.
+ *
+ * @param statements JDBC statements prepared, i.e. database round trips made
+ * @param saved      second-level cache hits over all regions, i.e. round trips not made
+ */
+public record SecondLevelCacheReport(long statements, long saved, List<RegionStats> regions) {
+}
@@ -0,0 +1,66 @@
+package com.testProjects.todolist.cache;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.ToLongFunction;
+
+/**
+ * Reads Hibernate's statistics (hibernate.generate_statistics) for the second-level
+ * cache regions configured in ehcache.xml and publishes them as
+ * {@code todolist.l2.requests{region,result}} and {@code todolist.jdbc.statements}.
+ * With statistics off every counter stays at zero.
+ */
+@Component
+public class SecondLevelCacheStats {
+
+    private final Statistics statistics;
+
+    public SecondLevelCacheStats(EntityManagerFactory entityManagerFactory, MeterRegistry meterRegistry) {
+        this.statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        FunctionCounter.builder("todolist.jdbc.statements", statistics, Statistics::getPrepareStatementCount)
+                .description("JDBC statements prepared by Hibernate")
+                .register(meterRegistry);
+        for (String region : statistics.getSecondLevelCacheRegionNames()) {
+            requests(meterRegistry, region, "hit", CacheRegionStatistics::getHitCount);
+            requests(meterRegistry, region, "miss", CacheRegionStatistics::getMissCount);
+        }
+    }
+
+    private void requests(MeterRegistry registry, String region, String result,
+                          ToLongFunction<CacheRegionStatistics> count) {
+        FunctionCounter.builder("todolist.l2.requests", statistics, s -> {
+                    CacheRegionStatistics stats = s.getCacheRegionStatistics(region);
+                    return stats == null ? 0 : count.applyAsLong(stats);
+                })
+                .description("Second-level cache lookups")
+                .tag("region", region)
+                .tag("result", result)
+                .register(registry);
+    }
+
+    public SecondLevelCacheReport report() {
+        List<RegionStats> regions = new ArrayList<>();
+        long saved = 0;
+        for (String region : statistics.getSecondLevelCacheRegionNames()) {
+            CacheRegionStatistics stats = statistics.getCacheRegionStatistics(region);
+            if (stats != null) {
+                regions.add(new RegionStats(region, stats.getHitCount(), stats.getMissCount(), stats.getPutCount()));
+                saved += stats.getHitCount();
+            }
+        }
+        return new SecondLevelCacheReport(statistics.getPrepareStatementCount(), saved, regions);
+    }
+
+    /** Starts all counters from zero, e.g. between benchmark warmup and measurement. */
+    public void clear() {
+        statistics.clear();
+    }
+}
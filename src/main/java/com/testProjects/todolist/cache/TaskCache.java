@@ -0,0 +1,103 @@
+package com.testProjects.todolist.cache;
+
+import com.testProjects.todolist.dto.TaskPage;
+import com.testProjects.todolist.models.Task;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Read cache in front of {@code TaskServiceImpl}.
+ *
+ * Holds keyset pages of each user's list and single tasks by id. Entries are stamped
+ * with the owner's {@code tasksVersion}, which every task write bumps in the database,
+ * so a node serves an entry only while no node has written that user's tasks since.
+ * Pages are immutable and shared as is; single tasks are entities and are copied in
+ * and out so callers can never mutate what is cached.
+ */
+@Component
+public class TaskCache {
+
+    /** Identifies one list page; all pages of a user share the user's version stamp. */
+    public record PageKey(String username, String after, String before, int size) {
+    }
+
+    private final boolean enabled;
+    private final VersionedCache<PageKey, TaskPage> pages;
+    private final VersionedCache<Long, Task> tasks;
+
+    public TaskCache(@Value("${todolist.cache.enabled:true}") boolean enabled,
+                     @Value("${todolist.cache.max-page-tasks:50000}") long maxPageTasks,
+                     @Value("${todolist.cache.max-tasks:10000}") long maxTasks,
+                     @Value("${todolist.cache.ttl:5m}") Duration ttl) {
+        this.enabled = enabled;
+        // pages are weighed by the number of tasks they hold
+        this.pages = new VersionedCache<>("taskPages", maxPageTasks, ttl.toNanos(), p -> p.tasks().size());
+        this.tasks = new VersionedCache<>("tasks", maxTasks, ttl.toNanos(), t -> 1);
+    }
+
+    public TaskPage getPage(PageKey key, Object stamp) {
+        if (!enabled || stamp == null) {
+            return null;
+        }
+        return pages.get(key, stamp);
+    }
+
+    public void putPage(PageKey key, Object stamp, TaskPage page) {
+        if (enabled && stamp != null) {
+            pages.put(key, stamp, page);
+        }
+    }
+
+    public Task getTask(Long id, Object stamp) {
+        if (!enabled || stamp == null) {
+            return null;
+        }
+        Task task = tasks.get(id, stamp);
+        return task == null ? null : copyOf(task);
+    }
+
+    public void putTask(Long id, Object stamp, Task task) {
+        if (enabled && stamp != null) {
+            tasks.put(id, stamp, copyOf(task));
+        }
+    }
+
+    /**
+     * Drops what this node holds for a user's write right away; other nodes notice
+     * through the bumped version stamp.
+     */
+    public void evict(String username, Long taskId) {
+        if (taskId != null) {
+            tasks.invalidate(taskId);
+        }
+        pages.invalidateIf(key -> key.username().equals(username));
+    }
+
+    /** {@link #evict(String, Long)} for many tasks of one user at once. */
+    public void evictAll(String username, Collection<Long> taskIds) {
+        taskIds.forEach(tasks::invalidate);
+        pages.invalidateIf(key -> key.username().equals(username));
+    }
+
+    public List<CacheStats> stats() {
+        return List.of(pages.stats(), tasks.stats());
+    }
+
+    private static Task copyOf(Task task) {
+        Task copy = new Task();
+        copy.setId(task.getId());
+        copy.setTitle(task.getTitle());
+        copy.setDescription(task.getDescription());
+        copy.setUser(task.getUser());
+        copy.setDeadline(task.getDeadline());
+        copy.setCreatedAt(task.getCreatedAt());
+        copy.setCompletedAt(task.getCompletedAt());
+        copy.setPriority(task.getPriority());
+        copy.setVersion(task.getVersion());
+        return copy;
+    }
+}
@@ -0,0 +1,124 @@
+package com.testProjects.todolist.cache;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+import java.util.function.Predicate;
+import java.util.function.ToIntFunction;
+
+/**
+ * Bounded LRU cache whose entries carry a version stamp.
+ *
+ * A lookup only hits when the caller's current stamp equals the stamp the value was
+ * stored with, so a stamp read from the shared database invalidates entries written
+ * by any node. Entries are additionally dropped after a TTL, and the least recently
+ * used ones are evicted once the summed weight exceeds {@code maxWeight}.
+ */
+public class VersionedCache<K, V> {
+
+    private final String name;
+    private final long maxWeight;
+    private final long ttlNanos;
+    private final ToIntFunction<V> weigher;
+    private final LongSupplier clock;
+
+    private final LinkedHashMap<K, Entry<V>> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long weight;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder stale = new LongAdder();
+    private final LongAdder expired = new LongAdder();
+    private final LongAdder evicted = new LongAdder();
+
+    private record Entry<V>(Object stamp, V value, int weight, long expiresAt) {
+    }
+
+    public VersionedCache(String name, long maxWeight, long ttlNanos, ToIntFunction<V> weigher) {
+        this(name, maxWeight, ttlNanos, weigher, System::nanoTime);
+    }
+
+    VersionedCache(String name, long maxWeight, long ttlNanos, ToIntFunction<V> weigher, LongSupplier clock) {
+        this.name = name;
+        this.maxWeight = maxWeight;
+        this.ttlNanos = ttlNanos;
+        this.weigher = weigher;
+        this.clock = clock;
+    }
+
+    /**
+     * Returns the cached value if present, unexpired and stored under {@code stamp}; otherwise null.
+     */
+    public synchronized V get(K key, Object stamp) {
+        Entry<V> entry = entries.get(key);
+        if (entry == null) {
+            misses.increment();
+            return null;
+        }
+        if (clock.getAsLong() - entry.expiresAt() >= 0) {
+            removeEntry(key);
+            expired.increment();
+            misses.increment();
+            return null;
+        }
+        if (!Objects.equals(entry.stamp(), stamp)) {
+            removeEntry(key);
+            stale.increment();
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        return entry.value();
+    }
+
+    public synchronized void put(K key, Object stamp, V value) {
+        int w = Math.max(1, weigher.applyAsInt(value));
+        if (w > maxWeight) {
+            return;
+        }
+        removeEntry(key);
+        entries.put(key, new Entry<>(stamp, value, w, clock.getAsLong() + ttlNanos));
+        weight += w;
+        Iterator<Map.Entry<K, Entry<V>>> it = entries.entrySet().iterator();
+        while (weight > maxWeight && it.hasNext()) {
+            weight -= it.next().getValue().weight();
+            it.remove();
+            evicted.increment();
+        }
+    }
+
+    public synchronized void invalidate(K key) {
+        removeEntry(key);
+    }
+
+    public synchronized void invalidateIf(Predicate<K> predicate) {
+        Iterator<Map.Entry<K, Entry<V>>> it = entries.entrySet().iterator();
+        while (it.hasNext()) {
+            Map.Entry<K, Entry<V>> e = it.next();
+            if (predicate.test(e.getKey())) {
+                weight -= e.getValue().weight();
+                it.remove();
+            }
+        }
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+        weight = 0;
+    }
+
+    public synchronized CacheStats stats() {
+        return new CacheStats(name, hits.sum(), misses.sum(), stale.sum(), expired.sum(), evicted.sum(),
+                entries.size(), weight, maxWeight);
+    }
+
+    private void removeEntry(K key) {
+        Entry<V> old = entries.remove(key);
+        if (old != null) {
+            weight -= old.weight();
+        }
+    }
+}
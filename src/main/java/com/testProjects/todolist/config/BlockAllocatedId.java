@@ -0,0 +1,24 @@
+package com.testProjects.todolist.config;
+
+import org.hibernate.annotations.IdGeneratorType;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks an id that is assigned from blocks reserved by {@link IdBlockAllocator}.
+ * Ids are known before the insert, so Hibernate can batch inserts of the entity.
+ */
+@IdGeneratorType(BlockIdGenerator.class)
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.FIELD, ElementType.METHOD})
+public @interface BlockAllocatedId {
+
+    /** Name of the sequence row; also the table whose max(id) seeds a new sequence. */
+    String sequence();
+
+    /** Number of ids reserved per database round trip. */
+    int blockSize() default 50;
+}
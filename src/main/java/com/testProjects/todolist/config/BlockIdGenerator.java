@@ -0,0 +1,66 @@
+package com.testProjects.todolist.config;
+
+import org.hibernate.boot.model.naming.Identifier;
+import org.hibernate.boot.model.relational.Database;
+import org.hibernate.boot.model.relational.Namespace;
+import org.hibernate.engine.config.spi.ConfigurationService;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.id.ExportableColumn;
+import org.hibernate.id.IdentifierGenerator;
+import org.hibernate.id.factory.spi.CustomIdGeneratorCreationContext;
+import org.hibernate.mapping.Column;
+import org.hibernate.mapping.PrimaryKey;
+import org.hibernate.mapping.Table;
+import org.hibernate.type.BasicTypeRegistry;
+import org.hibernate.type.StandardBasicTypes;
+
+import java.lang.reflect.Member;
+
+/**
+ * Hibernate side of {@link BlockAllocatedId}. The allocator is a Spring bean handed to
+ * Hibernate through its settings by {@link IdAllocationConfig}.
+ */
+public class BlockIdGenerator implements IdentifierGenerator {
+
+    private final String sequence;
+    private final int blockSize;
+    private final IdBlockAllocator allocator;
+
+    public BlockIdGenerator(BlockAllocatedId config, Member idMember, CustomIdGeneratorCreationContext context) {
+        this.sequence = config.sequence();
+        this.blockSize = config.blockSize();
+        Object allocator = context.getServiceRegistry().requireService(ConfigurationService.class)
+                .getSettings().get(IdBlockAllocator.SETTING);
+        if (!(allocator instanceof IdBlockAllocator blockAllocator)) {
+            throw new IllegalStateException("No IdBlockAllocator registered under " + IdBlockAllocator.SETTING);
+        }
+        this.allocator = blockAllocator;
+    }
+
+    /**
+     * Declares the allocator's table to Hibernate's schema management, the way its table
+     * generator declares its own, so the schema profile creates it with the mapped tables.
+     */
+    @Override
+    public void registerExportables(Database database) {
+        Namespace namespace = database.getDefaultNamespace();
+        Identifier name = database.toIdentifier(IdBlockAllocator.TABLE);
+        if (namespace.locateTable(name) != null) {
+            return;
+        }
+        Table table = namespace.createTable(name, identifier -> new Table("orm", namespace, identifier, false));
+        BasicTypeRegistry types = database.getTypeConfiguration().getBasicTypeRegistry();
+        Column sequenceName = new ExportableColumn(database, table, "sequence_name",
+                types.resolve(StandardBasicTypes.STRING), "varchar(255)");
+        sequenceName.setNullable(false);
+        table.addColumn(sequenceName);
+        table.setPrimaryKey(new PrimaryKey(table));
+        table.getPrimaryKey().addColumn(sequenceName);
+        table.addColumn(new ExportableColumn(database, table, "next_val", types.resolve(StandardBasicTypes.LONG)));
+    }
+
+    @Override
+    public Object generate(SharedSessionContractImplementor session, Object object) {
+        return allocator.next(sequence, blockSize);
+    }
+}
@@ -0,0 +1,27 @@
+package com.testProjects.todolist.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class IdAllocationConfig {
+
+    @Bean
+    public IdBlockAllocator idBlockAllocator(DataSourceProperties properties,
+                                             @Value("${todolist.ids.pool-size:2}") int poolSize) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("id-allocator");
+        dataSource.setMaximumPoolSize(poolSize);
+        dataSource.setMinimumIdle(1);
+        return new IdBlockAllocator(dataSource);
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer idBlockAllocatorSetting(IdBlockAllocator allocator) {
+        return properties -> properties.put(IdBlockAllocator.SETTING, allocator);
+    }
+}
@@ -0,0 +1,130 @@
+package com.testProjects.todolist.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLIntegrityConstraintViolationException;
+import java.sql.Statement;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Hands out ids from blocks reserved in the {@code id_sequences} table.
+ *
+ * Blocks are reserved on a dedicated, tiny connection pool in their own short
+ * transaction. A table generator inside Hibernate would instead take a second
+ * connection from the main pool while the caller's transaction still holds one,
+ * which deadlocks the pool once every connection belongs to a request waiting for ids.
+ *
+ * Each reservation is an atomic {@code UPDATE}, so several nodes get disjoint blocks;
+ * ids left in a block at shutdown are skipped. A sequence without a row starts after
+ * the largest id already in the table of the same name.
+ *
+ * The table itself is declared to Hibernate's schema management by
+ * {@link BlockIdGenerator}, so it is created wherever the mapped tables are.
+ * A reservation holds a lock rather than the monitor: it waits on JDBC, which would
+ * otherwise pin the carrier of a virtual thread.
+ */
+public class IdBlockAllocator implements AutoCloseable {
+
+    public static final String SETTING = "todolist.id-block-allocator";
+    public static final String TABLE = "id_sequences";
+
+    private final HikariDataSource dataSource;
+    private final Lock lock = new ReentrantLock();
+    private final Map<String, long[]> blocks = new HashMap<>(); // sequence -> {next, limit}, guarded by lock
+
+    public IdBlockAllocator(HikariDataSource dataSource) {
+        this.dataSource = dataSource;
+    }
+
+    public long next(String sequence, int blockSize) {
+        lock.lock();
+        try {
+            long[] block = blocks.get(sequence);
+            if (block == null || block[0] >= block[1]) {
+                long limit = reserve(sequence, blockSize);
+                block = new long[]{limit - blockSize, limit};
+                blocks.put(sequence, block);
+            }
+            return block[0]++;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /** Reserves {@code size} ids and returns the exclusive upper bound of the block. */
+    private long reserve(String sequence, int size) {
+        try (Connection c = dataSource.getConnection()) {
+            c.setAutoCommit(false);
+            try {
+                Long limit = tryIncrement(c, sequence, size);
+                if (limit == null) {
+                    limit = seed(c, sequence, size);
+                }
+                c.commit();
+                return limit;
+            } catch (SQLIntegrityConstraintViolationException e) {
+                // another node seeded the sequence first, so the row exists now
+                c.rollback();
+                Long limit = tryIncrement(c, sequence, size);
+                c.commit();
+                if (limit == null) {
+                    throw e;
+                }
+                return limit;
+            } catch (SQLException | RuntimeException e) {
+                c.rollback();
+                throw e;
+            }
+        } catch (SQLException e) {
+            throw new IllegalStateException("Could not reserve ids for sequence " + sequence, e);
+        }
+    }
+
+    private static Long tryIncrement(Connection c, String sequence, int size) throws SQLException {
+        try (PreparedStatement update = c.prepareStatement(
+                "update id_sequences set next_val = next_val + ? where sequence_name = ?")) {
+            update.setLong(1, size);
+            update.setString(2, sequence);
+            if (update.executeUpdate() == 0) {
+                return null;
+            }
+        }
+        try (PreparedStatement select = c.prepareStatement(
+                "select next_val from id_sequences where sequence_name = ?")) {
+            select.setString(1, sequence);
+            try (ResultSet rs = select.executeQuery()) {
+                rs.next();
+                return rs.getLong(1);
+            }
+        }
+    }
+
+    private static long seed(Connection c, String sequence, int size) throws SQLException {
+        long start;
+        // sequence names come from @BlockAllocatedId, never from user input
+        try (Statement st = c.createStatement();
+             ResultSet rs = st.executeQuery("select coalesce(max(id), 0) from " + sequence)) {
+            rs.next();
+            start = rs.getLong(1) + 1;
+        }
+        try (PreparedStatement insert = c.prepareStatement(
+                "insert into id_sequences (sequence_name, next_val) values (?, ?)")) {
+            insert.setString(1, sequence);
+            insert.setLong(2, start + size);
+            insert.executeUpdate();
+        }
+        return start + size;
+    }
+
+    @Override
+    public void close() {
+        dataSource.close();
+    }
+}
@@ -0,0 +1,39 @@
+package com.testProjects.todolist.controllers;
+
+import com.testProjects.todolist.cache.CacheStats;
+import com.testProjects.todolist.cache.RenderedPageCache;
+import com.testProjects.todolist.cache.SecondLevelCacheReport;
+import com.testProjects.todolist.cache.SecondLevelCacheStats;
+import com.testProjects.todolist.cache.TaskCache;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@RestController
+public class CacheStatsController {
+
+    private final TaskCache taskCache;
+    private final SecondLevelCacheStats secondLevelCache;
+    private final RenderedPageCache pageCache;
+
+    public CacheStatsController(TaskCache taskCache, SecondLevelCacheStats secondLevelCache,
+                                RenderedPageCache pageCache) {
+        this.taskCache = taskCache;
+        this.secondLevelCache = secondLevelCache;
+        this.pageCache = pageCache;
+    }
+
+    @GetMapping("/internal/cache/stats")
+    public List<CacheStats> stats() {
+        List<CacheStats> stats = new ArrayList<>(taskCache.stats());
+        stats.add(pageCache.stats());
+        return stats;
+    }
+
+    @GetMapping("/internal/cache/l2")
+    public SecondLevelCacheReport secondLevelCache() {
+        return secondLevelCache.report();
+    }
+}
@@ -0,0 +1,304 @@
+package com.testProjects.todolist.controllers;
+
+import com.testProjects.todolist.dto.ArchivedTaskPage;
+import com.testProjects.todolist.dto.BulkResult;
+import com.testProjects.todolist.dto.BulkTaskRequest;
+import com.testProjects.todolist.dto.TaskDto;
+import com.testProjects.todolist.dto.TaskListResponse;
+import com.testProjects.todolist.dto.TaskRequest;
+import com.testProjects.todolist.dto.TaskSelection;
+import com.testProjects.todolist.dto.TaskStats;
+import com.testProjects.todolist.dto.TaskSummary;
+import com.testProjects.todolist.dto.VersionStamp;
+import com.testProjects.todolist.models.Priority;
+import com.testProjects.todolist.models.Task;
+import com.testProjects.todolist.services.TaskBulkService;
+import com.testProjects.todolist.services.Impl.TaskServiceImpl;
+import com.testProjects.todolist.services.Impl.UserServiceImpl;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.net.URI;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Supplier;
+
+/**
+ * JSON API for tasks of the authenticated user.
+ *
+ * List ETags are derived from the owner's task change version, which every write bumps,
+ * so a conditional GET is answered with 304 after a single lookup of that version and
+ * without reading any task rows. A single task's ETag is its own {@code version}.
+ * {@code If-Match} on update and delete hands that version to the conditional
+ * UPDATE or DELETE itself, which is answered with 412 if the task changed since the
+ * client read it. An update carrying the task's {@code version} in the body is checked
+ * the same way and answered with 409 if it lost against a concurrent write; one with
+ * neither overwrites whatever version the task is at.
+ *
+ * The {@code /bulk} calls change every task picked by {@link BulkTaskRequest#select()}
+ * with set-based statements and answer with the number of tasks changed.
+ */
+@RestController
+@RequestMapping("/api/tasks")
+public class TaskApiController {
+
+    private final TaskServiceImpl taskService;
+    private final UserServiceImpl userService;
+    private final TaskBulkService bulkService;
+
+    public TaskApiController(TaskServiceImpl taskService, UserServiceImpl userService,
+                             TaskBulkService bulkService) {
+        this.taskService = taskService;
+        this.userService = userService;
+        this.bulkService = bulkService;
+    }
+
+    @GetMapping
+    public ResponseEntity<TaskListResponse> list(
+            @RequestParam(value = "after", required = false) String after,
+            @RequestParam(value = "before", required = false) String before,
+            @RequestParam(value = "size", defaultValue = "" + TaskServiceImpl.DEFAULT_PAGE_SIZE) int size,
+            WebRequest request) {
+        Long userId = userService.getCurrentUserId();
+        Long version = taskService.getTasksVersionForCurrentUser();
+        String etag = version == null ? null
+                : "\"l" + userId + "-" + version + "-" + Integer.toHexString(Objects.hash(after, before, size)) + "\"";
+        if (etag != null && request.checkNotModified(etag)) {
+            return null;
+        }
+        TaskListResponse body = TaskListResponse.of(taskService.getTaskPageForCurrentUser(after, before, size));
+        return ResponseEntity.ok().eTag(etag).body(body);
+    }
+
+    @GetMapping("/by-priority/{priority}")
+    public ResponseEntity<List<TaskDto>> byPriority(
+            @PathVariable Priority priority,
+            @RequestParam(value = "limit", defaultValue = "" + TaskServiceImpl.MAX_PAGE_SIZE) int limit,
+            WebRequest request) {
+        return filtered(request, () -> taskService.getTasksByPriorityForCurrentUser(priority, limit),
+                "priority", priority, limit);
+    }
+
+    @GetMapping("/overdue")
+    public ResponseEntity<List<TaskDto>> overdue(
+            @RequestParam(value = "limit", defaultValue = "" + TaskServiceImpl.MAX_PAGE_SIZE) int limit,
+            WebRequest request) {
+        LocalDate today = LocalDate.now();
+        return filtered(request, () -> taskService.getOverdueTasksForCurrentUser(today, limit),
+                "overdue", today, limit);
+    }
+
+    @GetMapping("/due")
+    public ResponseEntity<List<TaskDto>> dueBetween(
+            @RequestParam("from") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam("to") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(value = "limit", defaultValue = "" + TaskServiceImpl.MAX_PAGE_SIZE) int limit,
+            WebRequest request) {
+        if (from.isAfter(to)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "from is after to");
+        }
+        return filtered(request, () -> taskService.getTasksDueBetweenForCurrentUser(from, to, limit),
+                "due", from, to, limit);
+    }
+
+    @GetMapping("/stats")
+    public TaskStats stats() {
+        return taskService.getStatsForCurrentUser();
+    }
+
+    /** The caller's archived tasks, most recently completed first; {@code q} filters by text. */
+    @GetMapping("/archive")
+    public ArchivedTaskPage archive(
+            @RequestParam(value = "q", required = false) String query,
+            @RequestParam(value = "page", defaultValue = "0") int page,
+            @RequestParam(value = "size", defaultValue = "" + TaskServiceImpl.DEFAULT_PAGE_SIZE) int size) {
+        return taskService.getArchivedTasksForCurrentUser(query, page, size);
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<TaskDto> get(@PathVariable Long id, WebRequest request) {
+        if (request.checkNotModified(taskETag(id, ownedStamp(id).version()))) {
+            return null;
+        }
+        Task task = taskService.findTaskById(id);
+        if (task == null) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND);
+        }
+        return ResponseEntity.ok().eTag(taskETag(task)).body(TaskDto.of(task));
+    }
+
+    @PostMapping
+    public ResponseEntity<TaskDto> create(@RequestBody TaskRequest body) {
+        requireTitle(body);
+        Task task = new Task();
+        body.applyTo(task);
+        Task saved = taskService.saveTask(task);
+        return ResponseEntity.created(URI.create("/api/tasks/" + saved.getId()))
+                .eTag(taskETag(saved))
+                .body(TaskDto.of(saved));
+    }
+
+    @PutMapping("/{id}")
+    public ResponseEntity<TaskDto> update(@PathVariable Long id, @RequestBody TaskRequest body,
+                                          @RequestHeader(value = "If-Match", required = false) String ifMatch) {
+        requireTitle(body);
+        Long matched = ifMatchVersion(id, ifMatch);
+        if (matched != null && body.version() != null && !matched.equals(body.version())) {
+            throw new ResponseStatusException(HttpStatus.PRECONDITION_FAILED, "version does not match If-Match");
+        }
+        Task changes = new Task();
+        body.applyTo(changes);
+        try {
+            if (!taskService.updateTask(id, matched != null ? matched : body.version(), changes)) {
+                throw new ResponseStatusException(HttpStatus.NOT_FOUND);
+            }
+        } catch (OptimisticLockingFailureException e) {
+            throw matched != null ? new ResponseStatusException(HttpStatus.PRECONDITION_FAILED)
+                    : new ResponseStatusException(HttpStatus.CONFLICT, "task was modified concurrently");
+        }
+        return written(id);
+    }
+
+    @PostMapping("/{id}/complete")
+    public ResponseEntity<TaskDto> complete(@PathVariable Long id) {
+        return setCompleted(id, true);
+    }
+
+    @PostMapping("/{id}/reopen")
+    public ResponseEntity<TaskDto> reopen(@PathVariable Long id) {
+        return setCompleted(id, false);
+    }
+
+    private ResponseEntity<TaskDto> setCompleted(Long id, boolean completed) {
+        if (!taskService.setTaskCompleted(id, completed)) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND);
+        }
+        return written(id);
+    }
+
+    @DeleteMapping("/{id}")
+    public ResponseEntity<Void> delete(@PathVariable Long id,
+                                       @RequestHeader(value = "If-Match", required = false) String ifMatch) {
+        try {
+            if (!taskService.deleteTask(id, ifMatchVersion(id, ifMatch))) {
+                throw new ResponseStatusException(HttpStatus.NOT_FOUND);
+            }
+        } catch (OptimisticLockingFailureException e) {
+            throw new ResponseStatusException(HttpStatus.PRECONDITION_FAILED);
+        }
+        return ResponseEntity.noContent().build();
+    }
+
+    @PostMapping("/bulk/complete")
+    public BulkResult bulkComplete(@RequestBody BulkTaskRequest body) {
+        return bulkService.setCompleted(requireSelection(body), true);
+    }
+
+    @PostMapping("/bulk/reopen")
+    public BulkResult bulkReopen(@RequestBody BulkTaskRequest body) {
+        return bulkService.setCompleted(requireSelection(body), false);
+    }
+
+    @PostMapping("/bulk/priority")
+    public BulkResult bulkPriority(@RequestBody BulkTaskRequest body) {
+        if (body.priority() == null) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "priority is required");
+        }
+        return bulkService.setPriority(requireSelection(body), body.priority());
+    }
+
+    @PostMapping("/bulk/shift-deadlines")
+    public BulkResult bulkShiftDeadlines(@RequestBody BulkTaskRequest body) {
+        if (body.days() == null || body.days() == 0) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "days is required and must not be 0");
+        }
+        return bulkService.shiftDeadlines(requireSelection(body), body.days());
+    }
+
+    @PostMapping("/bulk/delete")
+    public BulkResult bulkDelete(@RequestBody BulkTaskRequest body) {
+        return bulkService.delete(requireSelection(body));
+    }
+
+    /** A filtered list, with an ETag over the owner's task version and the filter. */
+    private ResponseEntity<List<TaskDto>> filtered(WebRequest request, Supplier<List<TaskSummary>> query,
+                                                   Object... filter) {
+        Long userId = userService.getCurrentUserId();
+        Long version = taskService.getTasksVersionForCurrentUser();
+        String etag = version == null ? null
+                : "\"f" + userId + "-" + version + "-" + Integer.toHexString(Arrays.hashCode(filter)) + "\"";
+        if (etag != null && request.checkNotModified(etag)) {
+            return null;
+        }
+        List<TaskDto> body = query.get().stream().map(TaskDto::of).toList();
+        return ResponseEntity.ok().eTag(etag).body(body);
+    }
+
+    /** The task as a write left it, with its new ETag. */
+    private ResponseEntity<TaskDto> written(Long id) {
+        Task saved = taskService.findTaskById(id);
+        if (saved == null) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND);
+        }
+        return ResponseEntity.ok().eTag(taskETag(saved)).body(TaskDto.of(saved));
+    }
+
+    /** Owner and version of the task; 404 unless the task exists and belongs to the caller. */
+    private VersionStamp ownedStamp(Long id) {
+        VersionStamp stamp = taskService.getTaskStamp(id);
+        if (stamp == null || !Objects.equals(stamp.ownerId(), userService.getCurrentUserId())) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND);
+        }
+        return stamp;
+    }
+
+    private static String taskETag(Task task) {
+        return taskETag(task.getId(), task.getVersion());
+    }
+
+    private static String taskETag(Long id, long version) {
+        return "\"t" + id + "-" + version + "\"";
+    }
+
+    /**
+     * The task version named by an {@code If-Match} header, for the write to check; null
+     * without the header or for {@code *}. A tag that is not one of this task's ETags can
+     * never match and is refused with 412 before anything is written.
+     */
+    private static Long ifMatchVersion(Long id, String ifMatch) {
+        if (ifMatch == null || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        String tag = ifMatch.trim();
+        String prefix = "\"t" + id + "-";
+        if (tag.startsWith(prefix) && tag.endsWith("\"") && tag.length() > prefix.length() + 1) {
+            try {
+                return Long.valueOf(tag.substring(prefix.length(), tag.length() - 1));
+            } catch (NumberFormatException ignored) {
+                // not an ETag of ours
+            }
+        }
+        throw new ResponseStatusException(HttpStatus.PRECONDITION_FAILED);
+    }
+
+    /** The request's selection; one without ids or filters would mean every task and is refused. */
+    private static TaskSelection requireSelection(BulkTaskRequest body) {
+        if (body.select() == null || body.select().isEmpty()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "select needs ids or at least one filter");
+        }
+        return body.select();
+    }
+
+    private static void requireTitle(TaskRequest body) {
+        if (body.title() == null || body.title().isBlank()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "title is required");
+        }
+    }
+}
@@ -1,31 +1,48 @@
 package com.testProjects.todolist.controllers;
 
+import com.testProjects.todolist.dto.BulkResult;
+import com.testProjects.todolist.dto.TaskPage;
+import com.testProjects.todolist.dto.TaskSelection;
 import com.testProjects.todolist.models.Task;
 import com.testProjects.todolist.models.Priority;
-import com.testProjects.todolist.models.User;
-import com.testProjects.todolist.repositories.UserRepository;
+import com.testProjects.todolist.services.TaskBulkService;
 import com.testProjects.todolist.services.Impl.TaskServiceImpl;
+import com.testProjects.todolist.writebehind.TaskWriteBehind;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
+import org.springframework.web.bind.WebDataBinder;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
 
+import java.time.LocalDate;
 import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
 
 @Controller
 @RequestMapping("/")
 public class TaskController {
 
     private final TaskServiceImpl taskService;
-    private final UserRepository userRepository;
+    private final TaskWriteBehind writeBehind;
+    private final TaskBulkService bulkService;
 
     @Autowired
-    public TaskController(TaskServiceImpl taskService, UserRepository userRepository) {
+    public TaskController(TaskServiceImpl taskService, TaskWriteBehind writeBehind, TaskBulkService bulkService) {
         this.taskService = taskService;
-        this.userRepository = userRepository;
+        this.writeBehind = writeBehind;
+        this.bulkService = bulkService;
+    }
+
+    /**
+     * The forms bind onto a Task, but only its editable fields: an id would turn a create
+     * into a merge over someone else's task, and the version travels as its own parameter.
+     */
+    @InitBinder("task")
+    void restrictTaskFields(WebDataBinder binder) {
+        binder.setDisallowedFields("id", "version", "createdAt", "completedAt", "user", "user.*");
     }
 
     @GetMapping("/{id}")
@@ -35,6 +52,12 @@ public class TaskController {
         return "details";
     }
 
+    @GetMapping("/dashboard")
+    public String dashboard(Model model) {
+        model.addAttribute("stats", taskService.getStatsForCurrentUser());
+        return "dashboard";
+    }
+
     @GetMapping("/tasks/create")
     public String showCreateForm(Model model) {
         model.addAttribute("task", new Task());
@@ -43,60 +66,53 @@ public class TaskController {
         return "create";
     }
 
+    @GetMapping("/tasks/archive")
+    public String archive(@RequestParam(value = "q", required = false) String query,
+                          @RequestParam(value = "page", defaultValue = "0") int page,
+                          Model model) {
+        model.addAttribute("archive",
+                taskService.getArchivedTasksForCurrentUser(query, page, TaskServiceImpl.DEFAULT_PAGE_SIZE));
+        model.addAttribute("q", query);
+        return "archive";
+    }
+
     @GetMapping()
     public String getALlTasksForCurrentUser(
             @RequestParam(value = "q", required = false) String query,
+            @RequestParam(value = "after", required = false) String after,
+            @RequestParam(value = "before", required = false) String before,
+            @RequestParam(value = "size", defaultValue = "" + TaskServiceImpl.DEFAULT_PAGE_SIZE) int size,
             Model model) {
 
-        List<Task> tasks = taskService.getTasksForCurrentUser();
-
         if (query != null && !query.isBlank()) {
-            String qLower = query.toLowerCase();
-            tasks = tasks.stream()
-                    .filter(t ->
-                            (t.getTitle() != null && t.getTitle().toLowerCase().contains(qLower)) ||
-                            (t.getDescription() != null && t.getDescription().toLowerCase().contains(qLower)) ||
-                            (t.getId() != null && String.valueOf(t.getId()).contains(query))
-                    )
-                    .toList();
+            model.addAttribute("tasks", taskService.searchTasksForCurrentUser(query, TaskServiceImpl.MAX_PAGE_SIZE));
+        } else {
+            // plain listing is paged by keyset so page time does not grow with the task count
+            TaskPage page = taskService.getTaskPageForCurrentUser(after, before, size);
+            model.addAttribute("tasks", page.tasks());
+            model.addAttribute("page", page);
+            model.addAttribute("size", size);
         }
 
-        model.addAttribute("tasks", tasks);
         model.addAttribute("q", query); // keep search term in the box
         return "list";
     }
 
-
     @PostMapping
     public String createTask(@ModelAttribute("task") Task task) {
 
-        // current logged-in username
-        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        String currentPrincipalName = authentication.getName();
-
-        User user = userRepository.findByUsername(currentPrincipalName).orElse(null);
-        assert user != null;
-
-        // if Task has a user field, you can link it here:
-        // task.setUser(user);
-
-        taskService.saveTask(task);
+        // saveTask links the task to the logged-in user; with write-behind on it runs
+        // in a later batch, which the redirected list read waits for
+        try {
+            writeBehind.create(task);
+        } catch (RejectedExecutionException e) {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Too many pending writes", e);
+        }
 
         // redirect to details page of the created task
         return "redirect:/";
     }
 
-    private User getCurrentUser() {
-        String username = ((UserDetails) SecurityContextHolder
-                .getContext()
-                .getAuthentication()
-                .getPrincipal())
-                .getUsername();
-        User user = new User();
-        user.setUsername(username);
-        return user;
-    }
-
     @GetMapping("/{id}/edit")
     public String showEditForm(@PathVariable Long id, Model model) throws Throwable {
         Task task = (Task) taskService.findTaskById(id);
@@ -106,22 +122,72 @@ public class TaskController {
     }
 
     @PostMapping("/{id}")
-    public String updateTask(@PathVariable Long id, @ModelAttribute("task") Task taskDetails) throws Throwable {
-
-        Task task = (Task) taskService.findTaskById(id);
-        task.setTitle(taskDetails.getTitle());
-        task.setDescription(taskDetails.getDescription());
-        task.setPriority(taskDetails.getPriority());
-        task.setDeadline(taskDetails.getDeadline());   // 👈 add this
-
-        taskService.saveTask(task);
+    public String updateTask(@PathVariable Long id, @ModelAttribute("task") Task taskDetails,
+                             @RequestParam(value = "version", required = false) Long version) {
+        try {
+            if (!writeBehind.update(id, version, taskDetails)) {
+                throw new ResponseStatusException(HttpStatus.NOT_FOUND);
+            }
+        } catch (RejectedExecutionException e) {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Too many pending writes", e);
+        } catch (OptimisticLockingFailureException e) {
+            // someone saved the task after this form was loaded; show the current state
+            return "redirect:/" + id + "/edit?conflict";
+        }
         return "redirect:/";
     }
 
+    @PostMapping("/{id}/complete")
+    public String completeTask(@PathVariable Long id,
+                               @RequestParam(value = "completed", defaultValue = "true") boolean completed) {
+        if (!taskService.setTaskCompleted(id, completed)) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND);
+        }
+        return "redirect:/";
+    }
 
     @PostMapping("/{id}/delete")
     public String deleteTask(@PathVariable Long id) {
+        // a task that is already gone is not an error for a repeated submit
         taskService.deleteTask(id);
         return "redirect:/";
     }
-}
\ No newline at end of file
+
+    /**
+     * One action over the checked rows ({@code scope=selected}) or over all of the user's
+     * overdue, completed or one-priority tasks; the list then shows how many changed.
+     */
+    @PostMapping("/tasks/bulk")
+    public String bulk(@RequestParam("action") String action,
+                       @RequestParam(value = "scope", defaultValue = "selected") String scope,
+                       @RequestParam(value = "ids", required = false) List<Long> ids,
+                       @RequestParam(value = "priority", required = false) Priority priority,
+                       @RequestParam(value = "days", required = false) Integer days) {
+        TaskSelection selection = bulkSelection(scope, ids);
+        BulkResult result;
+        try {
+            result = switch (action) {
+                case "complete" -> bulkService.setCompleted(selection, true);
+                case "reopen" -> bulkService.setCompleted(selection, false);
+                case "priority" -> bulkService.setPriority(selection, priority);
+                case "shift-deadlines" -> bulkService.shiftDeadlines(selection, days == null ? 0 : days);
+                case "delete" -> bulkService.delete(selection);
+                default -> throw new IllegalArgumentException("unknown action " + action);
+            };
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage(), e);
+        }
+        return "redirect:/?bulk=" + result.action() + "&affected=" + result.affected();
+    }
+
+    private static TaskSelection bulkSelection(String scope, List<Long> ids) {
+        return switch (scope) {
+            // nothing checked selects nothing rather than everything
+            case "selected" -> TaskSelection.ofIds(ids == null ? List.of() : ids);
+            case "overdue" -> new TaskSelection(null, null, false, null, LocalDate.now().minusDays(1));
+            case "completed" -> new TaskSelection(null, null, true, null, null);
+            case "LOW", "MEDIUM", "HIGH" -> new TaskSelection(null, Priority.valueOf(scope), null, null, null);
+            default -> throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "unknown scope " + scope);
+        };
+    }
+}
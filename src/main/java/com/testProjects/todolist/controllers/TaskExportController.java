@@ -0,0 +1,50 @@
+package com.testProjects.todolist.controllers;
+
+import com.testProjects.todolist.exporter.ExportFormat;
+import com.testProjects.todolist.services.Impl.UserServiceImpl;
+import com.testProjects.todolist.services.TaskExportService;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.util.Locale;
+
+@RestController
+@RequestMapping("/api/tasks")
+public class TaskExportController {
+
+    private final TaskExportService exportService;
+    private final UserServiceImpl userService;
+
+    public TaskExportController(TaskExportService exportService, UserServiceImpl userService) {
+        this.exportService = exportService;
+        this.userService = userService;
+    }
+
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> export(
+            @RequestParam(value = "format", defaultValue = "ndjson") String format) {
+        ExportFormat exportFormat;
+        try {
+            exportFormat = ExportFormat.valueOf(format.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Unknown export format: " + format);
+        }
+        // resolved on the request thread; the body is written on an async thread
+        Long userId = userService.getCurrentUserId();
+
+        StreamingResponseBody body = out -> exportService.exportTasks(userId, exportFormat, out);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(exportFormat.contentType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"tasks." + exportFormat.extension() + "\"")
+                .body(body);
+    }
+}
@@ -0,0 +1,32 @@
+package com.testProjects.todolist.controllers;
+
+import com.testProjects.todolist.feed.TaskChangeHub;
+import com.testProjects.todolist.services.Impl.UserServiceImpl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+@RestController
+public class TaskFeedController {
+
+    private final TaskChangeHub changeHub;
+    private final UserServiceImpl userService;
+
+    public TaskFeedController(TaskChangeHub changeHub, UserServiceImpl userService) {
+        this.changeHub = changeHub;
+        this.userService = userService;
+    }
+
+    /** Server-Sent Events stream of the current user's task changes. */
+    @GetMapping(value = "/tasks/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter events() {
+        SseEmitter emitter = changeHub.subscribe(userService.getCurrentUserId());
+        if (emitter == null) {
+            throw new ResponseStatusException(HttpStatus.TOO_MANY_REQUESTS, "Too many open change streams");
+        }
+        return emitter;
+    }
+}
@@ -0,0 +1,47 @@
+package com.testProjects.todolist.controllers;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.testProjects.todolist.dto.ImportResult;
+import com.testProjects.todolist.importer.CsvTaskRowReader;
+import com.testProjects.todolist.importer.ImportFormatException;
+import com.testProjects.todolist.importer.JsonTaskRowReader;
+import com.testProjects.todolist.importer.TaskRowReader;
+import com.testProjects.todolist.services.TaskImportService;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+@RestController
+@RequestMapping("/api/tasks")
+public class TaskImportController {
+
+    private final TaskImportService importService;
+    private final ObjectMapper objectMapper;
+
+    public TaskImportController(TaskImportService importService, ObjectMapper objectMapper) {
+        this.importService = importService;
+        this.objectMapper = objectMapper;
+    }
+
+    // the request body is read as a stream, never buffered whole
+    @PostMapping(path = "/import", consumes = "text/csv")
+    public ImportResult importCsv(InputStream body) throws IOException {
+        try (TaskRowReader reader = new CsvTaskRowReader(body)) {
+            return importService.importTasks(reader);
+        } catch (ImportFormatException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage(), e);
+        }
+    }
+
+    @PostMapping(path = "/import", consumes = {"application/json", "application/x-ndjson"})
+    public ImportResult importJson(InputStream body) throws IOException {
+        try (TaskRowReader reader = new JsonTaskRowReader(objectMapper, body)) {
+            return importService.importTasks(reader);
+        }
+    }
+}
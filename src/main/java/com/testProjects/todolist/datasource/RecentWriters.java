@@ -0,0 +1,76 @@
+package com.testProjects.todolist.datasource;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+
+/**
+ * Users who committed a write within the last {@code window}. Their reads stay on the
+ * primary for that long, so they see their own writes even if the replica lags.
+ * The window should cover the replica's usual lag with some margin.
+ */
+public class RecentWriters {
+
+    private final long windowNanos;
+    private final LongSupplier nanoTime;
+    private final Map<Long, Long> stickyUntil = new ConcurrentHashMap<>();
+
+    public RecentWriters(Duration window) {
+        this(window, System::nanoTime);
+    }
+
+    RecentWriters(Duration window, LongSupplier nanoTime) {
+        this.windowNanos = window.toNanos();
+        this.nanoTime = nanoTime;
+    }
+
+    public void wrote(Long userId) {
+        stickyUntil.put(userId, nanoTime.getAsLong() + windowNanos);
+    }
+
+    /**
+     * Starts the user's window once the current transaction has committed, or right away
+     * outside one. A transaction that writes for several users calls this for each.
+     */
+    public void wroteOnCommit(Long userId) {
+        if (userId == null) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    wrote(userId);
+                }
+            });
+        } else {
+            wrote(userId);
+        }
+    }
+
+    public boolean wroteRecently(Long userId) {
+        Long until = stickyUntil.get(userId);
+        if (until == null) {
+            return false;
+        }
+        if (nanoTime.getAsLong() - until < 0) {
+            return true;
+        }
+        stickyUntil.remove(userId, until);
+        return false;
+    }
+
+    /** Forgets users whose window has passed and who have not read since. */
+    public void purge() {
+        long now = nanoTime.getAsLong();
+        stickyUntil.values().removeIf(until -> now - until >= 0);
+    }
+
+    int size() {
+        return stickyUntil.size();
+    }
+}
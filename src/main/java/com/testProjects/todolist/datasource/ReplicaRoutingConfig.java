@@ -0,0 +1,88 @@
+package com.testProjects.todolist.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+/**
+ * Splits reads from writes once {@code todolist.datasource.replica.url} is set; without
+ * it the application keeps Spring Boot's single datasource.
+ *
+ * The primary pool is configured by {@code spring.datasource.*} as before, the replica
+ * pool by {@code todolist.datasource.replica.*}. JPA and everything else injecting a
+ * {@link DataSource} get the routing one.
+ */
+@Configuration
+@ConditionalOnProperty("todolist.datasource.replica.url")
+public class ReplicaRoutingConfig {
+
+    private ReplicaRoutingDataSource routing;
+    private RecentWriters recentWriters;
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+
+    @Bean
+    @ConfigurationProperties("todolist.datasource.replica.hikari")
+    public HikariDataSource replicaDataSource(
+            DataSourceProperties primary,
+            @Value("${todolist.datasource.replica.url}") String url,
+            @Value("${todolist.datasource.replica.username:}") String username,
+            @Value("${todolist.datasource.replica.password:}") String password) {
+        HikariDataSource dataSource = DataSourceBuilder.create()
+                .type(HikariDataSource.class)
+                .url(url)
+                .username(username.isEmpty() ? primary.determineUsername() : username)
+                .password(password.isEmpty() ? primary.determinePassword() : password)
+                .build();
+        dataSource.setPoolName("replica");
+        // a replica that is down should cost a read a short wait, not the default 30 s
+        dataSource.setConnectionTimeout(2000);
+        // do not fail startup if the replica is down; the router falls back to the primary
+        dataSource.setInitializationFailTimeout(-1);
+        return dataSource;
+    }
+
+    @Bean
+    public RecentWriters recentWriters(
+            @Value("${todolist.datasource.replica.read-your-writes:PT5S}") Duration window) {
+        recentWriters = new RecentWriters(window);
+        return recentWriters;
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(HikariDataSource primaryDataSource, HikariDataSource replicaDataSource,
+                                 RecentWriters recentWriters, MeterRegistry meterRegistry) {
+        routing = new ReplicaRoutingDataSource(primaryDataSource, replicaDataSource, recentWriters, meterRegistry);
+        return new LazyConnectionDataSourceProxy(routing);
+    }
+
+    /** Health check of the replica; also forgets expired read-your-writes windows. */
+    @Scheduled(fixedDelayString = "${todolist.datasource.replica.health-interval:PT5S}")
+    public void checkReplica() {
+        if (routing != null) {
+            routing.checkReplica();
+        }
+        if (recentWriters != null) {
+            recentWriters.purge();
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package com.testProjects.todolist.datasource;
+
+import com.testProjects.todolist.security.CurrentUser;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * Hands out primary or replica connections depending on the transaction asking.
+ *
+ * Read-only transactions go to the replica unless the current user committed a write
+ * within the {@link RecentWriters} window or the replica is unhealthy. Everything
+ * else, including work outside a transaction, goes to the primary. A replica that
+ * fails to hand out a connection is marked unhealthy on the spot and the caller gets
+ * a primary connection instead; {@link #checkReplica()} brings it back.
+ *
+ * The decision reads the transaction's read-only flag, which Spring sets only after
+ * the transaction manager has asked for a connection, so this must sit behind a
+ * {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy}.
+ */
+public class ReplicaRoutingDataSource extends AbstractDataSource {
+
+    private static final Logger log = LoggerFactory.getLogger(ReplicaRoutingDataSource.class);
+    private static final int VALIDATION_TIMEOUT_SECONDS = 2;
+
+    private final DataSource primary;
+    private final DataSource replica;
+    private final RecentWriters recentWriters;
+    private final Counter primaryConnections;
+    private final Counter replicaConnections;
+    private volatile boolean replicaHealthy = true;
+
+    public ReplicaRoutingDataSource(DataSource primary, DataSource replica, RecentWriters recentWriters,
+                                    MeterRegistry meterRegistry) {
+        this.primary = primary;
+        this.replica = replica;
+        this.recentWriters = recentWriters;
+        this.primaryConnections = connections(meterRegistry, "primary");
+        this.replicaConnections = connections(meterRegistry, "replica");
+    }
+
+    private static Counter connections(MeterRegistry registry, String target) {
+        return Counter.builder("todolist.datasource.connections")
+                .description("Connections handed out by the read/write router")
+                .tag("target", target)
+                .register(registry);
+    }
+
+    /** How a connection is asked of the chosen pool: as configured or with explicit credentials. */
+    @FunctionalInterface
+    private interface Connect {
+        Connection from(DataSource dataSource) throws SQLException;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return route(DataSource::getConnection);
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return route(dataSource -> dataSource.getConnection(username, password));
+    }
+
+    private Connection route(Connect connect) throws SQLException {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            rememberWrite();
+            return fromPrimary(connect);
+        }
+        Long userId = CurrentUser.id();
+        if (!replicaHealthy || (userId != null && recentWriters.wroteRecently(userId))) {
+            return fromPrimary(connect);
+        }
+        try {
+            Connection connection = connect.from(replica);
+            replicaConnections.increment();
+            return connection;
+        } catch (SQLException e) {
+            markReplica(false, e);
+            return fromPrimary(connect);
+        }
+    }
+
+    public boolean isReplicaHealthy() {
+        return replicaHealthy;
+    }
+
+    /** Validates a replica connection and updates the health flag accordingly. */
+    public void checkReplica() {
+        try (Connection connection = replica.getConnection()) {
+            markReplica(connection.isValid(VALIDATION_TIMEOUT_SECONDS), null);
+        } catch (SQLException e) {
+            markReplica(false, e);
+        }
+    }
+
+    private Connection fromPrimary(Connect connect) throws SQLException {
+        Connection connection = connect.from(primary);
+        primaryConnections.increment();
+        return connection;
+    }
+
+    /**
+     * Starts the current user's read-your-writes window once the transaction has
+     * committed. Work that writes for other users, such as a write-behind batch, marks
+     * them itself through {@link RecentWriters#wroteOnCommit}.
+     */
+    private void rememberWrite() {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            recentWriters.wroteOnCommit(CurrentUser.id());
+        }
+    }
+
+    private void markReplica(boolean healthy, SQLException cause) {
+        if (replicaHealthy == healthy) {
+            return;
+        }
+        replicaHealthy = healthy;
+        if (healthy) {
+            log.info("Replica is healthy again, routing read-only transactions to it");
+        } else {
+            log.warn("Replica is unhealthy, routing all transactions to the primary: {}",
+                    cause == null ? "connection not valid" : cause.getMessage());
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package com.testProjects.todolist.dto;
+
+import com.testProjects.todolist.models.ArchivedTask;
+import com.testProjects.todolist.models.Priority;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * JSON and view representation of an archived task.
+ */
+public record ArchivedTaskDto(Long id, String title, String description, Priority priority,
+                              LocalDate deadline, LocalDateTime createdAt, LocalDateTime completedAt,
+                              LocalDateTime archivedAt) {
+
+    public static ArchivedTaskDto of(ArchivedTask task) {
+        return new ArchivedTaskDto(task.getId(), task.getTitle(), task.getDescription(), task.getPriority(),
+                task.getDeadline(), task.getCreatedAt(), task.getCompletedAt(), task.getArchivedAt());
+    }
+}
@@ -0,0 +1,18 @@
+package com.testProjects.todolist.dto;
+
+import java.util.List;
+
+/**
+ * One page of a user's archived tasks, most recently completed first. Pages are
+ * numbered from 0; whether a further one exists is known without counting the archive.
+ */
+public record ArchivedTaskPage(List<ArchivedTaskDto> tasks, int page, int size, boolean hasNext) {
+
+    public ArchivedTaskPage {
+        tasks = List.copyOf(tasks);
+    }
+
+    public boolean hasPrev() {
+        return page > 0;
+    }
+}
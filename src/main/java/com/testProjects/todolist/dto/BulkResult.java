@@ -0,0 +1,11 @@
+package com.testProjects.todolist.dto;
+
+/**
+ * Outcome of a bulk operation.
+ *
+ * @param affected tasks actually changed or deleted; tasks of other users and tasks that
+ *                 no longer matched by the time their chunk ran are not counted
+ * @param chunks   transactions the operation took
+ */
+public record BulkResult(String action, int affected, int chunks, long elapsedMillis) {
+}
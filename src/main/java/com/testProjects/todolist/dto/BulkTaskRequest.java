@@ -0,0 +1,10 @@
+package com.testProjects.todolist.dto;
+
+import com.testProjects.todolist.models.Priority;
+
+/**
+ * Body of the bulk API calls: the tasks to change, plus the new priority for
+ * {@code /priority} or the number of days (negative for earlier) for {@code /shift-deadlines}.
+ */
+public record BulkTaskRequest(TaskSelection select, Priority priority, Integer days) {
+}
@@ -0,0 +1,16 @@
+package com.testProjects.todolist.dto;
+
+import java.util.List;
+
+/**
+ * Outcome of a bulk task import.
+ *
+ * @param errors  per-row failures, capped; {@code failed} always holds the full count
+ * @param aborted set when the payload became unreadable and the import stopped early
+ */
+public record ImportResult(long imported, long failed, List<RowError> errors, String aborted,
+                           long elapsedMillis, double rowsPerSecond) {
+
+    public record RowError(long row, String message) {
+    }
+}
@@ -0,0 +1,24 @@
+package com.testProjects.todolist.dto;
+
+import com.testProjects.todolist.models.Priority;
+import com.testProjects.todolist.models.Task;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * JSON representation of a task in the REST API.
+ */
+public record TaskDto(Long id, String title, String description, Priority priority,
+                      LocalDate deadline, LocalDateTime createdAt, LocalDateTime completedAt, long version) {
+
+    public static TaskDto of(Task task) {
+        return new TaskDto(task.getId(), task.getTitle(), task.getDescription(), task.getPriority(),
+                task.getDeadline(), task.getCreatedAt(), task.getCompletedAt(), task.getVersion());
+    }
+
+    public static TaskDto of(TaskSummary task) {
+        return new TaskDto(task.id(), task.title(), task.description(), task.priority(),
+                task.deadline(), task.createdAt(), task.completedAt(), task.version());
+    }
+}
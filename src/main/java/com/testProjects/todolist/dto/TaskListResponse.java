@@ -0,0 +1,14 @@
+package com.testProjects.todolist.dto;
+
+import java.util.List;
+
+/**
+ * One keyset page of the REST task list.
+ */
+public record TaskListResponse(List<TaskDto> items, String prevCursor, String nextCursor) {
+
+    public static TaskListResponse of(TaskPage page) {
+        return new TaskListResponse(page.tasks().stream().map(TaskDto::of).toList(),
+                page.prevCursor(), page.nextCursor());
+    }
+}
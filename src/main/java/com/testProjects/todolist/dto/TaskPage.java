@@ -0,0 +1,32 @@
+package com.testProjects.todolist.dto;
+
+import java.util.List;
+
+/**
+ * One keyset page of tasks plus the cursors needed to move to the neighbouring pages.
+ * A null cursor means there is no page in that direction. Immutable, so it can be
+ * cached and shared as is.
+ */
+public record TaskPage(List<TaskSummary> tasks, String prevCursor, String nextCursor) {
+
+    public TaskPage {
+        tasks = List.copyOf(tasks);
+    }
+
+    public static TaskPage of(List<TaskSummary> tasks, boolean hasPrev, boolean hasNext) {
+        if (tasks.isEmpty()) {
+            return new TaskPage(tasks, null, null);
+        }
+        String prev = hasPrev ? TaskCursor.of(tasks.get(0)).encode() : null;
+        String next = hasNext ? TaskCursor.of(tasks.get(tasks.size() - 1)).encode() : null;
+        return new TaskPage(tasks, prev, next);
+    }
+
+    public boolean hasPrev() {
+        return prevCursor != null;
+    }
+
+    public boolean hasNext() {
+        return nextCursor != null;
+    }
+}
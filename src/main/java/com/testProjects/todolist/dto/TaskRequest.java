@@ -0,0 +1,22 @@
+package com.testProjects.todolist.dto;
+
+import com.testProjects.todolist.models.Priority;
+import com.testProjects.todolist.models.Task;
+
+import java.time.LocalDate;
+
+/**
+ * Body of REST create and update calls. Every field is written; a missing
+ * priority falls back to the default. On update, {@code version} (as returned in
+ * {@link TaskDto}) makes the write fail if the task changed meanwhile.
+ */
+public record TaskRequest(String title, String description, Priority priority, LocalDate deadline,
+                          Long version) {
+
+    public void applyTo(Task task) {
+        task.setTitle(title);
+        task.setDescription(description);
+        task.setPriority(priority == null ? Priority.MEDIUM : priority);
+        task.setDeadline(deadline);
+    }
+}
@@ -0,0 +1,38 @@
+package com.testProjects.todolist.dto;
+
+import com.testProjects.todolist.models.Priority;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Which of the current user's tasks a bulk operation applies to: those with one of
+ * {@code ids}, and/or those matching every filter given. Deadline bounds are inclusive;
+ * {@code completed} picks done (true) or open (false) tasks.
+ */
+public record TaskSelection(List<Long> ids, Priority priority, Boolean completed,
+                            LocalDate dueFrom, LocalDate dueTo) {
+
+    public TaskSelection {
+        ids = ids == null ? null : ids.stream().filter(Objects::nonNull).distinct().sorted().toList();
+    }
+
+    public static TaskSelection ofIds(List<Long> ids) {
+        return new TaskSelection(ids, null, null, null, null);
+    }
+
+    /** The same filters over other ids; how an id list is split into chunks. */
+    public TaskSelection withIds(List<Long> ids) {
+        return new TaskSelection(ids, priority, completed, dueFrom, dueTo);
+    }
+
+    public boolean hasIds() {
+        return ids != null;
+    }
+
+    /** True when nothing narrows the selection; such a selection is rejected, never "all tasks". */
+    public boolean isEmpty() {
+        return ids == null && priority == null && completed == null && dueFrom == null && dueTo == null;
+    }
+}
@@ -0,0 +1,20 @@
+package com.testProjects.todolist.dto;
+
+import com.testProjects.todolist.models.Priority;
+
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.SortedMap;
+
+/**
+ * Dashboard figures of one user's tasks as of {@code asOf}. {@code dueThisWeek} counts
+ * deadlines from {@code asOf} through the six days after it; {@code createdPerDay}
+ * holds every day of the window, including days without new tasks.
+ */
+public record TaskStats(LocalDate asOf,
+                        long total,
+                        Map<Priority, Long> byPriority,
+                        long overdue,
+                        long dueThisWeek,
+                        SortedMap<LocalDate, Long> createdPerDay) {
+}
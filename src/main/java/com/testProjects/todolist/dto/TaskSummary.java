@@ -0,0 +1,22 @@
+package com.testProjects.todolist.dto;
+
+import com.testProjects.todolist.models.Priority;
+import com.testProjects.todolist.models.Task;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Read-only row of a task list: the task's own columns without its owner.
+ * List queries select it through a constructor expression, so no managed entity,
+ * dirty-checking snapshot or lazy user proxy is created per row.
+ */
+public record TaskSummary(Long id, String title, String description, Priority priority,
+                          LocalDate deadline, LocalDateTime createdAt, LocalDateTime completedAt,
+                          long version) {
+
+    public static TaskSummary of(Task task) {
+        return new TaskSummary(task.getId(), task.getTitle(), task.getDescription(), task.getPriority(),
+                task.getDeadline(), task.getCreatedAt(), task.getCompletedAt(), task.getVersion());
+    }
+}
@@ -0,0 +1,11 @@
+package com.testProjects.todolist.dto;
+
+/**
+ * Read-only projection with just the searchable text of a task.
+ * Used to build the search index without hydrating full entities.
+ */
+public interface TaskText {
+    Long getId();
+    String getTitle();
+    String getDescription();
+}
@@ -0,0 +1,8 @@
+package com.testProjects.todolist.dto;
+
+/**
+ * Owner id and a change version, read in one statement: either the owner's task change
+ * version, equal only if none of the owner's tasks changed, or a single task's own version.
+ */
+public record VersionStamp(Long ownerId, long version) {
+}
@@ -0,0 +1,59 @@
+package com.testProjects.todolist.exporter;
+
+import com.testProjects.todolist.models.Task;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * RFC 4180 CSV with a header row. The columns are a superset of what the CSV
+ * import reads, so an export can be imported again as is, and are named like the
+ * fields of the NDJSON export and the JSON API.
+ */
+public class CsvTaskExportWriter implements TaskExportWriter {
+
+    private final Writer out;
+
+    public CsvTaskExportWriter(OutputStream out) throws IOException {
+        this.out = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        this.out.write("id,title,description,priority,deadline,createdAt\r\n");
+    }
+
+    @Override
+    public void write(Task task) throws IOException {
+        out.write(String.valueOf(task.getId()));
+        out.write(',');
+        writeField(task.getTitle());
+        out.write(',');
+        writeField(task.getDescription());
+        out.write(',');
+        writeField(task.getPriority() == null ? null : task.getPriority().name());
+        out.write(',');
+        writeField(task.getDeadline() == null ? null : task.getDeadline().toString());
+        out.write(',');
+        writeField(task.getCreatedAt() == null ? null : task.getCreatedAt().toString());
+        out.write("\r\n");
+    }
+
+    private void writeField(String value) throws IOException {
+        if (value == null) {
+            return;
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            out.write(value);
+            return;
+        }
+        out.write('"');
+        out.write(value.replace("\"", "\"\""));
+        out.write('"');
+    }
+
+    @Override
+    public void finish() throws IOException {
+        out.flush();
+    }
+}
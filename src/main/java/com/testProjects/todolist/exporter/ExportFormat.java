@@ -0,0 +1,31 @@
+package com.testProjects.todolist.exporter;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+public enum ExportFormat {
+    NDJSON("application/x-ndjson", "ndjson"),
+    CSV("text/csv", "csv");
+
+    private final String contentType;
+    private final String extension;
+
+    ExportFormat(String contentType, String extension) {
+        this.contentType = contentType;
+        this.extension = extension;
+    }
+
+    public String contentType() {
+        return contentType;
+    }
+
+    public String extension() {
+        return extension;
+    }
+
+    public TaskExportWriter writer(ObjectMapper objectMapper, OutputStream out) throws IOException {
+        return this == CSV ? new CsvTaskExportWriter(out) : new NdjsonTaskExportWriter(objectMapper, out);
+    }
+}
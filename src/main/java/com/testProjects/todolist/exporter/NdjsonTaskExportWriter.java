@@ -0,0 +1,42 @@
+package com.testProjects.todolist.exporter;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.testProjects.todolist.models.Task;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * One JSON object per line, written with the streaming generator so no
+ * intermediate tree is built per row.
+ */
+public class NdjsonTaskExportWriter implements TaskExportWriter {
+
+    private final JsonGenerator json;
+
+    public NdjsonTaskExportWriter(ObjectMapper objectMapper, OutputStream out) throws IOException {
+        this.json = objectMapper.getFactory().createGenerator(out, JsonEncoding.UTF8)
+                .configure(JsonGenerator.Feature.AUTO_CLOSE_TARGET, false);
+        this.json.setRootValueSeparator(null);
+    }
+
+    @Override
+    public void write(Task task) throws IOException {
+        json.writeStartObject();
+        json.writeNumberField("id", task.getId());
+        json.writeStringField("title", task.getTitle());
+        json.writeStringField("description", task.getDescription());
+        json.writeStringField("priority", task.getPriority() == null ? null : task.getPriority().name());
+        json.writeStringField("deadline", task.getDeadline() == null ? null : task.getDeadline().toString());
+        json.writeStringField("createdAt", task.getCreatedAt() == null ? null : task.getCreatedAt().toString());
+        json.writeEndObject();
+        json.writeRaw('\n');
+    }
+
+    @Override
+    public void finish() throws IOException {
+        json.flush();
+    }
+}
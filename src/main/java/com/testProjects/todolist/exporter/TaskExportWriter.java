@@ -0,0 +1,16 @@
+package com.testProjects.todolist.exporter;
+
+import com.testProjects.todolist.models.Task;
+
+import java.io.IOException;
+
+/**
+ * Writes exported tasks to an output stream one row at a time.
+ */
+public interface TaskExportWriter {
+
+    void write(Task task) throws IOException;
+
+    /** Flushes buffered output; does not close the underlying stream. */
+    void finish() throws IOException;
+}
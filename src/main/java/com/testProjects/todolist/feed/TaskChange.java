@@ -0,0 +1,44 @@
+package com.testProjects.todolist.feed;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.testProjects.todolist.models.Priority;
+import com.testProjects.todolist.models.Task;
+
+import java.time.LocalDate;
+
+/**
+ * One change to a user's tasks as sent on the change feed. Deletes carry only the id,
+ * completion changes the id and {@code completed}; RELOAD means more changed than is
+ * worth describing and the list should be fetched.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record TaskChange(Type type, Long id, String title, String description,
+                         Priority priority, LocalDate deadline, Boolean completed) {
+
+    public enum Type { CREATED, UPDATED, DELETED, RELOAD }
+
+    public static TaskChange created(Task task) {
+        return of(Type.CREATED, task.getId(), task);
+    }
+
+    public static TaskChange updated(Long id, Task changes) {
+        return of(Type.UPDATED, id, changes);
+    }
+
+    public static TaskChange deleted(Long id) {
+        return new TaskChange(Type.DELETED, id, null, null, null, null, null);
+    }
+
+    public static TaskChange completed(Long id, boolean completed) {
+        return new TaskChange(Type.UPDATED, id, null, null, null, null, completed);
+    }
+
+    public static TaskChange reload() {
+        return new TaskChange(Type.RELOAD, null, null, null, null, null, null);
+    }
+
+    private static TaskChange of(Type type, Long id, Task task) {
+        return new TaskChange(type, id, task.getTitle(), task.getDescription(), task.getPriority(),
+                task.getDeadline(), null);
+    }
+}
@@ -0,0 +1,222 @@
+package com.testProjects.todolist.feed;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-process fan-out of task changes to the Server-Sent Events streams of their owner.
+ *
+ * An open stream is an async request and holds no thread while idle. Each subscriber
+ * has a small queue of its own; a virtual thread drains it when something arrives, so
+ * a slow client delays only itself. A subscriber whose queue overflows is closed and
+ * reconnects to a fresh list. Changes made inside a transaction are sent after it
+ * commits. Only the node that made a change sends it.
+ */
+@Component
+public class TaskChangeHub {
+
+    /** One open stream and the events not yet written to it. */
+    final class Subscriber {
+        final Long userId;
+        final SseEmitter emitter;
+        final Queue<SseEmitter.SseEventBuilder> pending;
+        final AtomicBoolean draining = new AtomicBoolean();
+        volatile boolean closed;
+
+        Subscriber(Long userId, SseEmitter emitter) {
+            this.userId = userId;
+            this.emitter = emitter;
+            this.pending = new ArrayBlockingQueue<>(bufferSize);
+        }
+
+        void offer(SseEmitter.SseEventBuilder event) {
+            if (closed) {
+                return;
+            }
+            if (!pending.offer(event)) {
+                dropped.increment();
+                close();
+                emitter.complete();
+                return;
+            }
+            if (draining.compareAndSet(false, true)) {
+                sender.execute(this::drain);
+            }
+        }
+
+        private void drain() {
+            do {
+                SseEmitter.SseEventBuilder event;
+                while (!closed && (event = pending.poll()) != null) {
+                    try {
+                        emitter.send(event);
+                    } catch (Exception e) {
+                        // the client went away; the container reports it through onError too
+                        close();
+                        emitter.completeWithError(e);
+                    }
+                }
+                draining.set(false);
+            } while (!closed && !pending.isEmpty() && draining.compareAndSet(false, true));
+        }
+
+        void close() {
+            closed = true;
+            pending.clear();
+            Set<Subscriber> set = subscribers.get(userId);
+            if (set != null && set.remove(this)) {
+                connections.decrementAndGet();
+                subscribers.computeIfPresent(userId, (id, s) -> s.isEmpty() ? null : s);
+            }
+        }
+    }
+
+    private final Map<Long, Set<Subscriber>> subscribers = new ConcurrentHashMap<>();
+    private final AtomicInteger connections = new AtomicInteger();
+    private final AtomicLong eventIds = new AtomicLong();
+    private final ExecutorService sender;
+    private final int maxPerUser;
+    private final int maxConnections;
+    private final int bufferSize;
+    private final long timeoutMillis;
+    private final Counter published;
+    private final Counter dropped;
+
+    @Autowired
+    public TaskChangeHub(MeterRegistry meterRegistry,
+                         @Value("${todolist.feed.max-per-user:8}") int maxPerUser,
+                         @Value("${todolist.feed.max-connections:10000}") int maxConnections,
+                         @Value("${todolist.feed.buffer:64}") int bufferSize,
+                         @Value("${todolist.feed.timeout:30m}") Duration timeout) {
+        this(Executors.newVirtualThreadPerTaskExecutor(), meterRegistry, maxPerUser, maxConnections,
+                bufferSize, timeout);
+    }
+
+    TaskChangeHub(ExecutorService sender, MeterRegistry meterRegistry, int maxPerUser, int maxConnections,
+                  int bufferSize, Duration timeout) {
+        this.sender = sender;
+        this.maxPerUser = maxPerUser;
+        this.maxConnections = maxConnections;
+        this.bufferSize = bufferSize;
+        this.timeoutMillis = timeout.toMillis();
+        this.published = meterRegistry.counter("todolist.feed.events");
+        this.dropped = meterRegistry.counter("todolist.feed.dropped");
+        Gauge.builder("todolist.feed.connections", connections, AtomicInteger::get)
+                .description("Open task change streams")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Opens a change stream for the user. Returns null when the user or the node already
+     * has as many open streams as allowed.
+     */
+    public SseEmitter subscribe(Long userId) {
+        SseEmitter emitter = new SseEmitter(timeoutMillis);
+        return register(userId, emitter) ? emitter : null;
+    }
+
+    boolean register(Long userId, SseEmitter emitter) {
+        Subscriber subscriber = new Subscriber(userId, emitter);
+        if (connections.incrementAndGet() > maxConnections) {
+            connections.decrementAndGet();
+            return false;
+        }
+        boolean[] added = {false};
+        subscribers.compute(userId, (id, set) -> {
+            if (set == null) {
+                set = ConcurrentHashMap.newKeySet();
+            }
+            if (set.size() < maxPerUser) {
+                added[0] = set.add(subscriber);
+            }
+            return set.isEmpty() ? null : set;
+        });
+        if (!added[0]) {
+            connections.decrementAndGet();
+            return false;
+        }
+        emitter.onCompletion(subscriber::close);
+        emitter.onTimeout(subscriber::close);
+        emitter.onError(e -> subscriber.close());
+        // tells the client the stream is up, so it can refetch what it missed while away
+        subscriber.offer(SseEmitter.event().name("hello").data(""));
+        return true;
+    }
+
+    /** Sends the change to the user's streams, after the current transaction commits. */
+    public void publish(Long userId, TaskChange change) {
+        if (userId == null || !subscribers.containsKey(userId)) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    deliver(userId, change);
+                }
+            });
+        } else {
+            deliver(userId, change);
+        }
+    }
+
+    private void deliver(Long userId, TaskChange change) {
+        Set<Subscriber> set = subscribers.get(userId);
+        if (set == null) {
+            return;
+        }
+        published.increment();
+        String id = Long.toString(eventIds.incrementAndGet());
+        for (Subscriber subscriber : set) {
+            // a builder is consumed by one send, so every stream gets its own
+            subscriber.offer(SseEmitter.event().id(id).name("task").data(change, MediaType.APPLICATION_JSON));
+        }
+    }
+
+    /** Comment line on every stream, so dead connections are noticed and proxies keep them open. */
+    @Scheduled(fixedDelayString = "${todolist.feed.heartbeat:PT30S}")
+    public void heartbeat() {
+        for (Set<Subscriber> set : subscribers.values()) {
+            for (Subscriber subscriber : set) {
+                subscriber.offer(SseEmitter.event().comment("ping"));
+            }
+        }
+    }
+
+    public int connections() {
+        return connections.get();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        for (Set<Subscriber> set : subscribers.values()) {
+            for (Subscriber subscriber : set) {
+                subscriber.close();
+                subscriber.emitter.complete();
+            }
+        }
+        sender.shutdown();
+    }
+}
@@ -0,0 +1,113 @@
+package com.testProjects.todolist.importer;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Reads RFC 4180 CSV. The first record is a header naming the columns
+ * {@code title}, {@code description}, {@code priority} and {@code deadline}
+ * in any order; only {@code title} is required and unknown columns are ignored.
+ */
+public class CsvTaskRowReader implements TaskRowReader {
+
+    private final Reader in;
+    private final Map<String, Integer> columns = new HashMap<>();
+    private long rowNumber;
+
+    public CsvTaskRowReader(InputStream in) throws IOException {
+        this(new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8)));
+    }
+
+    CsvTaskRowReader(Reader in) throws IOException {
+        this.in = in;
+        List<String> header = readRecord();
+        if (header == null) {
+            return;
+        }
+        for (int i = 0; i < header.size(); i++) {
+            columns.put(header.get(i).trim().toLowerCase(Locale.ROOT).replace("\uFEFF", ""), i);
+        }
+        if (!columns.containsKey("title")) {
+            throw new ImportFormatException("CSV header must contain a 'title' column");
+        }
+    }
+
+    @Override
+    public TaskRow next() throws IOException {
+        List<String> record;
+        do {
+            record = readRecord();
+            if (record == null) {
+                return null;
+            }
+        } while (record.size() == 1 && record.get(0).isEmpty()); // skip blank lines
+        rowNumber++;
+        return new TaskRow(rowNumber, field(record, "title"), field(record, "description"),
+                field(record, "priority"), field(record, "deadline"));
+    }
+
+    private String field(List<String> record, String name) {
+        Integer index = columns.get(name);
+        if (index == null || index >= record.size()) {
+            return null;
+        }
+        String value = record.get(index);
+        return value.isEmpty() ? null : value;
+    }
+
+    private List<String> readRecord() throws IOException {
+        int c = in.read();
+        if (c == -1) {
+            return null;
+        }
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        while (true) {
+            if (quoted) {
+                if (c == -1) {
+                    throw new IOException("unterminated quoted field in CSV row " + (rowNumber + 1));
+                }
+                if (c == '"') {
+                    int next = in.read();
+                    if (next == '"') {
+                        field.append('"');
+                    } else {
+                        quoted = false;
+                        c = next;
+                        continue;
+                    }
+                } else {
+                    field.append((char) c);
+                }
+            } else if (c == -1 || c == '\n') {
+                fields.add(field.toString());
+                return fields;
+            } else if (c == '\r') {
+                // swallowed; the following \n ends the record
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else if (c == '"' && field.isEmpty()) {
+                quoted = true;
+            } else {
+                field.append((char) c);
+            }
+            c = in.read();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+}
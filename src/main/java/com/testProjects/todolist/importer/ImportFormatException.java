@@ -0,0 +1,14 @@
+package com.testProjects.todolist.importer;
+
+import java.io.IOException;
+
+/**
+ * The upload cannot be read as an import at all, e.g. a CSV header without a title
+ * column; the client's fault rather than a failure while reading.
+ */
+public class ImportFormatException extends IOException {
+
+    public ImportFormatException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,47 @@
+package com.testProjects.todolist.importer;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Reads task objects from either a JSON array or newline-delimited JSON, one object
+ * at a time, with fields {@code title}, {@code description}, {@code priority} and
+ * {@code deadline}.
+ */
+public class JsonTaskRowReader implements TaskRowReader {
+
+    private final MappingIterator<JsonNode> nodes;
+    private long rowNumber;
+
+    public JsonTaskRowReader(ObjectMapper objectMapper, InputStream in) throws IOException {
+        this.nodes = objectMapper.readerFor(JsonNode.class).readValues(in);
+    }
+
+    @Override
+    public TaskRow next() throws IOException {
+        if (!nodes.hasNextValue()) {
+            return null;
+        }
+        JsonNode node = nodes.nextValue();
+        rowNumber++;
+        if (!node.isObject()) {
+            return new TaskRow(rowNumber, null, null, null, null);
+        }
+        return new TaskRow(rowNumber, text(node, "title"), text(node, "description"),
+                text(node, "priority"), text(node, "deadline"));
+    }
+
+    private static String text(JsonNode node, String field) {
+        JsonNode value = node.get(field);
+        return value == null || value.isNull() ? null : value.asText();
+    }
+
+    @Override
+    public void close() throws IOException {
+        nodes.close();
+    }
+}
@@ -0,0 +1,53 @@
+package com.testProjects.todolist.importer;
+
+import com.testProjects.todolist.models.Priority;
+import com.testProjects.todolist.models.Task;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.Locale;
+
+/**
+ * One raw input row of a task import, before validation.
+ *
+ * @param rowNumber 1-based position of the row in the input, header excluded
+ */
+public record TaskRow(long rowNumber, String title, String description, String priority, String deadline) {
+
+    static final int MAX_TEXT_LENGTH = 255;
+
+    /**
+     * Validates the row and converts it into a new, unsaved task.
+     *
+     * @throws IllegalArgumentException with a message suitable for the import report
+     */
+    public Task toTask() {
+        if (title == null || title.isBlank()) {
+            throw new IllegalArgumentException("title is required");
+        }
+        if (title.length() > MAX_TEXT_LENGTH) {
+            throw new IllegalArgumentException("title is longer than " + MAX_TEXT_LENGTH + " characters");
+        }
+        if (description != null && description.length() > MAX_TEXT_LENGTH) {
+            throw new IllegalArgumentException("description is longer than " + MAX_TEXT_LENGTH + " characters");
+        }
+        Task task = new Task();
+        task.setTitle(title.trim());
+        task.setDescription(description);
+        if (priority != null && !priority.isBlank()) {
+            try {
+                task.setPriority(Priority.valueOf(priority.trim().toUpperCase(Locale.ROOT)));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("unknown priority '" + priority + "'");
+            }
+        }
+        if (deadline != null && !deadline.isBlank()) {
+            try {
+                task.setDeadline(LocalDate.parse(deadline.trim()));
+            } catch (DateTimeParseException e) {
+                throw new IllegalArgumentException("deadline '" + deadline + "' is not an ISO date (yyyy-MM-dd)");
+            }
+        }
+        return task;
+    }
+}
@@ -0,0 +1,18 @@
+package com.testProjects.todolist.importer;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * Streams rows out of an import payload one at a time so the whole payload never
+ * has to be held in memory.
+ */
+public interface TaskRowReader extends Closeable {
+
+    /**
+     * Returns the next row, or null at the end of the input.
+     *
+     * @throws IOException if the payload is malformed beyond the current row
+     */
+    TaskRow next() throws IOException;
+}
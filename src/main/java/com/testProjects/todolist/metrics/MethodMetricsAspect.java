@@ -0,0 +1,112 @@
+package com.testProjects.todolist.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.aspectj.lang.JoinPoint;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.AfterReturning;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.aop.framework.AopProxyUtils;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Slice;
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.Method;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Times every public method of the services, the user details service and the search
+ * index ({@code todolist.method}), and records how many rows each repository call
+ * returned ({@code todolist.repository.rows}). Repository latency itself comes from
+ * Spring Data's own {@code spring.data.repository.invocations} timer.
+ *
+ * Meters are resolved once per method and kept, so a call costs a map lookup and a
+ * lock-free histogram update. {@code todolist.metrics.enabled=false} removes the
+ * aspect, and with it the proxies.
+ */
+@Aspect
+@Component
+@ConditionalOnProperty(name = "todolist.metrics.enabled", havingValue = "true", matchIfMissing = true)
+public class MethodMetricsAspect {
+
+    static final String METHOD_TIMER = "todolist.method";
+    static final String REPOSITORY_ROWS = "todolist.repository.rows";
+
+    private final MeterRegistry registry;
+    private final Map<Method, Timer> timers = new ConcurrentHashMap<>();
+    private final Map<RepositoryMethod, DistributionSummary> rowSummaries = new ConcurrentHashMap<>();
+
+    public MethodMetricsAspect(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    @Around("within(com.testProjects.todolist.services..*)"
+            + " || within(com.testProjects.todolist.security.CustomUserDetailsService)"
+            + " || within(com.testProjects.todolist.search.TaskSearchIndex)")
+    public Object time(ProceedingJoinPoint joinPoint) throws Throwable {
+        long start = System.nanoTime();
+        try {
+            Object result = joinPoint.proceed();
+            successTimer(joinPoint).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            return result;
+        } catch (Throwable e) {
+            // failures are rare, so their timers are not worth caching
+            Timer.builder(METHOD_TIMER)
+                    .tags(tags(joinPoint))
+                    .tag("exception", e.getClass().getSimpleName())
+                    .register(registry)
+                    .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            throw e;
+        }
+    }
+
+    // execution(... Repository+) rather than this(TaskRepository) so that inherited
+    // methods such as findById and findAllById are matched too
+    @AfterReturning(pointcut = "execution(* org.springframework.data.repository.Repository+.*(..))",
+            returning = "result")
+    public void countRows(JoinPoint joinPoint, Object result) {
+        long rows;
+        if (result instanceof Collection<?> collection) {
+            rows = collection.size();
+        } else if (result instanceof Slice<?> slice) {
+            rows = slice.getNumberOfElements();
+        } else if (result instanceof Optional<?> optional) {
+            rows = optional.isPresent() ? 1 : 0;
+        } else {
+            // counts, void modifications, and streams that are consumed later
+            return;
+        }
+        Class<?> repository = AopProxyUtils.proxiedUserInterfaces(joinPoint.getThis())[0];
+        String method = joinPoint.getSignature().getName();
+        rowSummaries.computeIfAbsent(new RepositoryMethod(repository, method), key ->
+                DistributionSummary.builder(REPOSITORY_ROWS)
+                        .tag("repository", key.repository().getSimpleName())
+                        .tag("method", key.method())
+                        .register(registry))
+                .record(rows);
+    }
+
+    private Timer successTimer(ProceedingJoinPoint joinPoint) {
+        Method method = ((MethodSignature) joinPoint.getSignature()).getMethod();
+        return timers.computeIfAbsent(method, m -> Timer.builder(METHOD_TIMER)
+                .tags(tags(joinPoint))
+                .tag("exception", "none")
+                .register(registry));
+    }
+
+    private static String[] tags(JoinPoint joinPoint) {
+        return new String[]{
+                "class", joinPoint.getSignature().getDeclaringType().getSimpleName(),
+                "method", joinPoint.getSignature().getName()};
+    }
+
+    private record RepositoryMethod(Class<?> repository, String method) {
+    }
+}
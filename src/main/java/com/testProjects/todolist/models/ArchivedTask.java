@@ -0,0 +1,46 @@
+package com.testProjects.todolist.models;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * A completed task moved out of the task table by the archiver. Rows are only ever
+ * inserted by the archiver's INSERT ... SELECT and read page by page, so they keep
+ * the task's id, refer to the owner by id only and are not cached.
+ */
+@Entity
+@Table(name = "archived_task", indexes = {
+        // one owner's archive, most recently completed first
+        @Index(name = "idx_archived_task_user_completed", columnList = "user_id, completed_at, id")
+})
+@Getter
+@Setter
+public class ArchivedTask {
+
+    @Id
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    private String title;
+    private String description;
+
+    @Enumerated(EnumType.STRING)
+    private Priority priority;
+
+    private LocalDate deadline;
+
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+
+    @Column(name = "completed_at", nullable = false)
+    private LocalDateTime completedAt;
+
+    @Column(name = "archived_at", nullable = false)
+    private LocalDateTime archivedAt;
+}
@@ -1,19 +1,45 @@
 package com.testProjects.todolist.models;
 
+import com.testProjects.todolist.config.BlockAllocatedId;
 import jakarta.persistence.*;
 import lombok.Getter;
 import lombok.Setter;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 
 
 @Entity
+@Table(indexes = {
+        // keyset pagination of a user's list: WHERE user_id = ? ORDER BY created_at, id
+        @Index(name = "idx_task_user_created", columnList = "user_id, created_at, id"),
+        // one priority of a user's tasks, soonest deadline first
+        @Index(name = "idx_task_user_priority_deadline", columnList = "user_id, priority, deadline"),
+        // overdue and due-between ranges over all of a user's priorities
+        @Index(name = "idx_task_user_deadline", columnList = "user_id, deadline"),
+        // upcoming deadlines of all users, read by the reminder engine one day at a time
+        @Index(name = "idx_task_deadline", columnList = "deadline"),
+        // completed tasks due for the archive, oldest completion first
+        @Index(name = "idx_task_completed", columnList = "completed_at")
+})
+@NamedEntityGraph(name = Task.DETAIL_GRAPH, attributeNodes = {
+        @NamedAttributeNode("title"), @NamedAttributeNode("description"), @NamedAttributeNode("priority"),
+        @NamedAttributeNode("deadline"), @NamedAttributeNode("createdAt"), @NamedAttributeNode("completedAt")
+})
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "task")
 @Getter
 @Setter
 public class Task {
 
+    // Fetch plan of the details and edit views; the owner is not part of it.
+    public static final String DETAIL_GRAPH = "Task.detail";
+
+    // Block-allocated instead of IDENTITY so inserts can be JDBC-batched;
+    // one round trip to id_sequences reserves 50 ids.
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @BlockAllocatedId(sequence = "task", blockSize = 50)
     private Long id;
     private String title;
     private String description;
@@ -25,6 +51,13 @@ public class Task {
     private LocalDate deadline;          // optional deadline (date only)
     @Column(name = "created_at", updatable = false)
     private LocalDateTime createdAt;     // automatic timestamp
+    // set while the task is done; TaskArchiver moves it to archived_task some time after
+    @Column(name = "completed_at")
+    private LocalDateTime completedAt;
+
+    // Optimistic lock: every update must name the version it was based on.
+    @Version
+    private long version;
 
     @PrePersist
     protected void onCreate() {
@@ -2,6 +2,10 @@ package com.testProjects.todolist.models;
 
 import jakarta.persistence.*;
 import lombok.Data;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -9,18 +13,29 @@ import java.util.List;
 @Entity
 @Data
 @Table(name = "users")
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "user")
+@NaturalIdCache(region = "user-by-username")
 public class User {
 
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
+    // looked up through the natural-id cache, see UserRepository.findByUsername
+    @NaturalId
     @Column(nullable = false, unique = true)
     private String username;
 
     @Column(nullable = false)
     private String password;
 
+    // bumped on every write to this user's tasks; cache entries are stamped with it.
+    // Only UserRepository.bumpTasksVersion writes it and only queries read it, so the
+    // copy held by the second-level cache is allowed to lag.
+    @Column(name = "tasks_version", nullable = false, updatable = false)
+    private long tasksVersion;
+
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "user-tasks")
     @OneToMany(mappedBy = "user", cascade = CascadeType.ALL)
     private List<Task> tasks = new ArrayList<>();
 
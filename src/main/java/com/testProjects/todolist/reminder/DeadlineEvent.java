@@ -0,0 +1,16 @@
+package com.testProjects.todolist.reminder;
+
+import java.time.LocalDate;
+
+/**
+ * Fired once when a task's deadline day starts ({@link Kind#DUE}) and once when it has
+ * passed ({@link Kind#OVERDUE}). {@code firedOn} is the day the engine fired it for,
+ * which is later than planned only if the node was not ticking at the time.
+ */
+public record DeadlineEvent(DeadlineReminder reminder, Kind kind, LocalDate firedOn) {
+
+    public enum Kind {
+        DUE,
+        OVERDUE
+    }
+}
@@ -0,0 +1,10 @@
+package com.testProjects.todolist.reminder;
+
+import java.time.LocalDate;
+
+/**
+ * The part of a task the reminder engine holds: who owns it, what it is called and
+ * when it is due. Loaded straight from the tasks table, never as an entity.
+ */
+public record DeadlineReminder(Long taskId, Long userId, String title, LocalDate deadline) {
+}
@@ -0,0 +1,168 @@
+package com.testProjects.todolist.reminder;
+
+import com.testProjects.todolist.models.Task;
+import com.testProjects.todolist.repositories.TaskRepository;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Fires DUE and OVERDUE events for task deadlines to every {@link DeadlineSink}.
+ *
+ * Only the deadlines of the next {@code horizonDays} days are held, in a
+ * {@link DeadlineWheel}. They are read with one range query over the deadline index
+ * at startup; after that each day the wheel turns, the day that enters the horizon
+ * is read the same way, outside the lock. Task writes on this node keep the wheel
+ * current through {@link #schedule} and {@link #cancel}; writes on other nodes are
+ * seen once their deadline enters the horizon.
+ *
+ * The wheel starts at yesterday, so deadlines that passed the day before a restart
+ * still get their OVERDUE event. Their DUE event, like that of today's deadlines,
+ * fires again on the first turn after a restart.
+ */
+@Component
+public class DeadlineReminders {
+
+    private static final Logger log = LoggerFactory.getLogger(DeadlineReminders.class);
+
+    private final TaskRepository taskRepository;
+    private final List<DeadlineSink> sinks;
+    private final boolean enabled;
+    private final DeadlineWheel wheel;
+    private final Clock clock;
+    /** Deadlines before this day have been read from the database. */
+    private LocalDate loadedUntil;
+    /** Tasks written while the days entering the horizon are read; null when none are. */
+    private Set<Long> writtenWhileLoading;
+
+    @Autowired
+    public DeadlineReminders(TaskRepository taskRepository,
+                             List<DeadlineSink> sinks,
+                             @Value("${todolist.reminders.enabled:true}") boolean enabled,
+                             @Value("${todolist.reminders.horizon-days:7}") int horizonDays) {
+        this(taskRepository, sinks, enabled, horizonDays, Clock.systemDefaultZone());
+    }
+
+    DeadlineReminders(TaskRepository taskRepository, List<DeadlineSink> sinks,
+                      boolean enabled, int horizonDays, Clock clock) {
+        this.taskRepository = taskRepository;
+        this.sinks = List.copyOf(sinks);
+        this.enabled = enabled;
+        this.clock = clock;
+        this.wheel = new DeadlineWheel(horizonDays, LocalDate.now(clock).minusDays(1));
+        this.loadedUntil = wheel.horizon();
+    }
+
+    /**
+     * Loads the deadlines within the horizon. Runs before the application takes
+     * requests, so no write can slip between the query and the wheel.
+     */
+    @PostConstruct
+    public synchronized void recover() {
+        if (!enabled) {
+            return;
+        }
+        long start = System.nanoTime();
+        List<DeadlineReminder> upcoming = taskRepository.findDeadlinesBetween(wheel.cursor(), wheel.horizon());
+        upcoming.forEach(wheel::put);
+        loadedUntil = wheel.horizon();
+        log.info("Holding {} task deadlines from {} until {}, loaded in {} ms",
+                wheel.size(), wheel.cursor(), wheel.horizon(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /**
+     * Turns the wheel to today and publishes what fell due. Deadlines are dates, so
+     * most ticks do nothing; the interval only bounds how late after midnight events fire.
+     * The days that entered the horizon are read without holding the lock, so task
+     * writes are not blocked by the query; a failed read is retried on the next tick.
+     */
+    @Scheduled(fixedDelayString = "${todolist.reminders.tick:PT1M}")
+    public void tick() {
+        if (!enabled) {
+            return;
+        }
+        List<DeadlineEvent> fired;
+        LocalDate from;
+        LocalDate until;
+        synchronized (this) {
+            fired = wheel.advance(LocalDate.now(clock));
+            from = loadedUntil;
+            until = wheel.horizon();
+            if (until.isAfter(from)) {
+                writtenWhileLoading = new HashSet<>();
+            }
+        }
+        fired.forEach(this::publish);
+        if (until.isAfter(from)) {
+            load(from, until);
+        }
+    }
+
+    private void load(LocalDate from, LocalDate until) {
+        List<DeadlineReminder> entering = null;
+        try {
+            entering = taskRepository.findDeadlinesBetween(from, until);
+        } finally {
+            synchronized (this) {
+                if (entering != null) {
+                    // a task held or written since the query started was put there by a
+                    // write on this node, which is at least as new as what the query read
+                    for (DeadlineReminder reminder : entering) {
+                        if (!writtenWhileLoading.contains(reminder.taskId())) {
+                            wheel.putIfAbsent(reminder);
+                        }
+                    }
+                    loadedUntil = until;
+                }
+                writtenWhileLoading = null;
+            }
+        }
+    }
+
+    /** Holds, moves or drops the reminder of a task that was just saved. */
+    public void schedule(Task task) {
+        if (task.getId() != null && task.getUser() != null) {
+            schedule(new DeadlineReminder(task.getId(), task.getUser().getId(), task.getTitle(), task.getDeadline()));
+        }
+    }
+
+    public synchronized void schedule(DeadlineReminder reminder) {
+        if (enabled) {
+            wheel.put(reminder);
+            if (writtenWhileLoading != null) {
+                writtenWhileLoading.add(reminder.taskId());
+            }
+        }
+    }
+
+    public synchronized void cancel(Long taskId) {
+        if (enabled && taskId != null) {
+            wheel.remove(taskId);
+            if (writtenWhileLoading != null) {
+                writtenWhileLoading.add(taskId);
+            }
+        }
+    }
+
+    private void publish(DeadlineEvent event) {
+        for (DeadlineSink sink : sinks) {
+            try {
+                sink.accept(event);
+            } catch (RuntimeException e) {
+                // one broken sink must not starve the others or stop the wheel
+                log.warn("Deadline sink {} failed for task {}", sink.getClass().getSimpleName(),
+                        event.reminder().taskId(), e);
+            }
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package com.testProjects.todolist.reminder;
+
+/**
+ * Receives deadline events. Every sink bean in the context gets every event, on the
+ * scheduler thread, so implementations should hand slow work off elsewhere.
+ *
+ * Delivery is at least once: a restart re-fires the events of the current day, and a
+ * task may have been deleted by the time its event arrives.
+ */
+@FunctionalInterface
+public interface DeadlineSink {
+
+    void accept(DeadlineEvent event);
+}
@@ -0,0 +1,146 @@
+package com.testProjects.todolist.reminder;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Timing wheel with one slot per day, covering the days from the cursor up to the
+ * horizon. Deadlines further out are not held; the caller loads them from the
+ * database as the wheel turns and the horizon moves past them, so the tasks table
+ * is in effect the wheel's overflow level.
+ *
+ * A held task sits in exactly one slot: the slot of its deadline until the DUE event
+ * fires, then the slot of the following day for the OVERDUE event. Adding, moving and
+ * cancelling a task are constant time; turning the wheel costs one step per day plus
+ * the events it fires. Not thread-safe.
+ */
+final class DeadlineWheel {
+
+    private record Entry(DeadlineReminder reminder, DeadlineEvent.Kind kind, long fireDay) {
+    }
+
+    private final List<Map<Long, Entry>> slots;
+    private final Map<Long, Entry> entries = new HashMap<>();
+    private long cursor;
+
+    /**
+     * @param days number of deadline days held, starting with {@code today}
+     */
+    DeadlineWheel(int days, LocalDate today) {
+        if (days < 1) {
+            throw new IllegalArgumentException("days must be positive");
+        }
+        // one extra slot for the OVERDUE event of the last deadline day
+        this.slots = new ArrayList<>(days + 1);
+        for (int i = 0; i <= days; i++) {
+            slots.add(new LinkedHashMap<>());
+        }
+        this.cursor = today.toEpochDay();
+    }
+
+    /** First deadline day that is not held; deadlines before it and from the cursor on are. */
+    LocalDate horizon() {
+        return LocalDate.ofEpochDay(cursor + slots.size() - 1);
+    }
+
+    /**
+     * Day the wheel was last turned to. Its slot is fired again on every turn, so a
+     * task added with today's deadline after the turn still gets its DUE event.
+     */
+    LocalDate cursor() {
+        return LocalDate.ofEpochDay(cursor);
+    }
+
+    int size() {
+        return entries.size();
+    }
+
+    /**
+     * Holds the reminder if its deadline is within the wheel, replacing what was held
+     * for the task. A task whose deadline did not change keeps its progress, so editing
+     * the title of a task that is already due does not fire DUE again.
+     * Returns whether the task is held afterwards.
+     */
+    boolean put(DeadlineReminder reminder) {
+        Entry held = entries.get(reminder.taskId());
+        if (held != null && held.reminder().deadline().equals(reminder.deadline())) {
+            place(new Entry(reminder, held.kind(), held.fireDay()));
+            return true;
+        }
+        remove(reminder.taskId());
+        if (reminder.deadline() == null) {
+            return false;
+        }
+        long day = reminder.deadline().toEpochDay();
+        if (day < cursor || day >= cursor + slots.size() - 1) {
+            return false;
+        }
+        place(new Entry(reminder, DeadlineEvent.Kind.DUE, day));
+        return true;
+    }
+
+    /** Like {@link #put} but leaves a task that is already held alone. */
+    boolean putIfAbsent(DeadlineReminder reminder) {
+        return entries.containsKey(reminder.taskId()) || put(reminder);
+    }
+
+    boolean remove(Long taskId) {
+        Entry held = entries.remove(taskId);
+        if (held == null) {
+            return false;
+        }
+        slot(held.fireDay()).remove(taskId);
+        return true;
+    }
+
+    /**
+     * Fires every slot from the cursor up to and including {@code today} and moves the
+     * cursor to today. Turning by several days at once fires each day in order, so a
+     * task due within the gap yields both its DUE and its OVERDUE event.
+     */
+    List<DeadlineEvent> advance(LocalDate today) {
+        List<DeadlineEvent> fired = new ArrayList<>();
+        long until = today.toEpochDay();
+        if (until < cursor) {
+            // the clock went back; hold still until it catches up
+            return fired;
+        }
+        fire(fired);
+        while (cursor < until) {
+            cursor++;
+            fire(fired);
+        }
+        return fired;
+    }
+
+    private void fire(List<DeadlineEvent> fired) {
+        Map<Long, Entry> slot = slot(cursor);
+        if (slot.isEmpty()) {
+            return;
+        }
+        List<Entry> due = new ArrayList<>(slot.values());
+        slot.clear();
+        LocalDate firedOn = LocalDate.ofEpochDay(cursor);
+        for (Entry entry : due) {
+            fired.add(new DeadlineEvent(entry.reminder(), entry.kind(), firedOn));
+            if (entry.kind() == DeadlineEvent.Kind.DUE) {
+                place(new Entry(entry.reminder(), DeadlineEvent.Kind.OVERDUE, cursor + 1));
+            } else {
+                entries.remove(entry.reminder().taskId());
+            }
+        }
+    }
+
+    private void place(Entry entry) {
+        entries.put(entry.reminder().taskId(), entry);
+        slot(entry.fireDay()).put(entry.reminder().taskId(), entry);
+    }
+
+    private Map<Long, Entry> slot(long day) {
+        return slots.get((int) Math.floorMod(day, (long) slots.size()));
+    }
+}
@@ -0,0 +1,21 @@
+package com.testProjects.todolist.reminder;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+/**
+ * Writes deadline events to the log until a real notification channel exists.
+ */
+@Component
+public class LoggingDeadlineSink implements DeadlineSink {
+
+    private static final Logger log = LoggerFactory.getLogger(LoggingDeadlineSink.class);
+
+    @Override
+    public void accept(DeadlineEvent event) {
+        DeadlineReminder reminder = event.reminder();
+        log.info("Task {} of user {} is {} (deadline {}): {}", reminder.taskId(), reminder.userId(),
+                event.kind() == DeadlineEvent.Kind.DUE ? "due" : "overdue", reminder.deadline(), reminder.title());
+    }
+}
@@ -0,0 +1,26 @@
+package com.testProjects.todolist.repositories;
+
+import com.testProjects.todolist.models.ArchivedTask;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+/**
+ * Reads of one owner's archive, most recently completed first, through
+ * idx_archived_task_user_completed. Slices fetch one row more than the page instead
+ * of counting the archive.
+ */
+public interface ArchivedTaskRepository extends JpaRepository<ArchivedTask, Long> {
+
+    @Query("select a from ArchivedTask a where a.userId = :userId order by a.completedAt desc, a.id desc")
+    Slice<ArchivedTask> findByOwner(@Param("userId") Long userId, Pageable pageable);
+
+    // the text match has no index of its own; it filters the owner's rows in index order
+    @Query("select a from ArchivedTask a where a.userId = :userId " +
+            "and (lower(a.title) like :pattern escape '!' or lower(a.description) like :pattern escape '!') " +
+            "order by a.completedAt desc, a.id desc")
+    Slice<ArchivedTask> searchByOwner(@Param("userId") Long userId, @Param("pattern") String pattern,
+                                      Pageable pageable);
+}
@@ -1,12 +1,136 @@
 package com.testProjects.todolist.repositories;
 
+import com.testProjects.todolist.dto.TaskSummary;
+import com.testProjects.todolist.dto.TaskText;
+import com.testProjects.todolist.dto.VersionStamp;
 import com.testProjects.todolist.models.Priority;
 import com.testProjects.todolist.models.Task;
+import com.testProjects.todolist.reminder.DeadlineReminder;
+import com.testProjects.todolist.stats.DayCount;
+import com.testProjects.todolist.stats.PriorityCount;
+import com.testProjects.todolist.stats.TaskFacts;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+
+public interface TaskRepository extends JpaRepository<Task, Long>, TaskRepositoryCustom {
+    int EXPORT_FETCH_SIZE = 500;
+
+    // List-style reads select this row type instead of hydrating managed entities.
+    String SELECT_SUMMARY = "select new com.testProjects.todolist.dto.TaskSummary(" +
+            "t.id, t.title, t.description, t.priority, t.deadline, t.createdAt, t.completedAt, t.version) ";
 
-public interface TaskRepository extends JpaRepository<Task, Long> {
     List<Task> findByUserUsername(String username);
-    List<Task> findByPriority(Priority priority);
+    List<TaskText> findTextByUserUsername(String username);
+
+    @Query(SELECT_SUMMARY + "from Task t where t.id in :ids")
+    List<TaskSummary> findSummariesByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query("select new com.testProjects.todolist.dto.VersionStamp(u.id, u.tasksVersion) " +
+            "from Task t join t.user u where t.id = :id")
+    Optional<VersionStamp> findOwnerStampById(@Param("id") Long id);
+
+    // Owner and the task's own @Version, the basis of the API's per-task ETag.
+    @Query("select new com.testProjects.todolist.dto.VersionStamp(t.user.id, t.version) " +
+            "from Task t where t.id = :id")
+    Optional<VersionStamp> findTaskStampById(@Param("id") Long id);
+
+    boolean existsByIdAndUserId(Long id, Long userId);
+    boolean existsByIdAndCompletedAtIsNotNull(Long id);
+
+    // Keyset pagination over (createdAt, id), served by the idx_task_user_created index.
+
+    @Query(SELECT_SUMMARY + "from Task t where t.user.username = :username " +
+            "order by t.createdAt asc, t.id asc")
+    List<TaskSummary> findFirstPage(@Param("username") String username, Limit limit);
+
+    @Query(SELECT_SUMMARY + "from Task t where t.user.username = :username " +
+            "and (t.createdAt > :createdAt or (t.createdAt = :createdAt and t.id > :id)) " +
+            "order by t.createdAt asc, t.id asc")
+    List<TaskSummary> findPageAfter(@Param("username") String username,
+                             @Param("createdAt") LocalDateTime createdAt,
+                             @Param("id") Long id,
+                             Limit limit);
+
+    // Returned newest-first; callers reverse the rows back into display order.
+    @Query(SELECT_SUMMARY + "from Task t where t.user.username = :username " +
+            "and (t.createdAt < :createdAt or (t.createdAt = :createdAt and t.id < :id)) " +
+            "order by t.createdAt desc, t.id desc")
+    List<TaskSummary> findPageBefore(@Param("username") String username,
+                              @Param("createdAt") LocalDateTime createdAt,
+                              @Param("id") Long id,
+                              Limit limit);
+
+    // Filters scoped to one owner. Each is served by an index that starts with user_id,
+    // so the cost follows the size of the user's matching rows, not of the whole table.
+
+    // idx_task_user_priority_deadline
+    @Query(SELECT_SUMMARY + "from Task t where t.user.id = :userId and t.priority = :priority " +
+            "order by t.deadline asc, t.id asc")
+    List<TaskSummary> findByOwnerAndPriority(@Param("userId") Long userId,
+                                      @Param("priority") Priority priority,
+                                      Limit limit);
+
+    // idx_task_user_deadline; tasks without a deadline, or completed, are never overdue
+    @Query(SELECT_SUMMARY + "from Task t where t.user.id = :userId and t.deadline < :today " +
+            "and t.completedAt is null " +
+            "order by t.deadline asc, t.id asc")
+    List<TaskSummary> findOverdueByOwner(@Param("userId") Long userId,
+                                  @Param("today") LocalDate today,
+                                  Limit limit);
+
+    // idx_task_user_deadline; both bounds inclusive, completed tasks are no longer due
+    @Query(SELECT_SUMMARY + "from Task t where t.user.id = :userId and t.deadline between :from and :to " +
+            "and t.completedAt is null " +
+            "order by t.deadline asc, t.id asc")
+    List<TaskSummary> findDueBetweenByOwner(@Param("userId") Long userId,
+                                     @Param("from") LocalDate from,
+                                     @Param("to") LocalDate to,
+                                     Limit limit);
+
+    // idx_task_deadline; the deadline reminder window over all users, upper bound exclusive.
+    // Completed tasks get no reminders.
+    @Query("select new com.testProjects.todolist.reminder.DeadlineReminder(t.id, t.user.id, t.title, t.deadline) " +
+            "from Task t where t.deadline >= :from and t.deadline < :until and t.completedAt is null")
+    List<DeadlineReminder> findDeadlinesBetween(@Param("from") LocalDate from, @Param("until") LocalDate until);
+
+    // Reminders of the open tasks among ids, after a bulk write moved or reopened them
+    @Query("select new com.testProjects.todolist.reminder.DeadlineReminder(t.id, t.user.id, t.title, t.deadline) " +
+            "from Task t where t.id in :ids and t.completedAt is null")
+    List<DeadlineReminder> findOpenRemindersByIdIn(@Param("ids") Collection<Long> ids);
+
+    // Grouped counts of one owner's tasks for the dashboard statistics, each answered from
+    // one of the user_id-leading indexes without touching the table rows.
+
+    // idx_task_user_priority_deadline
+    @Query("select new com.testProjects.todolist.stats.PriorityCount(t.priority, count(t)) " +
+            "from Task t where t.user.id = :userId group by t.priority")
+    List<PriorityCount> countByOwnerGroupByPriority(@Param("userId") Long userId);
+
+    // idx_task_user_deadline; completed tasks are neither overdue nor due, as in findOverdueByOwner
+    @Query("select new com.testProjects.todolist.stats.DayCount(t.deadline, count(t)) " +
+            "from Task t where t.user.id = :userId and t.deadline is not null and t.completedAt is null " +
+            "group by t.deadline")
+    List<DayCount> countByOwnerGroupByDeadline(@Param("userId") Long userId);
+
+    // idx_task_user_created
+    @Query("select new com.testProjects.todolist.stats.DayCount(cast(t.createdAt as LocalDate), count(t)) " +
+            "from Task t where t.user.id = :userId and t.createdAt >= :since " +
+            "group by cast(t.createdAt as LocalDate)")
+    List<DayCount> countByOwnerCreatedSinceGroupByDay(@Param("userId") Long userId,
+                                                      @Param("since") LocalDateTime since);
+
+    // Statistics facts of one of the owner's tasks, by primary key. The deadline of a
+    // completed task is not counted, so it is read as null.
+    @Query("select new com.testProjects.todolist.stats.TaskFacts(t.priority, " +
+            "case when t.completedAt is null then t.deadline end, t.createdAt) " +
+            "from Task t where t.id = :id and t.user.id = :userId")
+    Optional<TaskFacts> findFactsByIdAndUserId(@Param("id") Long id, @Param("userId") Long userId);
 }
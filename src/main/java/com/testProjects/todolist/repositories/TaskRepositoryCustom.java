@@ -0,0 +1,90 @@
+package com.testProjects.todolist.repositories;
+
+import com.testProjects.todolist.archive.ArchivedTaskRef;
+import com.testProjects.todolist.dto.TaskCursor;
+import com.testProjects.todolist.dto.TaskSelection;
+import com.testProjects.todolist.models.Priority;
+import com.testProjects.todolist.models.Task;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+/**
+ * Ownership-checked writes: one statement each, the owner is part of the WHERE clause,
+ * and 0 affected rows means the task does not exist or belongs to someone else.
+ *
+ * All are native statements that evict only the tasks they touched from the
+ * second-level cache. Hibernate treats a JPQL bulk statement as touching every row
+ * and would empty the whole task region on each call.
+ */
+public interface TaskRepositoryCustom {
+
+    /**
+     * Details and edit views: the task's own columns, owner left as an unloaded reference.
+     * Loaded by primary key with the {@link Task#DETAIL_GRAPH} fetch graph, so a task still
+     * in the second-level cache costs no query, unlike a derived query with the same graph.
+     * Read-only, since the entity is detached as soon as the call returns.
+     */
+    Optional<Task> findDetailById(Long id);
+
+    /**
+     * Forward-only cursor over the owner's tasks for exports; must be consumed inside a
+     * transaction. The rows bypass the second-level cache, which a full export would
+     * otherwise flood, and are streamed without changing how any other query fetches.
+     */
+    Stream<Task> streamByUserId(Long userId);
+
+    // A null version deletes whatever version the task is at.
+    @Transactional
+    int deleteOwned(Long id, Long userId, Long version);
+
+    // A null version skips the optimistic check but still advances the version.
+    @Transactional
+    int updateOwned(Long id, Long userId, Long version, String title, String description,
+                    Priority priority, LocalDate deadline);
+
+    // Marks the task done, keeping the first completion time if it already is; a null
+    // completedAt reopens it. Advances the version either way.
+    @Transactional
+    int completeOwned(Long id, Long userId, LocalDateTime completedAt);
+
+    /**
+     * Locks up to {@code limit} of the owner's tasks matching {@code selection}, after
+     * {@code after} in (createdAt, id) order (from the start if null), and returns their
+     * positions. One chunk of a bulk operation: the caller's transaction writes these rows
+     * with the *OwnedIn statements below and nothing else is held meanwhile.
+     */
+    @Transactional
+    List<TaskCursor> lockOwned(Long userId, TaskSelection selection, TaskCursor after, int limit);
+
+    // Bulk counterparts of the single-task writes. Each is one statement over the given
+    // ids, still restricted to the owner, and returns how many tasks it actually changed.
+
+    // Completes the open tasks among ids, or reopens the completed ones if completedAt is null.
+    @Transactional
+    int completeOwnedIn(Long userId, Collection<Long> ids, LocalDateTime completedAt);
+
+    // Only tasks that had another priority are changed.
+    @Transactional
+    int setPriorityOwnedIn(Long userId, Collection<Long> ids, Priority priority);
+
+    // Moves deadlines by days, negative for earlier; tasks without a deadline are left alone.
+    @Transactional
+    int shiftDeadlinesOwnedIn(Long userId, Collection<Long> ids, int days);
+
+    @Transactional
+    int deleteOwnedIn(Long userId, Collection<Long> ids);
+
+    /**
+     * Moves up to {@code limit} tasks completed before {@code completedBefore} into
+     * archived_task, oldest completion first, and returns what was moved. The rows are
+     * locked first, so a task reopened meanwhile is either moved as it was or not at all.
+     */
+    @Transactional
+    List<ArchivedTaskRef> archiveCompleted(LocalDateTime completedBefore, LocalDateTime archivedAt, int limit);
+}
@@ -0,0 +1,309 @@
+package com.testProjects.todolist.repositories;
+
+import com.testProjects.todolist.archive.ArchivedTaskRef;
+import com.testProjects.todolist.dto.TaskCursor;
+import com.testProjects.todolist.dto.TaskSelection;
+import com.testProjects.todolist.models.Priority;
+import com.testProjects.todolist.models.Task;
+import com.testProjects.todolist.models.User;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+import org.hibernate.Cache;
+import org.hibernate.CacheMode;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.dialect.Dialect;
+import org.hibernate.dialect.MySQLDialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.jpa.HibernateHints;
+import org.hibernate.jpa.SpecHints;
+import org.hibernate.query.NativeQuery;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+class TaskRepositoryImpl implements TaskRepositoryCustom {
+
+    // Query space of the native writes; it names no mapped table, so Hibernate evicts
+    // no region on its own and the statements evict what they touched instead.
+    static final String OWNED_WRITE_SPACE = "task.owned_write";
+    static final String USER_TASKS_ROLE = User.class.getName() + ".tasks";
+
+    private static final String UPDATE = "update task set title = :title, description = :description, " +
+            "priority = :priority, deadline = :deadline, version = version + 1 " +
+            "where id = :id and user_id = :userId";
+
+    private static final String DELETE = "delete from task where id = :id and user_id = :userId";
+
+    private static final String ARCHIVE_COLUMNS =
+            "id, user_id, title, description, priority, deadline, created_at, completed_at";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Optional<Task> findDetailById(Long id) {
+        return Optional.ofNullable(entityManager.find(Task.class, id, Map.of(
+                SpecHints.HINT_SPEC_FETCH_GRAPH, entityManager.getEntityGraph(Task.DETAIL_GRAPH),
+                HibernateHints.HINT_READ_ONLY, true)));
+    }
+
+    @Override
+    public Stream<Task> streamByUserId(Long userId) {
+        // a stream's rows are loaded after the query returns, under the session's cache
+        // mode rather than the query's, so the session ignores the cache until it is closed
+        Session session = entityManager.unwrap(Session.class);
+        CacheMode previous = session.getCacheMode();
+        session.setCacheMode(CacheMode.IGNORE);
+        return entityManager.createQuery("select t from Task t where t.user.id = :userId order by t.id", Task.class)
+                .setParameter("userId", userId)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, exportFetchSize())
+                .setHint(HibernateHints.HINT_READ_ONLY, true)
+                .getResultStream()
+                .onClose(() -> session.setCacheMode(previous));
+    }
+
+    // Connector/J reads a whole result set into memory unless the statement's fetch size
+    // is Integer.MIN_VALUE, which streams that one statement row by row. Other drivers
+    // honour a plain fetch size.
+    private int exportFetchSize() {
+        Dialect dialect = entityManager.getEntityManagerFactory().unwrap(SessionFactoryImplementor.class)
+                .getJdbcServices().getDialect();
+        return dialect instanceof MySQLDialect ? Integer.MIN_VALUE : TaskRepository.EXPORT_FETCH_SIZE;
+    }
+
+    @Override
+    public int deleteOwned(Long id, Long userId, Long version) {
+        NativeQuery<?> delete = nativeWrite(version == null ? DELETE : DELETE + " and version = :version")
+                .setParameter("id", id)
+                .setParameter("userId", userId);
+        if (version != null) {
+            delete.setParameter("version", version);
+        }
+        int deleted = delete.executeUpdate();
+        if (deleted > 0) {
+            evict(cache -> {
+                cache.evictEntityData(Task.class, id);
+                cache.evictCollectionData(USER_TASKS_ROLE, userId);
+            });
+        }
+        return deleted;
+    }
+
+    @Override
+    public int updateOwned(Long id, Long userId, Long version, String title, String description,
+                           Priority priority, LocalDate deadline) {
+        NativeQuery<?> update = nativeWrite(version == null ? UPDATE : UPDATE + " and version = :version")
+                .setParameter("id", id)
+                .setParameter("userId", userId)
+                .setParameter("title", title, String.class)
+                .setParameter("description", description, String.class)
+                .setParameter("priority", priority == null ? null : priority.name(), String.class)
+                .setParameter("deadline", deadline, LocalDate.class);
+        if (version != null) {
+            update.setParameter("version", version);
+        }
+        int updated = update.executeUpdate();
+        if (updated > 0) {
+            evict(cache -> cache.evictEntityData(Task.class, id));
+        }
+        return updated;
+    }
+
+    @Override
+    public int completeOwned(Long id, Long userId, LocalDateTime completedAt) {
+        String completion = completedAt == null ? "null" : "coalesce(completed_at, :completedAt)";
+        NativeQuery<?> update = nativeWrite("update task set completed_at = " + completion
+                + ", version = version + 1 where id = :id and user_id = :userId")
+                .setParameter("id", id)
+                .setParameter("userId", userId);
+        if (completedAt != null) {
+            update.setParameter("completedAt", completedAt);
+        }
+        int updated = update.executeUpdate();
+        if (updated > 0) {
+            evict(cache -> cache.evictEntityData(Task.class, id));
+        }
+        return updated;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public List<TaskCursor> lockOwned(Long userId, TaskSelection selection, TaskCursor after, int limit) {
+        // idx_task_user_created, walked in keyset order; the filters only thin out the rows read
+        StringBuilder sql = new StringBuilder("select id, created_at from task where user_id = :userId");
+        if (selection.hasIds()) {
+            sql.append(" and id in (:ids)");
+        }
+        if (selection.priority() != null) {
+            sql.append(" and priority = :priority");
+        }
+        if (selection.completed() != null) {
+            sql.append(selection.completed() ? " and completed_at is not null" : " and completed_at is null");
+        }
+        if (selection.dueFrom() != null) {
+            sql.append(" and deadline >= :dueFrom");
+        }
+        if (selection.dueTo() != null) {
+            sql.append(" and deadline <= :dueTo");
+        }
+        if (after != null) {
+            sql.append(" and (created_at > :createdAt or (created_at = :createdAt and id > :id))");
+        }
+        sql.append(" order by created_at, id limit :limit for update");
+
+        Query query = entityManager.createNativeQuery(sql.toString())
+                .setParameter("userId", userId)
+                .setParameter("limit", limit);
+        if (selection.hasIds()) {
+            query.setParameter("ids", selection.ids());
+        }
+        if (selection.priority() != null) {
+            query.setParameter("priority", selection.priority().name());
+        }
+        if (selection.dueFrom() != null) {
+            query.setParameter("dueFrom", selection.dueFrom());
+        }
+        if (selection.dueTo() != null) {
+            query.setParameter("dueTo", selection.dueTo());
+        }
+        if (after != null) {
+            query.setParameter("createdAt", after.createdAt()).setParameter("id", after.id());
+        }
+        List<Object[]> rows = query.getResultList();
+        return rows.stream()
+                .map(row -> new TaskCursor(toLocalDateTime(row[1]), ((Number) row[0]).longValue()))
+                .toList();
+    }
+
+    @Override
+    public int completeOwnedIn(Long userId, Collection<Long> ids, LocalDateTime completedAt) {
+        NativeQuery<?> update = completedAt == null
+                ? nativeWrite("update task set completed_at = null, version = version + 1 "
+                        + "where user_id = :userId and id in (:ids) and completed_at is not null")
+                : nativeWrite("update task set completed_at = :completedAt, version = version + 1 "
+                        + "where user_id = :userId and id in (:ids) and completed_at is null")
+                        .setParameter("completedAt", completedAt);
+        return writeOwnedIn(update, userId, ids, false);
+    }
+
+    @Override
+    public int setPriorityOwnedIn(Long userId, Collection<Long> ids, Priority priority) {
+        return writeOwnedIn(nativeWrite("update task set priority = :priority, version = version + 1 "
+                        + "where user_id = :userId and id in (:ids) and priority <> :priority")
+                        .setParameter("priority", priority.name()),
+                userId, ids, false);
+    }
+
+    @Override
+    public int shiftDeadlinesOwnedIn(Long userId, Collection<Long> ids, int days) {
+        // TIMESTAMPADD is understood by both MySQL and H2 and keeps a DATE a DATE
+        return writeOwnedIn(nativeWrite("update task set deadline = timestampadd(DAY, :days, deadline), "
+                        + "version = version + 1 where user_id = :userId and id in (:ids) and deadline is not null")
+                        .setParameter("days", days),
+                userId, ids, false);
+    }
+
+    @Override
+    public int deleteOwnedIn(Long userId, Collection<Long> ids) {
+        return writeOwnedIn(nativeWrite("delete from task where user_id = :userId and id in (:ids)"),
+                userId, ids, true);
+    }
+
+    private int writeOwnedIn(NativeQuery<?> write, Long userId, Collection<Long> ids, boolean removesTasks) {
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        int written = write.setParameter("userId", userId)
+                .setParameter("ids", ids)
+                .executeUpdate();
+        if (written > 0) {
+            evict(cache -> {
+                ids.forEach(id -> cache.evictEntityData(Task.class, id));
+                if (removesTasks) {
+                    cache.evictCollectionData(USER_TASKS_ROLE, userId);
+                }
+            });
+        }
+        return written;
+    }
+
+    private static LocalDateTime toLocalDateTime(Object value) {
+        return value instanceof Timestamp timestamp ? timestamp.toLocalDateTime() : (LocalDateTime) value;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public List<ArchivedTaskRef> archiveCompleted(LocalDateTime completedBefore, LocalDateTime archivedAt, int limit) {
+        // idx_task_completed; the lock keeps a concurrent reopen or edit out until commit
+        List<Object[]> due = entityManager.createNativeQuery("select id, user_id from task "
+                        + "where completed_at < :before order by completed_at, id limit :limit for update")
+                .setParameter("before", completedBefore)
+                .setParameter("limit", limit)
+                .getResultList();
+        if (due.isEmpty()) {
+            return List.of();
+        }
+        List<Long> ids = due.stream().map(row -> ((Number) row[0]).longValue()).toList();
+        List<Long> userIds = due.stream().map(row -> ((Number) row[1]).longValue()).distinct().toList();
+
+        nativeWrite("insert into archived_task (" + ARCHIVE_COLUMNS + ", archived_at) "
+                + "select " + ARCHIVE_COLUMNS + ", :archivedAt from task where id in (:ids)")
+                .setParameter("archivedAt", archivedAt)
+                .setParameter("ids", ids)
+                .executeUpdate();
+        nativeWrite("delete from task where id in (:ids)")
+                .setParameter("ids", ids)
+                .executeUpdate();
+        evict(cache -> {
+            ids.forEach(id -> cache.evictEntityData(Task.class, id));
+            userIds.forEach(userId -> cache.evictCollectionData(USER_TASKS_ROLE, userId));
+        });
+
+        Map<Long, String> usernames = new HashMap<>();
+        List<Object[]> users = entityManager.createNativeQuery("select id, username from users where id in (:ids)")
+                .setParameter("ids", userIds)
+                .getResultList();
+        users.forEach(row -> usernames.put(((Number) row[0]).longValue(), (String) row[1]));
+        return due.stream()
+                .map(row -> {
+                    Long userId = ((Number) row[1]).longValue();
+                    return new ArchivedTaskRef(((Number) row[0]).longValue(), userId, usernames.get(userId));
+                })
+                .toList();
+    }
+
+    private NativeQuery<?> nativeWrite(String sql) {
+        return entityManager.createNativeQuery(sql)
+                .unwrap(NativeQuery.class)
+                .addSynchronizedQuerySpace(OWNED_WRITE_SPACE);
+    }
+
+    /**
+     * Evicts now and again once the transaction has ended: a concurrent reader may put
+     * the old row back in between, since native statements take no soft lock.
+     */
+    private void evict(Consumer<Cache> eviction) {
+        Cache cache = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getCache();
+        eviction.accept(cache);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    eviction.accept(cache);
+                }
+            });
+        }
+    }
+}
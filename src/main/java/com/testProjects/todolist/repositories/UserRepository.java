@@ -2,10 +2,14 @@ package com.testProjects.todolist.repositories;
 
 import com.testProjects.todolist.models.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.util.Optional;
 
-public interface UserRepository extends JpaRepository<User, Long> {
-    Optional<User> findByUsername(String username);
+public interface UserRepository extends JpaRepository<User, Long>, UserRepositoryCustom {
     boolean existsByUsername(String username);
+
+    @Query("select u.tasksVersion from User u where u.username = :username")
+    Optional<Long> findTasksVersionByUsername(@Param("username") String username);
 }
@@ -0,0 +1,35 @@
+package com.testProjects.todolist.repositories;
+
+import com.testProjects.todolist.models.User;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Optional;
+
+/**
+ * User lookups and writes that go through Hibernate's session API instead of JPQL,
+ * so they can use the second-level cache without invalidating it.
+ */
+public interface UserRepositoryCustom {
+
+    /**
+     * Resolves the username through the natural-id cache and the user through the
+     * entity cache; only a miss in either reaches the database.
+     */
+    @Transactional(readOnly = true)
+    Optional<User> findByUsername(String username);
+
+    /**
+     * Increments the user's task change version. A native statement touching only the
+     * {@code tasks_version} column, so the cached user entries stay in place; a JPQL
+     * bulk update would empty the whole user region on every task write.
+     */
+    @Transactional
+    int bumpTasksVersion(Long id);
+
+    /**
+     * Replaces the stored password hash and evicts the cached user, which would
+     * otherwise keep the old hash until it expires.
+     */
+    @Transactional
+    int updatePassword(Long id, String passwordHash);
+}
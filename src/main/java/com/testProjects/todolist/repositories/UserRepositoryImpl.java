@@ -0,0 +1,62 @@
+package com.testProjects.todolist.repositories;
+
+import com.testProjects.todolist.models.User;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.Cache;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.query.NativeQuery;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Optional;
+
+class UserRepositoryImpl implements UserRepositoryCustom {
+
+    // Query space of the native version bump. It names no mapped table, so Hibernate
+    // evicts no cache region after the statement.
+    static final String TASKS_VERSION_SPACE = "users.tasks_version";
+    static final String PASSWORD_SPACE = "users.password";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Optional<User> findByUsername(String username) {
+        return entityManager.unwrap(Session.class).bySimpleNaturalId(User.class).loadOptional(username);
+    }
+
+    @Override
+    public int bumpTasksVersion(Long id) {
+        return entityManager.createNativeQuery("update users set tasks_version = tasks_version + 1 where id = :id")
+                .unwrap(NativeQuery.class)
+                .addSynchronizedQuerySpace(TASKS_VERSION_SPACE)
+                .setParameter("id", id)
+                .executeUpdate();
+    }
+
+    @Override
+    public int updatePassword(Long id, String passwordHash) {
+        int updated = entityManager.createNativeQuery("update users set password = :password where id = :id")
+                .unwrap(NativeQuery.class)
+                .addSynchronizedQuerySpace(PASSWORD_SPACE)
+                .setParameter("password", passwordHash)
+                .setParameter("id", id)
+                .executeUpdate();
+        if (updated > 0) {
+            // evicted again once the transaction ends, in case a reader put the old row back
+            Cache cache = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getCache();
+            cache.evictEntityData(User.class, id);
+            if (TransactionSynchronizationManager.isSynchronizationActive()) {
+                TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                    @Override
+                    public void afterCompletion(int status) {
+                        cache.evictEntityData(User.class, id);
+                    }
+                });
+            }
+        }
+        return updated;
+    }
+}
@@ -0,0 +1,7 @@
+package com.testProjects.todolist.search;
+
+/**
+ * A task id matched by the search index together with its relevance score.
+ */
+public record SearchHit(long taskId, double score) {
+}
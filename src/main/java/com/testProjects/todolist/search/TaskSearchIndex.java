@@ -0,0 +1,363 @@
+package com.testProjects.todolist.search;
+
+import com.testProjects.todolist.dto.TaskText;
+import com.testProjects.todolist.models.Task;
+import com.testProjects.todolist.repositories.TaskRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.regex.Pattern;
+
+/**
+ * Per-user inverted index over task titles and descriptions.
+ *
+ * Each user's index is built lazily from the database on the first query and then
+ * kept up to date by {@link #put(String, Task)} and {@link #remove(String, Long)};
+ * writes that arrive while it is being rebuilt are replayed onto the new index.
+ * Every term matches as a substring, like the plain scan this replaced: terms of three
+ * or more characters through a trigram index, shorter ones by scanning the user's
+ * tasks. A query without any letters or digits is matched as a whole the same way.
+ * Queries return ranked task ids only; loading the entities is up to the caller.
+ *
+ * Indexes of the least recently searched users are dropped once more than
+ * {@code maxUsers} are held, and every index is rebuilt after {@code maxAge}
+ * so writes made on other nodes show up eventually.
+ */
+@Component
+public class TaskSearchIndex {
+
+    private static final Pattern TOKEN_SPLIT = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final int GRAM = 3;
+
+    private final TaskRepository taskRepository;
+    private final int maxUsers;
+    private final long maxAgeNanos;
+
+    private final Map<String, UserIndex> indexes;
+    // rebuilds in progress per user, guarded by indexes like the map itself
+    private final Map<String, List<Rebuild>> rebuilds = new HashMap<>();
+
+    public TaskSearchIndex(TaskRepository taskRepository,
+                           @Value("${todolist.search.max-indexed-users:1000}") int maxUsers,
+                           @Value("${todolist.search.max-age:10m}") Duration maxAge) {
+        this.taskRepository = taskRepository;
+        this.maxUsers = maxUsers;
+        this.maxAgeNanos = maxAge.toNanos();
+        this.indexes = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, UserIndex> eldest) {
+                return size() > TaskSearchIndex.this.maxUsers;
+            }
+        };
+    }
+
+    /**
+     * Returns up to {@code limit} task ids of the given user matching every term of
+     * the query, best match first. A purely numeric query also matches task ids.
+     */
+    public List<SearchHit> search(String username, String query, int limit) {
+        if (query == null || query.isBlank() || limit <= 0) {
+            return List.of();
+        }
+        return indexFor(username).search(query.trim().toLowerCase(Locale.ROOT), limit);
+    }
+
+    /**
+     * Adds or replaces a task in its owner's index. A no-op when that index is not loaded.
+     */
+    public void put(String username, Task task) {
+        if (task.getId() == null) {
+            return;
+        }
+        Doc doc = new Doc(task.getId(), task.getTitle(), task.getDescription());
+        write(username, index -> index.add(doc));
+    }
+
+    public void remove(String username, Long taskId) {
+        if (taskId != null) {
+            write(username, index -> index.remove(taskId));
+        }
+    }
+
+    public void invalidate(String username) {
+        synchronized (indexes) {
+            indexes.remove(username);
+            for (Rebuild rebuild : rebuilds.getOrDefault(username, List.of())) {
+                rebuild.invalidated = true;
+            }
+        }
+    }
+
+    /** Applies a write to the user's loaded index and records it for any rebuild in progress. */
+    private void write(String username, Consumer<UserIndex> write) {
+        UserIndex index;
+        synchronized (indexes) {
+            index = indexes.get(username);
+            for (Rebuild rebuild : rebuilds.getOrDefault(username, List.of())) {
+                rebuild.writes.add(write);
+            }
+        }
+        if (index != null) {
+            write.accept(index);
+        }
+    }
+
+    private UserIndex loaded(String username) {
+        synchronized (indexes) {
+            return indexes.get(username);
+        }
+    }
+
+    private UserIndex indexFor(String username) {
+        UserIndex index = loaded(username);
+        if (index != null && System.nanoTime() - index.builtAt < maxAgeNanos) {
+            return index;
+        }
+        // built outside the lock so one user's rebuild does not block other users' searches;
+        // a write that lands meanwhile may be missing from what was read, so it is replayed
+        Rebuild rebuild = new Rebuild();
+        synchronized (indexes) {
+            rebuilds.computeIfAbsent(username, u -> new ArrayList<>()).add(rebuild);
+        }
+        UserIndex fresh = new UserIndex();
+        try {
+            for (TaskText text : taskRepository.findTextByUserUsername(username)) {
+                fresh.add(new Doc(text.getId(), text.getTitle(), text.getDescription()));
+            }
+        } finally {
+            synchronized (indexes) {
+                List<Rebuild> pending = rebuilds.get(username);
+                pending.remove(rebuild);
+                if (pending.isEmpty()) {
+                    rebuilds.remove(username);
+                }
+                rebuild.writes.forEach(write -> write.accept(fresh));
+                // an invalidation during the load means what was read may already be stale
+                if (!rebuild.invalidated) {
+                    indexes.put(username, fresh);
+                }
+            }
+        }
+        return fresh;
+    }
+
+    /** Writes seen while one user's index was loaded from the database. */
+    private static final class Rebuild {
+        final List<Consumer<UserIndex>> writes = new ArrayList<>();
+        boolean invalidated;
+    }
+
+    static List<String> tokenize(String text) {
+        if (text == null || text.isEmpty()) {
+            return List.of();
+        }
+        List<String> tokens = new ArrayList<>();
+        for (String token : TOKEN_SPLIT.split(text.toLowerCase(Locale.ROOT))) {
+            if (!token.isEmpty()) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+
+    static Set<String> grams(String text) {
+        Set<String> grams = new HashSet<>();
+        for (String token : tokenize(text)) {
+            for (int i = 0; i + GRAM <= token.length(); i++) {
+                grams.add(token.substring(i, i + GRAM));
+            }
+        }
+        return grams;
+    }
+
+    /** Lowercased searchable text of one task. */
+    private record Doc(long id, String title, String description, Set<String> titleTokens,
+                       Set<String> descriptionTokens) {
+
+        Doc(long id, String title, String description) {
+            this(id, lower(title), lower(description),
+                    new HashSet<>(tokenize(title)), new HashSet<>(tokenize(description)));
+        }
+
+        private static String lower(String s) {
+            return s == null ? "" : s.toLowerCase(Locale.ROOT);
+        }
+
+        Set<String> allGrams() {
+            Set<String> all = grams(title);
+            all.addAll(grams(description));
+            return all;
+        }
+    }
+
+    private static final class UserIndex {
+        final long builtAt = System.nanoTime();
+        final ReadWriteLock lock = new ReentrantReadWriteLock();
+        final Map<Long, Doc> docs = new HashMap<>();
+        final Map<String, Set<Long>> grams = new HashMap<>();
+
+        void add(Doc doc) {
+            lock.writeLock().lock();
+            try {
+                removeLocked(doc.id());
+                docs.put(doc.id(), doc);
+                for (String gram : doc.allGrams()) {
+                    grams.computeIfAbsent(gram, g -> new HashSet<>()).add(doc.id());
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        void remove(long id) {
+            lock.writeLock().lock();
+            try {
+                removeLocked(id);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        private void removeLocked(long id) {
+            Doc old = docs.remove(id);
+            if (old == null) {
+                return;
+            }
+            for (String gram : old.allGrams()) {
+                unpost(grams, gram, id);
+            }
+        }
+
+        private static void unpost(Map<String, Set<Long>> postings, String key, long id) {
+            Set<Long> ids = postings.get(key);
+            if (ids != null) {
+                ids.remove(id);
+                if (ids.isEmpty()) {
+                    postings.remove(key);
+                }
+            }
+        }
+
+        List<SearchHit> search(String query, int limit) {
+            List<String> terms = new ArrayList<>(new LinkedHashSet<>(tokenize(query)));
+            if (terms.isEmpty()) {
+                // only punctuation or separators: match the query as typed
+                terms.add(query);
+            }
+            lock.readLock().lock();
+            try {
+                Set<Long> candidates = null;
+                for (String term : terms) {
+                    Set<Long> matches = match(term);
+                    if (candidates == null) {
+                        candidates = matches;
+                    } else {
+                        candidates.retainAll(matches);
+                    }
+                    if (candidates.isEmpty()) {
+                        break;
+                    }
+                }
+                if (candidates == null) {
+                    candidates = new HashSet<>();
+                }
+                if (isDigits(query)) {
+                    for (Long id : docs.keySet()) {
+                        if (String.valueOf(id).contains(query)) {
+                            candidates.add(id);
+                        }
+                    }
+                }
+
+                List<SearchHit> hits = new ArrayList<>(candidates.size());
+                for (Long id : candidates) {
+                    hits.add(new SearchHit(id, score(docs.get(id), terms, query)));
+                }
+                hits.sort(Comparator.comparingDouble(SearchHit::score).reversed()
+                        .thenComparingLong(SearchHit::taskId));
+                return hits.size() > limit ? new ArrayList<>(hits.subList(0, limit)) : hits;
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        private Set<Long> match(String term) {
+            Set<Long> result = new HashSet<>();
+            if (term.length() < GRAM || !isToken(term)) {
+                // too short for a trigram, or spans characters the grams never contain
+                for (Doc doc : docs.values()) {
+                    if (doc.title().contains(term) || doc.description().contains(term)) {
+                        result.add(doc.id());
+                    }
+                }
+                return result;
+            }
+            // intersect trigram postings, smallest first, then verify the actual substring
+            List<Set<Long>> postings = new ArrayList<>();
+            for (int i = 0; i + GRAM <= term.length(); i++) {
+                Set<Long> ids = grams.get(term.substring(i, i + GRAM));
+                if (ids == null) {
+                    return result;
+                }
+                postings.add(ids);
+            }
+            postings.sort(Comparator.comparingInt(Set::size));
+            result.addAll(postings.get(0));
+            for (int i = 1; i < postings.size() && !result.isEmpty(); i++) {
+                result.retainAll(postings.get(i));
+            }
+            result.removeIf(id -> {
+                Doc doc = docs.get(id);
+                return !doc.title().contains(term) && !doc.description().contains(term);
+            });
+            return result;
+        }
+
+        private static double score(Doc doc, List<String> terms, String query) {
+            double score = 0;
+            for (String term : terms) {
+                score += 2 * weight(doc.title(), doc.titleTokens(), term)
+                        + weight(doc.description(), doc.descriptionTokens(), term);
+            }
+            if (terms.size() > 1 && doc.title().contains(query)) {
+                score += 2;
+            }
+            return score;
+        }
+
+        // whole token > token prefix > plain substring
+        private static double weight(String text, Set<String> textTokens, String term) {
+            if (textTokens.contains(term)) {
+                return 3;
+            }
+            for (String token : textTokens) {
+                if (token.startsWith(term)) {
+                    return 2;
+                }
+            }
+            return text.contains(term) ? 1 : 0;
+        }
+
+        private static boolean isToken(String term) {
+            return !TOKEN_SPLIT.matcher(term).find();
+        }
+
+        private static boolean isDigits(String s) {
+            return !s.isEmpty() && s.chars().allMatch(Character::isDigit);
+        }
+    }
+}
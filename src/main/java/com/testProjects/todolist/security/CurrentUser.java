@@ -0,0 +1,25 @@
+package com.testProjects.todolist.security;
+
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+/**
+ * Access to the authenticated principal of the current request.
+ */
+public final class CurrentUser {
+
+    private CurrentUser() {
+    }
+
+    /**
+     * Returns the id carried by the principal, or null when the principal is not a
+     * {@link CustomUserDetails} (e.g. in tests that only stub the username).
+     */
+    public static Long id() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getPrincipal() instanceof CustomUserDetails details) {
+            return details.getId();
+        }
+        return null;
+    }
+}
@@ -1,18 +1,45 @@
 package com.testProjects.todolist.security;
 
 import com.testProjects.todolist.models.User;
+import org.springframework.security.core.CredentialsContainer;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 
 import java.util.Collection;
 
-public class CustomUserDetails implements UserDetails {
+/**
+ * Immutable snapshot of the {@link User} taken at login. Carries the user id so the
+ * service layer can reference the user row without looking it up by username again.
+ * The password hash is erased once authentication has completed.
+ */
+public class CustomUserDetails implements UserDetails, CredentialsContainer {
 
-    private User user;
+    private final Long id;
+    private final String username;
+    private String password;
 
     public CustomUserDetails(User user) {
-        this.user = user;
+        this.id = user.getId();
+        this.username = user.getUsername();
+        this.password = user.getPassword();
     }
+
+    /** Principal restored from a session token; it carries no password. */
+    public CustomUserDetails(Long id, String username) {
+        this.id = id;
+        this.username = username;
+    }
+
+    CustomUserDetails(Long id, String username, String password) {
+        this.id = id;
+        this.username = username;
+        this.password = password;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
     @Override
     public Collection<? extends GrantedAuthority> getAuthorities() {
         return null;
@@ -20,12 +47,12 @@ public class CustomUserDetails implements UserDetails {
 
     @Override
     public String getPassword() {
-        return user.getPassword();
+        return password;
     }
 
     @Override
     public String getUsername() {
-        return user.getUsername();
+        return username;
     }
 
     @Override
@@ -47,4 +74,9 @@ public class CustomUserDetails implements UserDetails {
     public boolean isEnabled() {
         return true;
     }
+
+    @Override
+    public void eraseCredentials() {
+        this.password = null;
+    }
 }
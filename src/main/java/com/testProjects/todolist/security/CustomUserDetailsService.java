@@ -2,17 +2,25 @@ package com.testProjects.todolist.security;
 
 import com.testProjects.todolist.models.User;
 import com.testProjects.todolist.repositories.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 @Service
-public class CustomUserDetailsService implements UserDetailsService {
+public class CustomUserDetailsService implements UserDetailsService, UserDetailsPasswordService {
     @Autowired
     private UserRepository userRepository;
+    @Autowired
+    private MeterRegistry meterRegistry;
 
 
+    // Read-write on purpose: with a read replica configured this keeps the lookup on the
+    // primary, so a just-created account or a changed password is seen at once.
+    @Transactional
     @Override
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
         User user = userRepository.findByUsername(username).orElse(null);
@@ -26,4 +34,17 @@ public class CustomUserDetailsService implements UserDetailsService {
 
         return customUserDetails;
     }
+
+    /**
+     * Stores the hash made from the password just verified, when the stored one was
+     * made at a lower BCrypt cost than the configured one.
+     */
+    @Transactional
+    @Override
+    public UserDetails updatePassword(UserDetails user, String newPassword) {
+        CustomUserDetails details = (CustomUserDetails) user;
+        userRepository.updatePassword(details.getId(), newPassword);
+        meterRegistry.counter("todolist.password.upgraded").increment();
+        return new CustomUserDetails(details.getId(), details.getUsername(), newPassword);
+    }
 }
@@ -0,0 +1,12 @@
+package com.testProjects.todolist.security;
+
+/**
+ * Password hashing is saturated; the request should be retried shortly. Answered with
+ * 503 by {@link PasswordHashingUnavailableFilter}, also when thrown by a controller.
+ */
+public class PasswordHashingUnavailableException extends RuntimeException {
+
+    public PasswordHashingUnavailableException(String message) {
+        super(message);
+    }
+}
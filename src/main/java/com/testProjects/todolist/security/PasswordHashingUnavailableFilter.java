@@ -0,0 +1,49 @@
+package com.testProjects.todolist.security;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Answers 503 with a Retry-After when a sign-up, a login or an HTTP Basic request could
+ * not get its password hashed. The exception would otherwise end as a 500.
+ */
+class PasswordHashingUnavailableFilter extends OncePerRequestFilter {
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        try {
+            chain.doFilter(request, response);
+        } catch (ServletException | RuntimeException failure) {
+            // the dispatcher servlet wraps what a controller throws
+            PasswordHashingUnavailableException e = unavailable(failure);
+            if (e == null || response.isCommitted()) {
+                throw failure;
+            }
+            // written here rather than through sendError: the error dispatch would be
+            // authenticated again and need the very hashing that just failed
+            response.resetBuffer();
+            response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+            response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+            response.setContentType(MediaType.TEXT_PLAIN_VALUE);
+            response.getWriter().write(e.getMessage());
+        }
+    }
+
+    private static PasswordHashingUnavailableException unavailable(Throwable failure) {
+        for (Throwable e = failure; e != null; e = e.getCause()) {
+            if (e instanceof PasswordHashingUnavailableException unavailable) {
+                return unavailable;
+            }
+        }
+        return null;
+    }
+}
@@ -1,65 +1,149 @@
 package com.testProjects.todolist.security;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.authorization.AuthorizationDecision;
+import org.springframework.security.authorization.AuthorizationManager;
+import org.springframework.security.config.Customizer;
 import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
-import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
+import org.springframework.security.core.Authentication;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
-import org.springframework.security.crypto.password.NoOpPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
-import org.springframework.security.web.authentication.AuthenticationFailureHandler;
-import org.springframework.security.web.authentication.AuthenticationSuccessHandler;
+import org.springframework.security.web.access.intercept.RequestAuthorizationContext;
 import org.springframework.security.web.authentication.SimpleUrlAuthenticationFailureHandler;
-import org.springframework.security.web.authentication.SimpleUrlAuthenticationSuccessHandler;
+import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
+import org.springframework.security.web.context.RequestAttributeSecurityContextRepository;
+import org.springframework.security.web.context.SecurityContextHolderFilter;
+import org.springframework.security.web.csrf.CookieCsrfTokenRepository;
+import org.springframework.security.web.savedrequest.CookieRequestCache;
+import org.springframework.security.web.util.matcher.AndRequestMatcher;
+import org.springframework.security.web.util.matcher.AntPathRequestMatcher;
+import org.springframework.security.web.util.matcher.RequestMatcher;
+
+import java.time.Duration;
+import java.util.Set;
 
 @Configuration
 @EnableWebSecurity
 public class SecurityConfig {
 
+    /**
+     * API calls that send HTTP Basic credentials themselves. They need no CSRF token;
+     * API calls authenticated by the session or token cookie, which a cross-site page
+     * can make the browser send, still do.
+     */
+    static final RequestMatcher BASIC_API_CALL = new AndRequestMatcher(
+            AntPathRequestMatcher.antMatcher("/api/**"),
+            request -> {
+                String authorization = request.getHeader(HttpHeaders.AUTHORIZATION);
+                return authorization != null && authorization.regionMatches(true, 0, "Basic ", 0, 6);
+            });
+
+    /**
+     * Lets through only the configured admin usernames. Self-registered accounts are
+     * never admins unless listed, so sign-up alone does not open the cache and metrics
+     * endpoints.
+     */
+    static AuthorizationManager<RequestAuthorizationContext> admins(Set<String> usernames) {
+        return (authentication, context) -> {
+            Authentication current = authentication.get();
+            return new AuthorizationDecision(current != null && current.isAuthenticated()
+                    && !(current instanceof AnonymousAuthenticationToken)
+                    && usernames.contains(current.getName()));
+        };
+    }
+
 //    @Autowired
-    private UserDetailsService userDetailsService;
+    private CustomUserDetailsService userDetailsService;
+
+    private final MeterRegistry meterRegistry;
 
     @Bean
     public UserDetailsService getUserDetailsService() {
         return new CustomUserDetailsService();
     }
 
+    /**
+     * BCrypt at the configured cost, on a bounded pool of its own. Stored hashes of a
+     * lower cost are replaced at the next successful login.
+     */
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(@Value("${todolist.password.bcrypt-strength:10}") int strength,
+                                           @Value("${todolist.password.threads:0}") int threads,
+                                           @Value("${todolist.password.queue:64}") int queue,
+                                           @Value("${todolist.password.max-wait:2s}") Duration maxWait) {
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        return new BoundedPasswordEncoder(
+                new TimedPasswordEncoder(new BCryptPasswordEncoder(strength), meterRegistry),
+                poolSize, queue, maxWait, meterRegistry);
     }
 
     @Autowired
-    public SecurityConfig(CustomUserDetailsService userDetailsService) {
+    public SecurityConfig(CustomUserDetailsService userDetailsService, MeterRegistry meterRegistry) {
         this.userDetailsService = userDetailsService;
+        this.meterRegistry = meterRegistry;
     }
 
     @Bean
-    public DaoAuthenticationProvider authenticationProvider() {
+    public DaoAuthenticationProvider authenticationProvider(PasswordEncoder passwordEncoder) {
         DaoAuthenticationProvider daoAuthenticationProvider = new DaoAuthenticationProvider();
         daoAuthenticationProvider.setUserDetailsService(getUserDetailsService());
-        daoAuthenticationProvider.setPasswordEncoder(passwordEncoder());
+        daoAuthenticationProvider.setPasswordEncoder(passwordEncoder);
+        daoAuthenticationProvider.setUserDetailsPasswordService(userDetailsService);
         return daoAuthenticationProvider;
     }
 
 
     @Bean
-    public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
+    public SecurityFilterChain securityFilterChain(HttpSecurity http,
+                                                  ObjectProvider<TokenSecurityContextRepository> sessionTokens,
+                                                  @Value("${todolist.admins:}") Set<String> adminUsernames)
+            throws Exception {
         http
                 .authorizeHttpRequests(authorize -> authorize
+                        .requestMatchers("/internal/**", "/actuator/prometheus", "/actuator/metrics/**")
+                        .access(admins(adminUsernames))
                         .requestMatchers("/tasks/**").authenticated()
                         .requestMatchers("/signin").permitAll()
                         .requestMatchers("/signup").permitAll()
+                        .requestMatchers("/actuator/health").permitAll()
                         .anyRequest().authenticated()
                 )
                 .formLogin(form -> form
                         .loginPage("/signin")
                         .loginProcessingUrl("/login")
-                ).logout(logout -> logout.logoutSuccessUrl("/signin"));
+                ).logout(logout -> logout.logoutSuccessUrl("/signin"))
+                .httpBasic(Customizer.withDefaults())
+                .csrf(csrf -> csrf.ignoringRequestMatchers(BASIC_API_CALL))
+                .addFilterBefore(new PasswordHashingUnavailableFilter(), UsernamePasswordAuthenticationFilter.class);
+
+        TokenSecurityContextRepository tokenRepository = sessionTokens.getIfAvailable();
+        if (tokenRepository != null) {
+            // stateless mode: nothing may fall back to the HTTP session, including the
+            // saved request, the CSRF token and the login failure message. No session
+            // creation policy is set, since any policy adds a filter that stores the
+            // context of every Basic-authenticated API call, i.e. issues a token per call.
+            SimpleUrlAuthenticationFailureHandler failureHandler = new SimpleUrlAuthenticationFailureHandler("/signin?error");
+            failureHandler.setAllowSessionCreation(false);
+            http
+                    .securityContext(context -> context.securityContextRepository(tokenRepository))
+                    .requestCache(cache -> cache.requestCache(new CookieRequestCache()))
+                    .csrf(csrf -> csrf.csrfTokenRepository(CookieCsrfTokenRepository.withHttpOnlyFalse()))
+                    .formLogin(form -> form.failureHandler(failureHandler))
+                    // Basic credentials come with every API call; no token is issued for them
+                    .httpBasic(basic -> basic.securityContextRepository(new RequestAttributeSecurityContextRepository()))
+                    .logout(logout -> logout.addLogoutHandler(tokenRepository))
+                    .addFilterAfter(new SessionTokenRefreshFilter(tokenRepository), SecurityContextHolderFilter.class);
+        }
 
         return http.build();
     }
@@ -0,0 +1,17 @@
+package com.testProjects.todolist.security;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Verified contents of a session token.
+ *
+ * @param id the token's signature, unique per issued token; the key of the deny list
+ */
+public record SessionToken(String id, Long userId, String username, Instant issuedAt, Instant expiresAt) {
+
+    /** Past half of its lifetime, so the next response should carry a fresh one. */
+    public boolean isDueForRefresh(Instant now) {
+        return now.isAfter(issuedAt.plus(Duration.between(issuedAt, expiresAt).dividedBy(2)));
+    }
+}
@@ -0,0 +1,99 @@
+package com.testProjects.todolist.security;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+
+/**
+ * Issues and verifies the signed session tokens of the stateless mode.
+ *
+ * A token is {@code userId.issuedAt.expiresAt.username.signature}: epoch seconds, the
+ * username base64url-encoded and an HMAC-SHA256 over everything before the last dot.
+ * Verifying needs the key only, so every node sharing the key accepts every token
+ * without a session store or a database read.
+ */
+public class SessionTokenCodec {
+
+    private static final String ALGORITHM = "HmacSHA256";
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    private final SecretKeySpec key;
+    private final Duration ttl;
+    private final Clock clock;
+    // Mac instances are not thread-safe; one initialised instance per thread
+    private final ThreadLocal<Mac> macs;
+
+    public SessionTokenCodec(byte[] key, Duration ttl, Clock clock) {
+        if (key.length < 32) {
+            throw new IllegalArgumentException("Session token key must be at least 256 bits");
+        }
+        this.key = new SecretKeySpec(key, ALGORITHM);
+        this.ttl = ttl;
+        this.clock = clock;
+        this.macs = ThreadLocal.withInitial(this::newMac);
+    }
+
+    private Mac newMac() {
+        try {
+            Mac mac = Mac.getInstance(ALGORITHM);
+            mac.init(key);
+            return mac;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    public Duration ttl() {
+        return ttl;
+    }
+
+    public String encode(Long userId, String username) {
+        long issuedAt = clock.instant().getEpochSecond();
+        String payload = userId + "." + issuedAt + "." + (issuedAt + ttl.toSeconds()) + "."
+                + ENCODER.encodeToString(username.getBytes(StandardCharsets.UTF_8));
+        return payload + "." + sign(payload);
+    }
+
+    /**
+     * Returns the token's contents, or null if it is malformed, carries a wrong
+     * signature or has expired.
+     */
+    public SessionToken decode(String token) {
+        int lastDot = token.lastIndexOf('.');
+        if (lastDot < 0) {
+            return null;
+        }
+        String payload = token.substring(0, lastDot);
+        String signature = token.substring(lastDot + 1);
+        if (!MessageDigest.isEqual(sign(payload).getBytes(StandardCharsets.US_ASCII),
+                signature.getBytes(StandardCharsets.US_ASCII))) {
+            return null;
+        }
+        String[] parts = payload.split("\\.");
+        if (parts.length != 4) {
+            return null;
+        }
+        try {
+            Instant expiresAt = Instant.ofEpochSecond(Long.parseLong(parts[2]));
+            if (!clock.instant().isBefore(expiresAt)) {
+                return null;
+            }
+            return new SessionToken(signature, Long.valueOf(parts[0]),
+                    new String(DECODER.decode(parts[3]), StandardCharsets.UTF_8),
+                    Instant.ofEpochSecond(Long.parseLong(parts[1])), expiresAt);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private String sign(String payload) {
+        return ENCODER.encodeToString(macs.get().doFinal(payload.getBytes(StandardCharsets.UTF_8)));
+    }
+}
@@ -0,0 +1,66 @@
+package com.testProjects.todolist.security;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.security.SecureRandom;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Base64;
+
+/**
+ * Stateless sessions, switched on by {@code todolist.session.stateless=true}: the
+ * authentication travels in a signed cookie and {@link SecurityConfig} creates no
+ * HTTP sessions. All nodes must share {@code todolist.session.token.secret}; without
+ * one a random key is generated and tokens are only valid on the node that issued them.
+ */
+@Configuration
+@ConditionalOnProperty(name = "todolist.session.stateless", havingValue = "true")
+public class SessionTokenConfig {
+
+    private static final Logger log = LoggerFactory.getLogger(SessionTokenConfig.class);
+
+    private TokenDenyList denyList;
+
+    @Bean
+    public TokenDenyList tokenDenyList() {
+        denyList = new TokenDenyList(Clock.systemUTC());
+        return denyList;
+    }
+
+    @Bean
+    public SessionTokenCodec sessionTokenCodec(
+            @Value("${todolist.session.token.secret:}") String secret,
+            @Value("${todolist.session.token.ttl:PT30M}") Duration ttl) {
+        byte[] key;
+        if (secret.isBlank()) {
+            log.warn("todolist.session.token.secret is not set; using a random key, tokens will not be "
+                    + "accepted by other nodes or after a restart");
+            key = new byte[32];
+            new SecureRandom().nextBytes(key);
+        } else {
+            key = Base64.getDecoder().decode(secret.trim());
+        }
+        return new SessionTokenCodec(key, ttl, Clock.systemUTC());
+    }
+
+    @Bean
+    public TokenSecurityContextRepository tokenSecurityContextRepository(
+            SessionTokenCodec codec, TokenDenyList denyList,
+            @Value("${todolist.session.token.cookie:TODO_SESSION}") String cookieName,
+            @Value("${todolist.session.token.refresh-grace:PT30S}") Duration refreshGrace) {
+        return new TokenSecurityContextRepository(codec, denyList, cookieName, refreshGrace, Clock.systemUTC());
+    }
+
+    @Scheduled(fixedDelayString = "PT1M")
+    public void purgeDenyList() {
+        if (denyList != null) {
+            denyList.purge();
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package com.testProjects.todolist.security;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Lets {@link TokenSecurityContextRepository} replace an ageing session token before
+ * the response is committed.
+ */
+public class SessionTokenRefreshFilter extends OncePerRequestFilter {
+
+    private final TokenSecurityContextRepository repository;
+
+    public SessionTokenRefreshFilter(TokenSecurityContextRepository repository) {
+        this.repository = repository;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        repository.refresh(request, response);
+        chain.doFilter(request, response);
+    }
+}
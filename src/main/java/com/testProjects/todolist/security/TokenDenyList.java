@@ -0,0 +1,48 @@
+package com.testProjects.todolist.security;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Session tokens that must no longer be accepted although their signature is valid:
+ * logged out ones at once, refreshed ones after a grace period that lets requests
+ * already in flight with the old token finish. An entry is only needed until the token
+ * expires, so the list holds at most the tokens revoked within one token lifetime.
+ *
+ * The list is per node. A revoked token stays usable on other nodes until it expires,
+ * which the short token lifetime bounds.
+ */
+public class TokenDenyList {
+
+    private record Denial(Instant from, Instant tokenExpiresAt) {
+    }
+
+    private final Clock clock;
+    private final Map<String, Denial> denied = new ConcurrentHashMap<>();
+
+    public TokenDenyList(Clock clock) {
+        this.clock = clock;
+    }
+
+    public void deny(SessionToken token, Instant from) {
+        denied.merge(token.id(), new Denial(from, token.expiresAt()),
+                (current, next) -> current.from().isBefore(next.from()) ? current : next);
+    }
+
+    public boolean isDenied(SessionToken token) {
+        Denial denial = denied.get(token.id());
+        return denial != null && !clock.instant().isBefore(denial.from());
+    }
+
+    /** Forgets tokens that have expired and are rejected on that ground anyway. */
+    public void purge() {
+        Instant now = clock.instant();
+        denied.values().removeIf(denial -> !now.isBefore(denial.tokenExpiresAt()));
+    }
+
+    int size() {
+        return denied.size();
+    }
+}
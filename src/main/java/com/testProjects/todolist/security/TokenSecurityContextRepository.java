@@ -0,0 +1,183 @@
+package com.testProjects.todolist.security;
+
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseCookie;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.DeferredSecurityContext;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.web.authentication.logout.LogoutHandler;
+import org.springframework.security.web.context.HttpRequestResponseHolder;
+import org.springframework.security.web.context.SecurityContextRepository;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Keeps the security context in a signed session token cookie instead of the HTTP
+ * session. Loading it costs a signature check and a deny-list lookup, no session
+ * store and no database read, so any node can serve any request.
+ *
+ * The login stores a fresh token. A token past half its lifetime is replaced by
+ * {@link #refresh} and the old one denied after {@code refreshGrace}; logout denies
+ * the token at once and clears the cookie.
+ */
+public class TokenSecurityContextRepository implements SecurityContextRepository, LogoutHandler {
+
+    private static final String TOKEN_ATTRIBUTE = TokenSecurityContextRepository.class.getName() + ".TOKEN";
+    private static final String NO_TOKEN = "";
+
+    private final SessionTokenCodec codec;
+    private final TokenDenyList denyList;
+    private final String cookieName;
+    private final Duration refreshGrace;
+    private final Clock clock;
+
+    public TokenSecurityContextRepository(SessionTokenCodec codec, TokenDenyList denyList, String cookieName,
+                                          Duration refreshGrace, Clock clock) {
+        this.codec = codec;
+        this.denyList = denyList;
+        this.cookieName = cookieName;
+        this.refreshGrace = refreshGrace;
+        this.clock = clock;
+    }
+
+    @Override
+    public DeferredSecurityContext loadDeferredContext(HttpServletRequest request) {
+        return new DeferredSecurityContext() {
+            private SecurityContext context;
+
+            @Override
+            public SecurityContext get() {
+                if (context == null) {
+                    context = loadContext(request);
+                }
+                return context;
+            }
+
+            @Override
+            public boolean isGenerated() {
+                return currentToken(request) == null;
+            }
+        };
+    }
+
+    /** The context of the request's token; empty without a valid one. */
+    public SecurityContext loadContext(HttpServletRequest request) {
+        return contextOf(currentToken(request));
+    }
+
+    /**
+     * @deprecated still declared by {@link SecurityContextRepository}; the filters call
+     * {@link #loadDeferredContext(HttpServletRequest)}
+     */
+    @Override
+    @Deprecated
+    public SecurityContext loadContext(HttpRequestResponseHolder requestResponseHolder) {
+        return loadContext(requestResponseHolder.getRequest());
+    }
+
+    @Override
+    public void saveContext(SecurityContext context, HttpServletRequest request, HttpServletResponse response) {
+        Authentication authentication = context.getAuthentication();
+        if (authentication == null || !authentication.isAuthenticated()
+                || !(authentication.getPrincipal() instanceof CustomUserDetails user)) {
+            if (cookieValue(request) != null) {
+                writeCookie(request, response, "", Duration.ZERO);
+            }
+            return;
+        }
+        SessionToken current = currentToken(request);
+        Instant now = clock.instant();
+        if (current != null && current.userId().equals(user.getId()) && !current.isDueForRefresh(now)) {
+            return;
+        }
+        if (current != null) {
+            denyList.deny(current, now.plus(refreshGrace));
+        }
+        writeCookie(request, response, codec.encode(user.getId(), user.getUsername()), codec.ttl());
+    }
+
+    @Override
+    public boolean containsContext(HttpServletRequest request) {
+        return currentToken(request) != null;
+    }
+
+    /**
+     * Replaces a token that is past half its lifetime and clears a cookie that no longer
+     * verifies. Called before the response is written.
+     */
+    public void refresh(HttpServletRequest request, HttpServletResponse response) {
+        SessionToken token = currentToken(request);
+        if (token == null) {
+            if (cookieValue(request) != null) {
+                writeCookie(request, response, "", Duration.ZERO);
+            }
+        } else if (token.isDueForRefresh(clock.instant())) {
+            saveContext(contextOf(token), request, response);
+        }
+    }
+
+    @Override
+    public void logout(HttpServletRequest request, HttpServletResponse response, Authentication authentication) {
+        SessionToken token = currentToken(request);
+        if (token != null) {
+            denyList.deny(token, clock.instant());
+        }
+        request.setAttribute(TOKEN_ATTRIBUTE, NO_TOKEN);
+        writeCookie(request, response, "", Duration.ZERO);
+    }
+
+    /** The request's valid, not denied token; verified once per request. */
+    private SessionToken currentToken(HttpServletRequest request) {
+        Object cached = request.getAttribute(TOKEN_ATTRIBUTE);
+        if (cached != null) {
+            return cached instanceof SessionToken token ? token : null;
+        }
+        String value = cookieValue(request);
+        SessionToken token = value == null || value.isEmpty() ? null : codec.decode(value);
+        if (token != null && denyList.isDenied(token)) {
+            token = null;
+        }
+        request.setAttribute(TOKEN_ATTRIBUTE, token == null ? NO_TOKEN : token);
+        return token;
+    }
+
+    private static SecurityContext contextOf(SessionToken token) {
+        SecurityContext context = SecurityContextHolder.createEmptyContext();
+        if (token != null) {
+            CustomUserDetails principal = new CustomUserDetails(token.userId(), token.username());
+            context.setAuthentication(UsernamePasswordAuthenticationToken.authenticated(
+                    principal, null, principal.getAuthorities()));
+        }
+        return context;
+    }
+
+    private String cookieValue(HttpServletRequest request) {
+        Cookie[] cookies = request.getCookies();
+        if (cookies != null) {
+            for (Cookie cookie : cookies) {
+                if (cookieName.equals(cookie.getName())) {
+                    return cookie.getValue();
+                }
+            }
+        }
+        return null;
+    }
+
+    private void writeCookie(HttpServletRequest request, HttpServletResponse response, String value, Duration maxAge) {
+        ResponseCookie cookie = ResponseCookie.from(cookieName, value)
+                .httpOnly(true)
+                .secure(request.isSecure())
+                .sameSite("Lax")
+                .path("/")
+                .maxAge(maxAge)
+                .build();
+        response.addHeader(HttpHeaders.SET_COOKIE, cookie.toString());
+    }
+}
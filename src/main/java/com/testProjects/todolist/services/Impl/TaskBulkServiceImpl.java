@@ -0,0 +1,241 @@
+package com.testProjects.todolist.services.Impl;
+
+import com.testProjects.todolist.cache.TaskCache;
+import com.testProjects.todolist.dto.BulkResult;
+import com.testProjects.todolist.dto.TaskCursor;
+import com.testProjects.todolist.dto.TaskSelection;
+import com.testProjects.todolist.feed.TaskChange;
+import com.testProjects.todolist.feed.TaskChangeHub;
+import com.testProjects.todolist.models.Priority;
+import com.testProjects.todolist.reminder.DeadlineReminder;
+import com.testProjects.todolist.reminder.DeadlineReminders;
+import com.testProjects.todolist.repositories.TaskRepository;
+import com.testProjects.todolist.repositories.UserRepository;
+import com.testProjects.todolist.search.TaskSearchIndex;
+import com.testProjects.todolist.services.TaskBulkService;
+import com.testProjects.todolist.stats.TaskStatistics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.Function;
+
+/**
+ * Writes one change to many of the current user's tasks with set-based statements.
+ *
+ * The selection is worked through in chunks of {@code chunkSize} tasks, one transaction
+ * each: the chunk's rows are locked in keyset order and changed by a single statement,
+ * so no lock is held longer than one chunk takes. Tasks are never loaded as entities.
+ * Once a chunk is committed, the caches, the search index and the reminders forget
+ * what it changed; statistics and open lists are refreshed once at the end.
+ */
+@Service
+public class TaskBulkServiceImpl implements TaskBulkService {
+
+    private static final Logger log = LoggerFactory.getLogger(TaskBulkServiceImpl.class);
+
+    // beyond this many tasks, a list reload is cheaper than one event per task
+    private static final int MAX_CHANGE_EVENTS = 10;
+
+    private enum Action {
+        COMPLETE, REOPEN, PRIORITY, SHIFT_DEADLINES, DELETE
+    }
+
+    /** The rows one chunk locked, how many its statement changed, and reminders to hold again. */
+    private record Chunk(List<TaskCursor> locked, int written, List<DeadlineReminder> reminders) {
+
+        List<Long> ids() {
+            return locked.stream().map(TaskCursor::id).toList();
+        }
+    }
+
+    @FunctionalInterface
+    private interface ChunkWrite {
+        int apply(Long userId, List<Long> ids);
+    }
+
+    private final TransactionTemplate transactionTemplate;
+    private final TaskRepository taskRepository;
+    private final UserRepository userRepository;
+    private final UserServiceImpl userService;
+    private final TaskSearchIndex searchIndex;
+    private final TaskCache taskCache;
+    private final DeadlineReminders deadlineReminders;
+    private final TaskStatistics taskStatistics;
+    private final TaskChangeHub changeHub;
+    private final int chunkSize;
+
+    @Autowired
+    public TaskBulkServiceImpl(PlatformTransactionManager transactionManager,
+                               TaskRepository taskRepository,
+                               UserRepository userRepository,
+                               UserServiceImpl userService,
+                               TaskSearchIndex searchIndex,
+                               TaskCache taskCache,
+                               DeadlineReminders deadlineReminders,
+                               TaskStatistics taskStatistics,
+                               TaskChangeHub changeHub,
+                               @Value("${todolist.bulk.chunk-size:500}") int chunkSize) {
+        this(new TransactionTemplate(transactionManager), taskRepository, userRepository, userService, searchIndex,
+                taskCache, deadlineReminders, taskStatistics, changeHub, chunkSize);
+    }
+
+    TaskBulkServiceImpl(TransactionTemplate transactionTemplate, TaskRepository taskRepository,
+                        UserRepository userRepository, UserServiceImpl userService, TaskSearchIndex searchIndex,
+                        TaskCache taskCache, DeadlineReminders deadlineReminders, TaskStatistics taskStatistics,
+                        TaskChangeHub changeHub, int chunkSize) {
+        this.transactionTemplate = transactionTemplate;
+        this.taskRepository = taskRepository;
+        this.userRepository = userRepository;
+        this.userService = userService;
+        this.searchIndex = searchIndex;
+        this.taskCache = taskCache;
+        this.deadlineReminders = deadlineReminders;
+        this.taskStatistics = taskStatistics;
+        this.changeHub = changeHub;
+        this.chunkSize = chunkSize;
+    }
+
+    /** Completes the open tasks of the selection, or reopens the completed ones. */
+    @Override
+    public BulkResult setCompleted(TaskSelection selection, boolean completed) {
+        LocalDateTime completedAt = completed ? LocalDateTime.now() : null;
+        return run(completed ? Action.COMPLETE : Action.REOPEN, selection,
+                (userId, ids) -> taskRepository.completeOwnedIn(userId, ids, completedAt),
+                id -> TaskChange.completed(id, completed));
+    }
+
+    @Override
+    public BulkResult setPriority(TaskSelection selection, Priority priority) {
+        if (priority == null) {
+            throw new IllegalArgumentException("priority is required");
+        }
+        return run(Action.PRIORITY, selection,
+                (userId, ids) -> taskRepository.setPriorityOwnedIn(userId, ids, priority), null);
+    }
+
+    /** Moves the deadlines of the selection by {@code days}, negative for earlier. */
+    @Override
+    public BulkResult shiftDeadlines(TaskSelection selection, int days) {
+        if (days == 0) {
+            throw new IllegalArgumentException("days must not be 0");
+        }
+        return run(Action.SHIFT_DEADLINES, selection,
+                (userId, ids) -> taskRepository.shiftDeadlinesOwnedIn(userId, ids, days), null);
+    }
+
+    @Override
+    public BulkResult delete(TaskSelection selection) {
+        return run(Action.DELETE, selection, taskRepository::deleteOwnedIn, TaskChange::deleted);
+    }
+
+    /**
+     * Runs {@code write} chunk by chunk over the selection. {@code event} turns a task id
+     * into its change event; without one, open lists are always reloaded.
+     */
+    private BulkResult run(Action action, TaskSelection selection, ChunkWrite write,
+                           Function<Long, TaskChange> event) {
+        if (selection == null || selection.isEmpty()) {
+            throw new IllegalArgumentException("select tasks by ids or by at least one filter");
+        }
+        String username = SecurityContextHolder.getContext().getAuthentication().getName();
+        Long userId = userService.getCurrentUserId();
+
+        long start = System.nanoTime();
+        int affected = 0;
+        int chunks = 0;
+        List<Long> changed = new ArrayList<>();
+        try {
+            // an id list is cut into chunks up front; a filter is walked in keyset order
+            TaskCursor after = null;
+            int offset = 0;
+            while (true) {
+                TaskSelection part = selection;
+                if (selection.hasIds()) {
+                    if (offset >= selection.ids().size()) {
+                        break;
+                    }
+                    part = selection.withIds(selection.ids().subList(offset,
+                            Math.min(offset + chunkSize, selection.ids().size())));
+                    offset += chunkSize;
+                }
+                TaskSelection chunkSelection = part;
+                TaskCursor chunkAfter = after;
+                Chunk chunk = transactionTemplate.execute(
+                        status -> writeChunk(action, userId, chunkSelection, chunkAfter, write));
+                chunks++;
+                if (chunk.written() > 0) {
+                    affected += chunk.written();
+                    if (changed.size() <= MAX_CHANGE_EVENTS) {
+                        changed.addAll(chunk.ids());
+                    }
+                    forget(action, username, chunk);
+                }
+                if (!selection.hasIds()) {
+                    if (chunk.locked().size() < chunkSize) {
+                        break;
+                    }
+                    after = chunk.locked().get(chunk.locked().size() - 1);
+                }
+            }
+        } finally {
+            // also after a failed chunk: the ones before it are committed
+            if (affected > 0) {
+                taskStatistics.invalidate(userId);
+                if (event != null && changed.size() <= MAX_CHANGE_EVENTS) {
+                    changed.forEach(id -> changeHub.publish(userId, event.apply(id)));
+                } else {
+                    changeHub.publish(userId, TaskChange.reload());
+                }
+            }
+        }
+
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+        log.info("Bulk {} for {}: {} tasks in {} chunks, {} ms", action, username, affected, chunks, elapsedMillis);
+        return new BulkResult(action.name().toLowerCase(Locale.ROOT).replace('_', '-'), affected, chunks, elapsedMillis);
+    }
+
+    private Chunk writeChunk(Action action, Long userId, TaskSelection selection, TaskCursor after,
+                             ChunkWrite write) {
+        List<TaskCursor> locked = taskRepository.lockOwned(userId, selection, after, chunkSize);
+        if (locked.isEmpty()) {
+            return new Chunk(locked, 0, List.of());
+        }
+        List<Long> ids = locked.stream().map(TaskCursor::id).toList();
+        int written = write.apply(userId, ids);
+        if (written == 0) {
+            return new Chunk(locked, 0, List.of());
+        }
+        userRepository.bumpTasksVersion(userId);
+        // the reminders need title and deadline as they are now, read before the locks go
+        List<DeadlineReminder> reminders = action == Action.REOPEN || action == Action.SHIFT_DEADLINES
+                ? taskRepository.findOpenRemindersByIdIn(ids) : List.of();
+        return new Chunk(locked, written, reminders);
+    }
+
+    /** Drops a committed chunk's tasks from what is held in memory about them. */
+    private void forget(Action action, String username, Chunk chunk) {
+        List<Long> ids = chunk.ids();
+        taskCache.evictAll(username, ids);
+        switch (action) {
+            case DELETE -> ids.forEach(id -> {
+                searchIndex.remove(username, id);
+                deadlineReminders.cancel(id);
+            });
+            case COMPLETE -> ids.forEach(deadlineReminders::cancel);
+            case REOPEN, SHIFT_DEADLINES -> chunk.reminders().forEach(deadlineReminders::schedule);
+            case PRIORITY -> {
+                // neither searched nor reminded by priority
+            }
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package com.testProjects.todolist.services.Impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.testProjects.todolist.exporter.ExportFormat;
+import com.testProjects.todolist.exporter.TaskExportWriter;
+import com.testProjects.todolist.models.Task;
+import com.testProjects.todolist.repositories.TaskRepository;
+import com.testProjects.todolist.services.TaskExportService;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Writes all of a user's tasks straight from a database cursor to the output.
+ * The persistence context is cleared every {@link TaskRepository#EXPORT_FETCH_SIZE}
+ * rows, so memory stays flat however many tasks are exported.
+ */
+@Service
+public class TaskExportServiceImpl implements TaskExportService {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final TaskRepository taskRepository;
+    private final ObjectMapper objectMapper;
+
+    public TaskExportServiceImpl(TaskRepository taskRepository, ObjectMapper objectMapper) {
+        this.taskRepository = taskRepository;
+        this.objectMapper = objectMapper;
+    }
+
+    @Transactional(readOnly = true)
+    @Override
+    public long exportTasks(Long userId, ExportFormat format, OutputStream out) throws IOException {
+        TaskExportWriter writer = format.writer(objectMapper, out);
+        long rows = 0;
+        try (Stream<Task> tasks = taskRepository.streamByUserId(userId)) {
+            Iterator<Task> it = tasks.iterator();
+            while (it.hasNext()) {
+                writer.write(it.next());
+                if (++rows % TaskRepository.EXPORT_FETCH_SIZE == 0) {
+                    entityManager.clear();
+                }
+            }
+        }
+        writer.finish();
+        return rows;
+    }
+}
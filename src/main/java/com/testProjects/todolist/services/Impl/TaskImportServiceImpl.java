@@ -0,0 +1,181 @@
+package com.testProjects.todolist.services.Impl;
+
+import com.testProjects.todolist.cache.TaskCache;
+import com.testProjects.todolist.config.IdBlockAllocator;
+import com.testProjects.todolist.dto.ImportResult;
+import com.testProjects.todolist.feed.TaskChange;
+import com.testProjects.todolist.feed.TaskChangeHub;
+import com.testProjects.todolist.importer.TaskRow;
+import com.testProjects.todolist.importer.TaskRowReader;
+import com.testProjects.todolist.models.Task;
+import com.testProjects.todolist.models.User;
+import com.testProjects.todolist.reminder.DeadlineReminders;
+import com.testProjects.todolist.repositories.UserRepository;
+import com.testProjects.todolist.search.TaskSearchIndex;
+import com.testProjects.todolist.stats.TaskStatistics;
+import com.testProjects.todolist.services.TaskImportService;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Streams import rows into the tasks table in chunks.
+ *
+ * Each chunk is persisted in its own transaction and flushed as JDBC batches. Task ids
+ * are taken from blocks reserved by {@link IdBlockAllocator} ({@code @BlockAllocatedId}
+ * on {@link Task}), so they are known before the insert and Hibernate can batch it.
+ * If a chunk fails, its rows are retried one by one so the error report names the
+ * offending rows and the rest of the chunk is still imported.
+ */
+@Service
+public class TaskImportServiceImpl implements TaskImportService {
+
+    private static final Logger log = LoggerFactory.getLogger(TaskImportServiceImpl.class);
+    private static final int MAX_REPORTED_ERRORS = 1000;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final TransactionTemplate transactionTemplate;
+    private final UserRepository userRepository;
+    private final UserServiceImpl userService;
+    private final TaskSearchIndex searchIndex;
+    private final TaskCache taskCache;
+    private final DeadlineReminders deadlineReminders;
+    private final TaskStatistics taskStatistics;
+    private final TaskChangeHub changeHub;
+    private final int chunkSize;
+
+    public TaskImportServiceImpl(PlatformTransactionManager transactionManager,
+                                 UserRepository userRepository,
+                                 UserServiceImpl userService,
+                                 TaskSearchIndex searchIndex,
+                                 TaskCache taskCache,
+                                 DeadlineReminders deadlineReminders,
+                                 TaskStatistics taskStatistics,
+                                 TaskChangeHub changeHub,
+                                 @Value("${todolist.import.chunk-size:500}") int chunkSize) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.userRepository = userRepository;
+        this.userService = userService;
+        this.searchIndex = searchIndex;
+        this.taskCache = taskCache;
+        this.deadlineReminders = deadlineReminders;
+        this.taskStatistics = taskStatistics;
+        this.changeHub = changeHub;
+        this.chunkSize = chunkSize;
+    }
+
+    @Override
+    public ImportResult importTasks(TaskRowReader reader) {
+        String username = SecurityContextHolder.getContext().getAuthentication().getName();
+        Long userId = userService.getCurrentUserId();
+
+        long start = System.nanoTime();
+        Report report = new Report();
+        List<TaskRow> chunk = new ArrayList<>(chunkSize);
+        String aborted = null;
+        try {
+            TaskRow row;
+            while ((row = reader.next()) != null) {
+                try {
+                    row.toTask(); // validate up front so bad rows never reach a transaction
+                    chunk.add(row);
+                } catch (IllegalArgumentException e) {
+                    report.fail(row.rowNumber(), e.getMessage());
+                }
+                if (chunk.size() >= chunkSize) {
+                    persist(userId, chunk, report);
+                    chunk.clear();
+                }
+            }
+        } catch (IOException e) {
+            aborted = e.getMessage();
+        } finally {
+            if (!chunk.isEmpty()) {
+                persist(userId, chunk, report);
+            }
+            if (report.imported > 0) {
+                taskCache.evict(username, null);
+                searchIndex.invalidate(username);
+                // open lists refetch once instead of receiving a row per imported task
+                changeHub.publish(userId, TaskChange.reload());
+            }
+        }
+
+        long elapsedNanos = Math.max(1, System.nanoTime() - start);
+        double rowsPerSecond = report.imported * 1_000_000_000d / elapsedNanos;
+        log.info("Imported {} tasks for {} ({} failed) in {} ms, {} rows/s",
+                report.imported, username, report.failed, elapsedNanos / 1_000_000, Math.round(rowsPerSecond));
+        return new ImportResult(report.imported, report.failed, report.errors, aborted,
+                elapsedNanos / 1_000_000, rowsPerSecond);
+    }
+
+    private void persist(Long userId, List<TaskRow> rows, Report report) {
+        try {
+            insert(userId, rows);
+            report.imported += rows.size();
+        } catch (RuntimeException chunkFailure) {
+            for (TaskRow row : rows) {
+                try {
+                    insert(userId, List.of(row));
+                    report.imported++;
+                } catch (RuntimeException e) {
+                    report.fail(row.rowNumber(), rootMessage(e));
+                }
+            }
+        }
+    }
+
+    private void insert(Long userId, List<TaskRow> rows) {
+        List<Task> inserted = transactionTemplate.execute(status -> {
+            User owner = entityManager.getReference(User.class, userId);
+            List<Task> tasks = new ArrayList<>(rows.size());
+            for (TaskRow row : rows) {
+                Task task = row.toTask();
+                task.setUser(owner);
+                entityManager.persist(task);
+                tasks.add(task);
+            }
+            entityManager.flush();
+            entityManager.clear();
+            userRepository.bumpTasksVersion(userId);
+            return tasks;
+        });
+        // only once committed, so a chunk that is retried row by row leaves no strays behind
+        for (Task task : inserted) {
+            deadlineReminders.schedule(task);
+            taskStatistics.created(userId, task.getPriority(), task.getDeadline(), task.getCreatedAt());
+        }
+    }
+
+    private static String rootMessage(Throwable e) {
+        while (e.getCause() != null) {
+            e = e.getCause();
+        }
+        return e.getMessage();
+    }
+
+    private static final class Report {
+        long imported;
+        long failed;
+        final List<ImportResult.RowError> errors = new ArrayList<>();
+
+        void fail(long row, String message) {
+            failed++;
+            if (errors.size() < MAX_REPORTED_ERRORS) {
+                errors.add(new ImportResult.RowError(row, message));
+            }
+        }
+    }
+}
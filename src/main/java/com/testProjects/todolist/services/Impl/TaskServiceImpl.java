@@ -1,35 +1,97 @@
 package com.testProjects.todolist.services.Impl;
 
+import com.testProjects.todolist.cache.TaskCache;
+import com.testProjects.todolist.dto.ArchivedTaskDto;
+import com.testProjects.todolist.dto.ArchivedTaskPage;
+import com.testProjects.todolist.dto.TaskCursor;
+import com.testProjects.todolist.dto.TaskPage;
+import com.testProjects.todolist.dto.TaskStats;
+import com.testProjects.todolist.dto.TaskSummary;
+import com.testProjects.todolist.dto.VersionStamp;
+import com.testProjects.todolist.feed.TaskChange;
+import com.testProjects.todolist.feed.TaskChangeHub;
+import com.testProjects.todolist.models.ArchivedTask;
 import com.testProjects.todolist.models.Priority;
 import com.testProjects.todolist.models.Task;
 import com.testProjects.todolist.models.User;
+import com.testProjects.todolist.reminder.DeadlineReminder;
+import com.testProjects.todolist.reminder.DeadlineReminders;
+import com.testProjects.todolist.repositories.ArchivedTaskRepository;
 import com.testProjects.todolist.repositories.TaskRepository;
 import com.testProjects.todolist.repositories.UserRepository;
+import com.testProjects.todolist.search.SearchHit;
+import com.testProjects.todolist.search.TaskSearchIndex;
+import com.testProjects.todolist.security.CurrentUser;
+import com.testProjects.todolist.stats.TaskFacts;
+import com.testProjects.todolist.stats.TaskStatistics;
 import com.testProjects.todolist.services.TaskService;
-import jakarta.transaction.Transactional;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 public class TaskServiceImpl implements TaskService {
 
+    public static final int DEFAULT_PAGE_SIZE = 20;
+    public static final int MAX_PAGE_SIZE = 100;
+
     @Autowired
     //@ spec_public
     private TaskRepository taskRepository;
     @Autowired
     //@ spec_public
     private UserRepository userRepository;
+    @Autowired
+    private TaskSearchIndex searchIndex;
+    @Autowired
+    private TaskCache taskCache;
+    @Autowired
+    private DeadlineReminders deadlineReminders;
+    @Autowired
+    private TaskStatistics taskStatistics;
+    @Autowired
+    private TaskChangeHub changeHub;
+    @Autowired
+    private ArchivedTaskRepository archivedTaskRepository;
 
     //@ ensures \result != null;
     //@ ensures \result.size() >= 0;
+    @Transactional(readOnly = true)
     @Override
     public List<Task> findAllTasks() {
         return taskRepository.findAll();
     }
 
+    /**
+     * Returns the current user for use as a foreign key. When the principal carries the
+     * user id this is an uninitialized reference and no query is issued.
+     */
+    private User currentUserReference() {
+        Long userId = CurrentUser.id();
+        if (userId != null) {
+            return userRepository.getReferenceById(userId);
+        }
+        String username = SecurityContextHolder.getContext().getAuthentication().getName();
+        return userRepository.findByUsername(username)
+                .orElseThrow(() -> new IllegalArgumentException("User not found"));
+    }
+
     /**
      * JML-style specification for saveTask:
      *  - requires: task is not null and a user with the current username exists
@@ -47,10 +109,23 @@ public class TaskServiceImpl implements TaskService {
 
         String username = SecurityContextHolder.getContext().getAuthentication().getName();
 
-        User user = userRepository.findByUsername(username)
-                .orElseThrow(() -> new IllegalArgumentException("User not found"));
+        User user = currentUserReference();
         task.setUser(user);
-        return taskRepository.save(task);
+        boolean created = task.getId() == null;
+        Task saved = taskRepository.save(task);
+        userRepository.bumpTasksVersion(user.getId());
+        taskCache.evict(username, saved.getId());
+        searchIndex.put(username, saved);
+        deadlineReminders.schedule(saved);
+        if (created) {
+            taskStatistics.created(user.getId(), saved.getPriority(), saved.getDeadline(), saved.getCreatedAt());
+        } else {
+            // what the row held before the merge is unknown, so the counters are rebuilt
+            taskStatistics.invalidate(user.getId());
+        }
+        changeHub.publish(user.getId(),
+                created ? TaskChange.created(saved) : TaskChange.updated(saved.getId(), saved));
+        return saved;
     }
 
     /**
@@ -58,11 +133,88 @@ public class TaskServiceImpl implements TaskService {
      */
     //@ ensures \result != null;
     //@ ensures \result.size() >= 0;
+    @Transactional(readOnly = true)
     public List<Task> getTasksForCurrentUser() {
         String username = SecurityContextHolder.getContext().getAuthentication().getName();
         return taskRepository.findByUserUsername(username);
     }
 
+    /**
+     * Returns one keyset page of the current user's tasks, ordered by (createdAt, id).
+     * At most one of after/before is honoured; with neither the first page is returned.
+     * One extra row is fetched to learn whether a further page exists, so the cost
+     * depends on the page size only, not on how many tasks the user owns.
+     * Pages are cached under the user's task version, which is read before the rows
+     * so a concurrent write can only make the cached page look older, never newer.
+     */
+    //@ requires size > 0;
+    //@ ensures \result != null;
+    //@ ensures \result.tasks().size() <= MAX_PAGE_SIZE;
+    @Transactional(readOnly = true)
+    @Override
+    public TaskPage getTaskPageForCurrentUser(String after, String before, int size) {
+        String username = SecurityContextHolder.getContext().getAuthentication().getName();
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+
+        TaskCache.PageKey key = new TaskCache.PageKey(username, after, before, pageSize);
+        Long version = userRepository.findTasksVersionByUsername(username).orElse(null);
+        TaskPage cached = taskCache.getPage(key, version);
+        if (cached != null) {
+            return cached;
+        }
+        TaskPage page = loadPage(username, after, before, pageSize);
+        taskCache.putPage(key, version, page);
+        return page;
+    }
+
+    private TaskPage loadPage(String username, String after, String before, int pageSize) {
+        Limit limit = Limit.of(pageSize + 1);
+
+        TaskCursor beforeCursor = TaskCursor.parse(before);
+        if (beforeCursor != null) {
+            List<TaskSummary> rows = new ArrayList<>(taskRepository.findPageBefore(
+                    username, beforeCursor.createdAt(), beforeCursor.id(), limit));
+            boolean hasPrev = rows.size() > pageSize;
+            if (hasPrev) {
+                rows.remove(pageSize);
+            }
+            Collections.reverse(rows);
+            return TaskPage.of(rows, hasPrev, true);
+        }
+
+        TaskCursor afterCursor = TaskCursor.parse(after);
+        List<TaskSummary> rows = new ArrayList<>(afterCursor == null
+                ? taskRepository.findFirstPage(username, limit)
+                : taskRepository.findPageAfter(username, afterCursor.createdAt(), afterCursor.id(), limit));
+        boolean hasNext = rows.size() > pageSize;
+        if (hasNext) {
+            rows.remove(pageSize);
+        }
+        return TaskPage.of(rows, afterCursor != null, hasNext);
+    }
+
+    /**
+     * Searches the current user's tasks through the inverted index and loads only
+     * the matching rows, best match first.
+     */
+    //@ requires limit > 0;
+    //@ ensures \result != null;
+    //@ ensures \result.size() <= limit;
+    @Transactional(readOnly = true)
+    @Override
+    public List<TaskSummary> searchTasksForCurrentUser(String query, int limit) {
+        String username = SecurityContextHolder.getContext().getAuthentication().getName();
+        List<SearchHit> hits = searchIndex.search(username, query, limit);
+        if (hits.isEmpty()) {
+            return List.of();
+        }
+        List<Long> ids = hits.stream().map(SearchHit::taskId).toList();
+        Map<Long, TaskSummary> byId = taskRepository.findSummariesByIdIn(ids).stream()
+                .collect(Collectors.toMap(TaskSummary::id, Function.identity()));
+        // ids of rows deleted meanwhile simply drop out here
+        return ids.stream().map(byId::get).filter(Objects::nonNull).toList();
+    }
+
     /**
      * JML-style spec:
      *  - requires: id is not null
@@ -70,40 +222,233 @@ public class TaskServiceImpl implements TaskService {
      */
     //@ requires id != null;
     //@ ensures (\result == null) || (\result.getId().equals(id));
+    @Transactional(readOnly = true)
     @Override
     public Task findTaskById(Long id) {
-        return taskRepository.findById(id).orElse(null);
+        // the owner's stamp is read before the row, same ordering as the list pages
+        VersionStamp stamp = taskRepository.findOwnerStampById(id).orElse(null);
+        Task cached = taskCache.getTask(id, stamp);
+        if (cached != null) {
+            return cached;
+        }
+        // details fetch plan, by primary key, so a row still in the second-level cache costs no query
+        Task task = taskRepository.findDetailById(id).orElse(null);
+        if (task != null) {
+            taskCache.putTask(id, stamp, task);
+        }
+        return task;
+    }
+
+    /**
+     * Current change version of the user's tasks; null if the user does not exist.
+     */
+    @Transactional(readOnly = true)
+    @Override
+    public Long getTasksVersionForCurrentUser() {
+        String username = SecurityContextHolder.getContext().getAuthentication().getName();
+        return userRepository.findTasksVersionByUsername(username).orElse(null);
+    }
+
+    /**
+     * Owner and version of a task; null if the task does not exist.
+     */
+    @Transactional(readOnly = true)
+    @Override
+    public VersionStamp getTaskStamp(Long id) {
+        return taskRepository.findTaskStampById(id).orElse(null);
+    }
+
+    /**
+     * Writes title, description, priority and deadline of one of the current user's
+     * tasks in a single conditional UPDATE. With {@code expectedVersion} set the write
+     * only happens if nobody changed the task since that version was read.
+     * Returns false if the task does not exist or is not the user's; throws
+     * {@link OptimisticLockingFailureException} if it is, but at another version.
+     */
+    //@ requires id != null && changes != null;
+    // a conflict leaves nothing to undo, so a caller's surrounding transaction survives it
+    @Transactional(noRollbackFor = OptimisticLockingFailureException.class)
+    @Override
+    public boolean updateTask(Long id, Long expectedVersion, Task changes) {
+        String username = SecurityContextHolder.getContext().getAuthentication().getName();
+        Long userId = currentUserReference().getId();
+        // the old priority and deadline are only worth a read if the counters are held
+        TaskFacts before = taskStatistics.isTracked(userId)
+                ? taskRepository.findFactsByIdAndUserId(id, userId).orElse(null) : null;
+        int updated = taskRepository.updateOwned(id, userId, expectedVersion, changes.getTitle(),
+                changes.getDescription(), changes.getPriority(), changes.getDeadline());
+        if (updated == 0) {
+            // only the failure path pays for telling the two cases apart
+            if (expectedVersion != null && taskRepository.existsByIdAndUserId(id, userId)) {
+                throw new OptimisticLockingFailureException(
+                        "Task " + id + " was changed after version " + expectedVersion);
+            }
+            return false;
+        }
+        userRepository.bumpTasksVersion(userId);
+        taskCache.evict(username, id);
+        changes.setId(id);
+        searchIndex.put(username, changes);
+        // a completed task keeps no reminder and counts no deadline; only an edit that
+        // sets a deadline has to ask
+        boolean completed = changes.getDeadline() != null && taskRepository.existsByIdAndCompletedAtIsNotNull(id);
+        if (completed) {
+            deadlineReminders.cancel(id);
+        } else {
+            deadlineReminders.schedule(new DeadlineReminder(id, userId, changes.getTitle(), changes.getDeadline()));
+        }
+        taskStatistics.changed(userId, before, changes.getPriority(), completed ? null : changes.getDeadline());
+        changeHub.publish(userId, TaskChange.updated(id, changes));
+        return true;
     }
 
     /**
      * JML-style spec:
      *  - requires: id is not null
-     *  - requires: a task with that id exists AND belongs to the current user
-     *  - ensures: after execution, that task is no longer present in the repository
+     *  - ensures: a task with that id owned by the current user no longer exists, and
+     *    the result says whether one existed
+     */
+    //@ requires id != null;
+    //@ ensures !taskRepository.existsByIdAndUserId(id, CurrentUser.id());
+    @Transactional
+    @Override
+    public boolean deleteTask(Long id) {
+        return deleteTask(id, null);
+    }
+
+    /**
+     * Deletes one of the current user's tasks in a single conditional DELETE. With
+     * {@code expectedVersion} set the task is only deleted at that version. Returns false
+     * if the task does not exist or is not the user's; throws
+     * {@link OptimisticLockingFailureException} if it is, but at another version.
      */
     //@ requires id != null;
-    //@ requires taskRepository.findById(id).isPresent();
-    //@ ensures !taskRepository.findById(id).isPresent();
+    @Transactional(noRollbackFor = OptimisticLockingFailureException.class)
     @Override
-    public void deleteTask(Long id) {
+    public boolean deleteTask(Long id, Long expectedVersion) {
         String username = SecurityContextHolder.getContext().getAuthentication().getName();
-        User user = userRepository.findByUsername(username).orElseThrow();
-        Task task = taskRepository.findById(id).orElseThrow();
+        Long userId = currentUserReference().getId();
+        TaskFacts before = taskStatistics.isTracked(userId)
+                ? taskRepository.findFactsByIdAndUserId(id, userId).orElse(null) : null;
+        // the owner and version checks are part of the DELETE, so nothing else is loaded first
+        if (taskRepository.deleteOwned(id, userId, expectedVersion) == 0) {
+            if (expectedVersion != null && taskRepository.existsByIdAndUserId(id, userId)) {
+                throw new OptimisticLockingFailureException(
+                        "Task " + id + " was changed after version " + expectedVersion);
+            }
+            return false;
+        }
+        userRepository.bumpTasksVersion(userId);
+        taskCache.evict(username, id);
+        searchIndex.remove(username, id);
+        deadlineReminders.cancel(id);
+        taskStatistics.deleted(userId, before);
+        changeHub.publish(userId, TaskChange.deleted(id));
+        return true;
+    }
 
-        if (task.getUser() == user) {
-            taskRepository.deleteById(id);
+    /**
+     * Marks one of the current user's tasks done, or open again, in a single conditional
+     * UPDATE. Completing a task that is already done keeps its first completion time.
+     * Returns false if the task does not exist or is not the user's.
+     */
+    //@ requires id != null;
+    @Transactional
+    @Override
+    public boolean setTaskCompleted(Long id, boolean completed) {
+        String username = SecurityContextHolder.getContext().getAuthentication().getName();
+        Long userId = currentUserReference().getId();
+        if (taskRepository.completeOwned(id, userId, completed ? LocalDateTime.now() : null) == 0) {
+            return false;
         }
+        userRepository.bumpTasksVersion(userId);
+        taskCache.evict(username, id);
+        if (completed) {
+            deadlineReminders.cancel(id);
+        } else {
+            // the reminder needs the title and deadline, which only a reopen has to read
+            taskRepository.findById(id).ifPresent(deadlineReminders::schedule);
+        }
+        // the task's deadline enters or leaves the overdue and due counts
+        taskStatistics.invalidate(userId);
+        changeHub.publish(userId, TaskChange.completed(id, completed));
+        return true;
+    }
+
+    /**
+     * One page of the current user's archived tasks, most recently completed first,
+     * optionally only those whose title or description contains {@code query}.
+     */
+    //@ requires page >= 0 && size > 0;
+    //@ ensures \result != null;
+    //@ ensures \result.tasks().size() <= MAX_PAGE_SIZE;
+    @Transactional(readOnly = true)
+    @Override
+    public ArchivedTaskPage getArchivedTasksForCurrentUser(String query, int page, int size) {
+        Long userId = currentUserReference().getId();
+        PageRequest pageable = PageRequest.of(Math.max(0, page), Math.max(1, Math.min(size, MAX_PAGE_SIZE)));
+        Slice<ArchivedTask> slice = query == null || query.isBlank()
+                ? archivedTaskRepository.findByOwner(userId, pageable)
+                : archivedTaskRepository.searchByOwner(userId, containsPattern(query), pageable);
+        return new ArchivedTaskPage(slice.map(ArchivedTaskDto::of).getContent(), pageable.getPageNumber(),
+                pageable.getPageSize(), slice.hasNext());
+    }
+
+    /** A LIKE pattern matching {@code query} anywhere, with '!' escaping its wildcards. */
+    static String containsPattern(String query) {
+        String escaped = query.trim().toLowerCase(Locale.ROOT)
+                .replace("!", "!!").replace("%", "!%").replace("_", "!_");
+        return "%" + escaped + "%";
     }
 
     /**
-     * JML-style spec for filtering by priority.
+     * JML-style spec for filtering by priority: only the current user's tasks, soonest
+     * deadline first, at most {@code limit} (capped at MAX_PAGE_SIZE).
      */
     //@ requires priority != null;
     //@ ensures \result != null;
-    //@ ensures (\forall Task t; \result.contains(t); t.getPriority() == priority);
+    //@ ensures (\forall TaskSummary t; \result.contains(t); t.priority() == priority);
+    @Transactional(readOnly = true)
+    @Override
+    public List<TaskSummary> getTasksByPriorityForCurrentUser(Priority priority, int limit) {
+        return taskRepository.findByOwnerAndPriority(currentUserReference().getId(), priority, filterLimit(limit));
+    }
+
+    /**
+     * The current user's tasks whose deadline is before {@code today}, oldest deadline first.
+     */
+    //@ requires today != null;
+    //@ ensures \result != null;
+    //@ ensures (\forall TaskSummary t; \result.contains(t); t.deadline().isBefore(today));
+    @Transactional(readOnly = true)
+    @Override
+    public List<TaskSummary> getOverdueTasksForCurrentUser(LocalDate today, int limit) {
+        return taskRepository.findOverdueByOwner(currentUserReference().getId(), today, filterLimit(limit));
+    }
+
+    /**
+     * The current user's tasks due between {@code from} and {@code to}, both inclusive.
+     */
+    //@ requires from != null && to != null;
+    //@ ensures \result != null;
+    @Transactional(readOnly = true)
     @Override
-    public List<Task> getTasksByPriority(Priority priority) {
-        return taskRepository.findByPriority(priority);
+    public List<TaskSummary> getTasksDueBetweenForCurrentUser(LocalDate from, LocalDate to, int limit) {
+        return taskRepository.findDueBetweenByOwner(currentUserReference().getId(), from, to, filterLimit(limit));
+    }
+
+    /**
+     * Dashboard figures of the current user, served from in-memory counters.
+     */
+    //@ ensures \result != null;
+    @Transactional(readOnly = true)
+    @Override
+    public TaskStats getStatsForCurrentUser() {
+        return taskStatistics.get(currentUserReference().getId());
+    }
+
+    private static Limit filterLimit(int limit) {
+        return Limit.of(Math.max(1, Math.min(limit, MAX_PAGE_SIZE)));
     }
 
     // Other service methods for task operations
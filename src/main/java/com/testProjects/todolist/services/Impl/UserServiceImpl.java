@@ -2,8 +2,10 @@ package com.testProjects.todolist.services.Impl;
 
 import com.testProjects.todolist.models.User;
 import com.testProjects.todolist.repositories.UserRepository;
+import com.testProjects.todolist.security.CurrentUser;
 import com.testProjects.todolist.services.UserService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
@@ -47,4 +49,17 @@ public class UserServiceImpl implements UserService {
     public boolean isUsernameTaken(String username) {
         return userRepository.existsByUsername(username);
     }
+
+    /**
+     * Id of the authenticated user, taken from the principal when it carries one.
+     */
+    public Long getCurrentUserId() {
+        Long id = CurrentUser.id();
+        if (id != null) {
+            return id;
+        }
+        String username = SecurityContextHolder.getContext().getAuthentication().getName();
+        return userRepository.findByUsername(username).map(User::getId)
+                .orElseThrow(() -> new IllegalArgumentException("User not found"));
+    }
 }
\ No newline at end of file
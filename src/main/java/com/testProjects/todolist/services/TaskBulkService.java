@@ -0,0 +1,12 @@
+package com.testProjects.todolist.services;
+
+import com.testProjects.todolist.dto.BulkResult;
+import com.testProjects.todolist.dto.TaskSelection;
+import com.testProjects.todolist.models.Priority;
+
+public interface TaskBulkService {
+    BulkResult setCompleted(TaskSelection selection, boolean completed);
+    BulkResult setPriority(TaskSelection selection, Priority priority);
+    BulkResult shiftDeadlines(TaskSelection selection, int days);
+    BulkResult delete(TaskSelection selection);
+}
@@ -0,0 +1,10 @@
+package com.testProjects.todolist.services;
+
+import com.testProjects.todolist.exporter.ExportFormat;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+public interface TaskExportService {
+    long exportTasks(Long userId, ExportFormat format, OutputStream out) throws IOException;
+}
@@ -0,0 +1,8 @@
+package com.testProjects.todolist.services;
+
+import com.testProjects.todolist.dto.ImportResult;
+import com.testProjects.todolist.importer.TaskRowReader;
+
+public interface TaskImportService {
+    ImportResult importTasks(TaskRowReader reader);
+}
@@ -1,15 +1,32 @@
 package com.testProjects.todolist.services;
 
+import com.testProjects.todolist.dto.ArchivedTaskPage;
+import com.testProjects.todolist.dto.TaskPage;
+import com.testProjects.todolist.dto.TaskStats;
+import com.testProjects.todolist.dto.TaskSummary;
+import com.testProjects.todolist.dto.VersionStamp;
 import com.testProjects.todolist.models.Priority;
 import com.testProjects.todolist.models.Task;
 
+import java.time.LocalDate;
 import java.util.List;
 
 public interface TaskService {
     List<Task> findAllTasks();
     Task saveTask(Task task);
     List<Task> getTasksForCurrentUser();
+    TaskPage getTaskPageForCurrentUser(String after, String before, int size);
+    List<TaskSummary> searchTasksForCurrentUser(String query, int limit);
     Task findTaskById(Long id);
-    void deleteTask(Long id);
-    List<Task> getTasksByPriority(Priority priority);
+    Long getTasksVersionForCurrentUser();
+    VersionStamp getTaskStamp(Long id);
+    boolean updateTask(Long id, Long expectedVersion, Task changes);
+    boolean deleteTask(Long id);
+    boolean deleteTask(Long id, Long expectedVersion);
+    boolean setTaskCompleted(Long id, boolean completed);
+    ArchivedTaskPage getArchivedTasksForCurrentUser(String query, int page, int size);
+    List<TaskSummary> getTasksByPriorityForCurrentUser(Priority priority, int limit);
+    List<TaskSummary> getOverdueTasksForCurrentUser(LocalDate today, int limit);
+    List<TaskSummary> getTasksDueBetweenForCurrentUser(LocalDate from, LocalDate to, int limit);
+    TaskStats getStatsForCurrentUser();
 }
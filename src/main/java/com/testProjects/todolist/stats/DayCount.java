@@ -0,0 +1,7 @@
+package com.testProjects.todolist.stats;
+
+import java.time.LocalDate;
+
+/** One group of a per-day task count, by deadline or by creation day. */
+public record DayCount(LocalDate day, long count) {
+}
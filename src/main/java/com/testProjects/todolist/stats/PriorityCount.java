@@ -0,0 +1,7 @@
+package com.testProjects.todolist.stats;
+
+import com.testProjects.todolist.models.Priority;
+
+/** One group of a per-priority task count. */
+public record PriorityCount(Priority priority, long count) {
+}
@@ -0,0 +1,13 @@
+package com.testProjects.todolist.stats;
+
+import com.testProjects.todolist.models.Priority;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * The fields of a task the statistics count by, read before an update or delete so
+ * the counters can be moved by the difference.
+ */
+public record TaskFacts(Priority priority, LocalDate deadline, LocalDateTime createdAt) {
+}
@@ -0,0 +1,175 @@
+package com.testProjects.todolist.stats;
+
+import com.testProjects.todolist.dto.TaskStats;
+import com.testProjects.todolist.models.Priority;
+import com.testProjects.todolist.repositories.TaskRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Per-user dashboard statistics, kept in memory and moved by deltas.
+ *
+ * A user's counters are loaded with three grouped queries over the user's indexes the
+ * first time the dashboard is read; from then on task writes on this node adjust them
+ * and reads never touch the database. Writes on other nodes, and deltas that raced
+ * with a load, are caught by {@link #reconcile()}, which recounts the users that were
+ * verified longest ago and replaces counters that drifted.
+ *
+ * Counters of the least recently read users are dropped once more than
+ * {@code maxUsers} are held.
+ */
+@Component
+public class TaskStatistics {
+
+    private static final Logger log = LoggerFactory.getLogger(TaskStatistics.class);
+
+    private final TaskRepository taskRepository;
+    private final int createdDays;
+    private final int maxUsers;
+    private final int reconcileBatch;
+    private final Clock clock;
+    private final Counter corrections;
+
+    private final Map<Long, UserTaskCounters> users = new ConcurrentHashMap<>();
+
+    @Autowired
+    public TaskStatistics(TaskRepository taskRepository,
+                          MeterRegistry meterRegistry,
+                          @Value("${todolist.stats.created-days:30}") int createdDays,
+                          @Value("${todolist.stats.max-users:10000}") int maxUsers,
+                          @Value("${todolist.stats.reconcile-batch:200}") int reconcileBatch) {
+        this(taskRepository, meterRegistry, createdDays, maxUsers, reconcileBatch, Clock.systemDefaultZone());
+    }
+
+    TaskStatistics(TaskRepository taskRepository, MeterRegistry meterRegistry,
+                   int createdDays, int maxUsers, int reconcileBatch, Clock clock) {
+        this.taskRepository = taskRepository;
+        this.createdDays = createdDays;
+        this.maxUsers = maxUsers;
+        this.reconcileBatch = reconcileBatch;
+        this.clock = clock;
+        this.corrections = Counter.builder("todolist.stats.corrections")
+                .description("Users whose dashboard counters differed from the database")
+                .register(meterRegistry);
+    }
+
+    public TaskStats get(Long userId) {
+        LocalDate today = LocalDate.now(clock);
+        UserTaskCounters counters = users.get(userId);
+        if (counters == null) {
+            UserTaskCounters loaded = load(userId, today);
+            counters = users.putIfAbsent(userId, loaded);
+            if (counters == null) {
+                counters = loaded;
+                trim();
+            }
+        }
+        counters.lastReadNanos = System.nanoTime();
+        return counters.snapshot(today);
+    }
+
+    /** Whether writes for this user have counters to update; if not, deltas are skipped. */
+    public boolean isTracked(Long userId) {
+        return users.containsKey(userId);
+    }
+
+    public void created(Long userId, Priority priority, LocalDate deadline, LocalDateTime createdAt) {
+        UserTaskCounters counters = users.get(userId);
+        if (counters != null) {
+            counters.add(priority, deadline, day(createdAt), 1);
+        }
+    }
+
+    /** Moves one task from the counts of {@code before} to those of its new priority and deadline. */
+    public void changed(Long userId, TaskFacts before, Priority priority, LocalDate deadline) {
+        UserTaskCounters counters = users.get(userId);
+        if (counters != null && before != null) {
+            counters.add(before.priority(), before.deadline(), null, -1);
+            counters.add(priority, deadline, null, 1);
+        }
+    }
+
+    public void deleted(Long userId, TaskFacts before) {
+        UserTaskCounters counters = users.get(userId);
+        if (counters != null && before != null) {
+            counters.add(before.priority(), before.deadline(), day(before.createdAt()), -1);
+        }
+    }
+
+    /** Drops a user's counters after a write whose delta is unknown; the next read reloads them. */
+    public void invalidate(Long userId) {
+        users.remove(userId);
+    }
+
+    /**
+     * Recounts up to {@code reconcileBatch} users, those verified longest ago first,
+     * and swaps in the recount wherever the held counters differ.
+     */
+    @Scheduled(fixedDelayString = "${todolist.stats.reconcile-interval:PT5M}")
+    public void reconcile() {
+        LocalDate today = LocalDate.now(clock);
+        List<Map.Entry<Long, UserTaskCounters>> oldest = users.entrySet().stream()
+                .sorted(Comparator.comparingLong(e -> e.getValue().verifiedNanos))
+                .limit(reconcileBatch)
+                .toList();
+        int corrected = 0;
+        for (Map.Entry<Long, UserTaskCounters> entry : oldest) {
+            UserTaskCounters held = entry.getValue();
+            UserTaskCounters fresh = load(entry.getKey(), today);
+            held.rollTo(today);
+            if (held.state().equals(fresh.state())) {
+                held.verifiedNanos = System.nanoTime();
+            } else {
+                fresh.lastReadNanos = held.lastReadNanos;
+                if (users.replace(entry.getKey(), held, fresh)) {
+                    corrected++;
+                }
+            }
+        }
+        if (corrected > 0) {
+            corrections.increment(corrected);
+            log.info("Corrected task statistics of {} of {} users checked", corrected, oldest.size());
+        }
+    }
+
+    private UserTaskCounters load(Long userId, LocalDate today) {
+        UserTaskCounters counters = new UserTaskCounters(today, createdDays);
+        for (PriorityCount group : taskRepository.countByOwnerGroupByPriority(userId)) {
+            counters.countPriority(group.priority(), group.count());
+        }
+        for (DayCount group : taskRepository.countByOwnerGroupByDeadline(userId)) {
+            counters.countDeadline(group.day(), group.count());
+        }
+        LocalDateTime since = today.minusDays(createdDays - 1).atStartOfDay();
+        for (DayCount group : taskRepository.countByOwnerCreatedSinceGroupByDay(userId, since)) {
+            counters.countCreated(group.day(), group.count());
+        }
+        return counters;
+    }
+
+    private void trim() {
+        while (users.size() > maxUsers) {
+            users.entrySet().stream()
+                    .min(Comparator.comparingLong(e -> e.getValue().lastReadNanos))
+                    .ifPresent(e -> users.remove(e.getKey(), e.getValue()));
+        }
+    }
+
+    private static LocalDate day(LocalDateTime time) {
+        return time == null ? null : time.toLocalDate();
+    }
+}
@@ -0,0 +1,166 @@
+package com.testProjects.todolist.stats;
+
+import com.testProjects.todolist.dto.TaskStats;
+import com.testProjects.todolist.models.Priority;
+
+import java.time.LocalDate;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Counters behind one user's {@link TaskStats}.
+ *
+ * Every count is a {@link LongAdder}, so concurrent writes of the same user do not
+ * contend. Deadlines before {@code asOf} are folded into a single overdue counter,
+ * later ones are counted per day; when a read finds that the date has moved on, the
+ * days that passed are folded in once. Creation days older than the window are
+ * dropped the same way. A snapshot therefore costs a handful of adder reads and never
+ * depends on how many tasks the user has.
+ *
+ * Deltas hold the read side of {@code rollLock} and only the day roll takes the write
+ * side, so deltas never block each other.
+ */
+final class UserTaskCounters {
+
+    /** Days counted towards {@link TaskStats#dueThisWeek()}, starting with today. */
+    static final int WEEK = 7;
+
+    private final int createdDays;
+    private final LongAdder total = new LongAdder();
+    private final LongAdder[] byPriority = new LongAdder[Priority.values().length];
+    private final LongAdder overdue = new LongAdder();
+    private final ConcurrentSkipListMap<LocalDate, LongAdder> upcoming = new ConcurrentSkipListMap<>();
+    private final ConcurrentSkipListMap<LocalDate, LongAdder> created = new ConcurrentSkipListMap<>();
+    private final ReadWriteLock rollLock = new ReentrantReadWriteLock();
+    private volatile LocalDate asOf;
+
+    volatile long lastReadNanos;
+    volatile long verifiedNanos;
+
+    UserTaskCounters(LocalDate asOf, int createdDays) {
+        this.asOf = asOf;
+        this.createdDays = createdDays;
+        for (int i = 0; i < byPriority.length; i++) {
+            byPriority[i] = new LongAdder();
+        }
+        this.lastReadNanos = this.verifiedNanos = System.nanoTime();
+    }
+
+    /** Counts {@code delta} tasks (negative to uncount) with the given fields. */
+    void add(Priority priority, LocalDate deadline, LocalDate createdOn, long delta) {
+        rollLock.readLock().lock();
+        try {
+            countPriority(priority, delta);
+            countDeadline(deadline, delta);
+            countCreated(createdOn, delta);
+        } finally {
+            rollLock.readLock().unlock();
+        }
+    }
+
+    // The three parts of add, used on their own while loading grouped counts into
+    // counters that are not yet shared. The priority part carries the total.
+
+    void countPriority(Priority priority, long delta) {
+        total.add(delta);
+        if (priority != null) {
+            byPriority[priority.ordinal()].add(delta);
+        }
+    }
+
+    void countDeadline(LocalDate deadline, long delta) {
+        if (deadline == null) {
+            return;
+        }
+        if (deadline.isBefore(asOf)) {
+            overdue.add(delta);
+        } else {
+            upcoming.computeIfAbsent(deadline, d -> new LongAdder()).add(delta);
+        }
+    }
+
+    void countCreated(LocalDate createdOn, long delta) {
+        if (createdOn != null && !createdOn.isBefore(firstCreatedDay())) {
+            created.computeIfAbsent(createdOn, d -> new LongAdder()).add(delta);
+        }
+    }
+
+    /** Folds the days before {@code today} into the overdue count and drops old creation days. */
+    void rollTo(LocalDate today) {
+        if (!today.isAfter(asOf)) {
+            return;
+        }
+        rollLock.writeLock().lock();
+        try {
+            if (!today.isAfter(asOf)) {
+                return;
+            }
+            NavigableMap<LocalDate, LongAdder> passed = upcoming.headMap(today, false);
+            for (LongAdder count : passed.values()) {
+                overdue.add(count.sum());
+            }
+            passed.clear();
+            asOf = today;
+            created.headMap(firstCreatedDay(), false).clear();
+        } finally {
+            rollLock.writeLock().unlock();
+        }
+    }
+
+    TaskStats snapshot(LocalDate today) {
+        rollTo(today);
+        LocalDate day = asOf;
+        Map<Priority, Long> priorities = new EnumMap<>(Priority.class);
+        for (Priority priority : Priority.values()) {
+            priorities.put(priority, byPriority[priority.ordinal()].sum());
+        }
+        long dueThisWeek = 0;
+        for (LongAdder count : upcoming.subMap(day, day.plusDays(WEEK)).values()) {
+            dueThisWeek += count.sum();
+        }
+        SortedMap<LocalDate, Long> perDay = new TreeMap<>();
+        for (LocalDate d = day.minusDays(createdDays - 1); !d.isAfter(day); d = d.plusDays(1)) {
+            LongAdder count = created.get(d);
+            perDay.put(d, count == null ? 0 : count.sum());
+        }
+        return new TaskStats(day, total.sum(), priorities, overdue.sum(), dueThisWeek, perDay);
+    }
+
+    /**
+     * Everything the counters hold, for comparing two instances as of the same day.
+     * Unlike a snapshot it includes every upcoming deadline day, not just this week.
+     */
+    State state() {
+        Map<Priority, Long> priorities = new EnumMap<>(Priority.class);
+        for (Priority priority : Priority.values()) {
+            priorities.put(priority, byPriority[priority.ordinal()].sum());
+        }
+        return new State(asOf, total.sum(), priorities, overdue.sum(), nonZero(upcoming), nonZero(created));
+    }
+
+    record State(LocalDate asOf, long total, Map<Priority, Long> byPriority, long overdue,
+                 Map<LocalDate, Long> upcoming, Map<LocalDate, Long> created) {
+    }
+
+    private LocalDate firstCreatedDay() {
+        return asOf.minusDays(createdDays - 1);
+    }
+
+    private static Map<LocalDate, Long> nonZero(Map<LocalDate, LongAdder> counts) {
+        Map<LocalDate, Long> result = new TreeMap<>();
+        counts.forEach((day, count) -> {
+            long sum = count.sum();
+            if (sum != 0) {
+                result.put(day, sum);
+            }
+        });
+        return result;
+    }
+}
@@ -0,0 +1,40 @@
+package com.testProjects.todolist.writebehind;
+
+import com.testProjects.todolist.security.CurrentUser;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import java.time.Duration;
+
+/**
+ * Holds a page read back until the writes its user queued before it are committed,
+ * so a redirect after a create shows the new task.
+ */
+class ReadYourWritesInterceptor implements HandlerInterceptor {
+
+    private static final Logger log = LoggerFactory.getLogger(ReadYourWritesInterceptor.class);
+
+    private final TaskWriteBehind writeBehind;
+    private final Duration timeout;
+
+    ReadYourWritesInterceptor(TaskWriteBehind writeBehind, Duration timeout) {
+        this.writeBehind = writeBehind;
+        this.timeout = timeout;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        String method = request.getMethod();
+        if ("GET".equals(method) || "HEAD".equals(method)) {
+            Long userId = CurrentUser.id();
+            if (!writeBehind.awaitPending(userId, timeout)) {
+                // serve what is committed rather than fail the page
+                log.warn("Queued task writes of user {} not committed within {}", userId, timeout);
+            }
+        }
+        return true;
+    }
+}
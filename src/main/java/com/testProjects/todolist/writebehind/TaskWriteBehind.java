@@ -0,0 +1,405 @@
+package com.testProjects.todolist.writebehind;
+
+import com.testProjects.todolist.datasource.RecentWriters;
+import com.testProjects.todolist.models.Task;
+import com.testProjects.todolist.reminder.DeadlineReminders;
+import com.testProjects.todolist.search.TaskSearchIndex;
+import com.testProjects.todolist.security.CurrentUser;
+import com.testProjects.todolist.services.TaskService;
+import com.testProjects.todolist.stats.TaskStatistics;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.context.SecurityContextImpl;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Write-behind pipeline for the task creates and updates of the HTML forms.
+ *
+ * Submissions go into a bounded ring buffer; one flusher thread takes up to
+ * {@code batchSize} of them, or what arrived within {@code maxDelay} of the first,
+ * and applies them through {@link TaskService} in a single transaction, so a burst
+ * of writes costs one commit instead of one each. Creates return as soon as they are
+ * queued. Updates wait for their batch to commit, so not-found and version conflicts
+ * are still reported to the caller. Consecutive updates of one task by the same user
+ * within a batch are merged and only the last one's fields are written: blind updates
+ * (no expected version) outright, and versioned ones, such as the edit form's, when each
+ * names the version the previous one leaves behind; the merged write then checks the
+ * first one's version. A versioned update based on an older version runs on its own,
+ * since merging it would hide its conflict.
+ *
+ * A full buffer blocks the submitter for up to {@code offerTimeout} and then rejects
+ * the write, as does a pipeline that is shutting down. Reads of a user with queued writes wait for them through
+ * {@link #awaitPending}. If a batch fails it is rolled back and its writes are
+ * retried one by one, each in its own transaction. With a read replica, every user
+ * written for starts a read-your-writes window when the batch commits, not just the
+ * one whose request happened to open the connection. When disabled, every call is a
+ * plain synchronous service call.
+ */
+@Component
+public class TaskWriteBehind {
+
+    private static final Logger log = LoggerFactory.getLogger(TaskWriteBehind.class);
+    private static final Duration RESULT_TIMEOUT = Duration.ofSeconds(30);
+
+    /** One queued create (taskId null) or update. */
+    static final class Mutation {
+        final Authentication authentication;
+        final Long userId;
+        final Long taskId;
+        final Long version;
+        final Task task;
+        final CompletableFuture<Boolean> result = new CompletableFuture<>();
+        // what the write checks and how many submitted updates it stands for, once merged
+        Long expectedVersion;
+        int updates = 1;
+        Boolean outcome;
+        RuntimeException conflict;
+
+        Mutation(Authentication authentication, Long userId, Long taskId, Long version, Task task) {
+            this.authentication = authentication;
+            this.userId = userId;
+            this.taskId = taskId;
+            this.version = version;
+            this.task = task;
+            this.expectedVersion = version;
+        }
+
+        /**
+         * Whether this update can take the place of {@code previous}, the update of the same
+         * task before it: both blind, or this one based on the version previous leaves behind.
+         */
+        boolean follows(Mutation previous) {
+            if (taskId == null || !previous.userId.equals(userId)) {
+                return false;
+            }
+            if (previous.expectedVersion == null) {
+                return version == null;
+            }
+            return version != null && version == previous.expectedVersion + previous.updates;
+        }
+    }
+
+    private final TaskService taskService;
+    private final TransactionTemplate transactionTemplate;
+    private final DeadlineReminders deadlineReminders;
+    private final TaskStatistics taskStatistics;
+    private final TaskSearchIndex searchIndex;
+    private final boolean enabled;
+    private final int batchSize;
+    private final long maxDelayNanos;
+    private final long offerTimeoutNanos;
+    private final BlockingQueue<Mutation> queue;
+    // per user, the result of the last write queued; it completes after all earlier ones
+    private final Map<Long, CompletableFuture<Boolean>> pending = new ConcurrentHashMap<>();
+    private final DistributionSummary batchSizes;
+    private final Counter merged;
+    private final Counter rejected;
+    private final Counter failed;
+    // present only with a read replica
+    @Autowired(required = false)
+    private RecentWriters recentWriters;
+    private volatile boolean running;
+    private volatile boolean stopped;
+    private Thread flusher;
+
+    @Autowired
+    public TaskWriteBehind(TaskService taskService,
+                           PlatformTransactionManager transactionManager,
+                           DeadlineReminders deadlineReminders,
+                           TaskStatistics taskStatistics,
+                           TaskSearchIndex searchIndex,
+                           MeterRegistry meterRegistry,
+                           @Value("${todolist.write-behind.enabled:false}") boolean enabled,
+                           @Value("${todolist.write-behind.capacity:1024}") int capacity,
+                           @Value("${todolist.write-behind.batch-size:100}") int batchSize,
+                           @Value("${todolist.write-behind.max-delay:5ms}") Duration maxDelay,
+                           @Value("${todolist.write-behind.offer-timeout:100ms}") Duration offerTimeout) {
+        this.taskService = taskService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.deadlineReminders = deadlineReminders;
+        this.taskStatistics = taskStatistics;
+        this.searchIndex = searchIndex;
+        this.enabled = enabled;
+        this.batchSize = batchSize;
+        this.maxDelayNanos = maxDelay.toNanos();
+        this.offerTimeoutNanos = offerTimeout.toNanos();
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.batchSizes = DistributionSummary.builder("todolist.writebehind.batch.size")
+                .description("Task writes applied per write-behind transaction")
+                .register(meterRegistry);
+        this.merged = meterRegistry.counter("todolist.writebehind.merged");
+        this.rejected = meterRegistry.counter("todolist.writebehind.rejected");
+        this.failed = meterRegistry.counter("todolist.writebehind.failed");
+        Gauge.builder("todolist.writebehind.queued", queue, BlockingQueue::size)
+                .description("Task writes waiting in the write-behind buffer")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        if (enabled) {
+            running = true;
+            flusher = Thread.ofPlatform().name("task-write-behind").daemon(true).start(this::run);
+        }
+    }
+
+    /** Stops taking batches once the buffer is empty; nothing queued is dropped. */
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        stopped = true;
+        running = false;
+        if (flusher != null) {
+            flusher.join(RESULT_TIMEOUT.toMillis());
+        }
+    }
+
+    /** Queues a new task of the current user; returns once it is queued, not written. */
+    public void create(Task task) {
+        Long userId = CurrentUser.id();
+        if (!enabled || userId == null) {
+            taskService.saveTask(task);
+            return;
+        }
+        submit(new Mutation(SecurityContextHolder.getContext().getAuthentication(), userId, null, null, task));
+    }
+
+    /**
+     * Queues an update and waits for its batch to commit. Same contract as
+     * {@link TaskService#updateTask}.
+     */
+    public boolean update(Long id, Long expectedVersion, Task changes) {
+        Long userId = CurrentUser.id();
+        if (!enabled || userId == null) {
+            return taskService.updateTask(id, expectedVersion, changes);
+        }
+        Mutation mutation = submit(new Mutation(SecurityContextHolder.getContext().getAuthentication(),
+                userId, id, expectedVersion, changes));
+        try {
+            return mutation.result.get(RESULT_TIMEOUT.toNanos(), TimeUnit.NANOSECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for task " + id + " to be written", e);
+        } catch (TimeoutException e) {
+            throw new IllegalStateException("Task " + id + " was not written within " + RESULT_TIMEOUT, e);
+        }
+    }
+
+    /**
+     * Blocks until the user's queued writes are committed, for at most {@code timeout};
+     * returns whether they were.
+     */
+    public boolean awaitPending(Long userId, Duration timeout) {
+        CompletableFuture<Boolean> last = userId == null ? null : pending.get(userId);
+        if (last == null) {
+            return true;
+        }
+        try {
+            last.get(timeout.toNanos(), TimeUnit.NANOSECONDS);
+            return true;
+        } catch (ExecutionException e) {
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } catch (TimeoutException e) {
+            return false;
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    private Mutation submit(Mutation mutation) {
+        if (stopped) {
+            rejected.increment();
+            throw new RejectedExecutionException("Task write buffer is shut down");
+        }
+        try {
+            if (!queue.offer(mutation, offerTimeoutNanos, TimeUnit.NANOSECONDS)) {
+                rejected.increment();
+                throw new RejectedExecutionException("Task write buffer is full");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RejectedExecutionException("Interrupted while queueing a task write", e);
+        }
+        // raced with stop(): still queued means the flusher may be gone, so take it back
+        if (stopped && queue.remove(mutation)) {
+            rejected.increment();
+            throw new RejectedExecutionException("Task write buffer is shut down");
+        }
+        pending.put(mutation.userId, mutation.result);
+        mutation.result.whenComplete((r, e) -> pending.remove(mutation.userId, mutation.result));
+        return mutation;
+    }
+
+    private void run() {
+        while (running || !queue.isEmpty()) {
+            try {
+                List<Mutation> batch = nextBatch(100_000_000L);
+                if (!batch.isEmpty()) {
+                    apply(batch);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                log.error("Write-behind batch failed", e);
+            }
+        }
+    }
+
+    /**
+     * Waits up to {@code idleNanos} for a first write, then collects more until the
+     * batch is full or {@code maxDelay} has passed since the first arrived.
+     */
+    List<Mutation> nextBatch(long idleNanos) throws InterruptedException {
+        List<Mutation> batch = new ArrayList<>();
+        Mutation first = queue.poll(idleNanos, TimeUnit.NANOSECONDS);
+        if (first == null) {
+            return batch;
+        }
+        batch.add(first);
+        long deadline = System.nanoTime() + maxDelayNanos;
+        while (batch.size() < batchSize) {
+            long wait = deadline - System.nanoTime();
+            Mutation next = wait > 0 ? queue.poll(wait, TimeUnit.NANOSECONDS) : queue.poll();
+            if (next == null) {
+                break;
+            }
+            batch.add(next);
+        }
+        return batch;
+    }
+
+    void apply(List<Mutation> batch) {
+        List<Mutation> writes = merge(batch);
+        batchSizes.record(writes.size());
+        try {
+            transactionTemplate.executeWithoutResult(status -> writes.forEach(this::write));
+        } catch (RuntimeException batchFailure) {
+            log.warn("Write-behind batch of {} rolled back, retrying its writes one by one: {}",
+                    writes.size(), batchFailure.getMessage());
+            retryOneByOne(writes);
+            return;
+        }
+        writes.forEach(TaskWriteBehind::complete);
+    }
+
+    /**
+     * Drops an update that the next write of the same task {@linkplain Mutation#follows
+     * follows}; that write takes over its expected version and reports its result.
+     */
+    private List<Mutation> merge(List<Mutation> batch) {
+        List<Mutation> writes = new ArrayList<>(batch.size());
+        Map<Long, Mutation> lastByTask = new HashMap<>();
+        for (Mutation mutation : batch) {
+            if (mutation.taskId != null) {
+                Mutation previous = lastByTask.put(mutation.taskId, mutation);
+                if (previous != null && mutation.follows(previous)) {
+                    writes.remove(previous);
+                    mutation.expectedVersion = previous.expectedVersion;
+                    mutation.updates += previous.updates;
+                    mutation.result.whenComplete((r, e) -> {
+                        if (e == null) {
+                            previous.result.complete(r);
+                        } else {
+                            previous.result.completeExceptionally(e);
+                        }
+                    });
+                    merged.increment();
+                }
+            }
+            writes.add(mutation);
+        }
+        return writes;
+    }
+
+    /** Runs one write as its submitter; a version conflict is recorded, not thrown. */
+    private void write(Mutation mutation) {
+        SecurityContextHolder.setContext(new SecurityContextImpl(mutation.authentication));
+        try {
+            if (mutation.taskId == null) {
+                taskService.saveTask(mutation.task);
+                mutation.outcome = true;
+            } else {
+                mutation.outcome = taskService.updateTask(mutation.taskId, mutation.expectedVersion, mutation.task);
+            }
+            if (recentWriters != null && Boolean.TRUE.equals(mutation.outcome)) {
+                recentWriters.wroteOnCommit(mutation.userId);
+            }
+        } catch (OptimisticLockingFailureException e) {
+            mutation.conflict = e;
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+    }
+
+    private void retryOneByOne(List<Mutation> writes) {
+        for (Mutation mutation : writes) {
+            mutation.outcome = null;
+            mutation.conflict = null;
+            // in-memory effects of the rolled back batch are undone before writing again
+            taskStatistics.invalidate(mutation.userId);
+            searchIndex.invalidate(mutation.authentication.getName());
+            if (mutation.taskId == null && mutation.task.getId() != null) {
+                deadlineReminders.cancel(mutation.task.getId());
+                mutation.task.setId(null);
+                mutation.task.setVersion(0);
+            }
+            try {
+                write(mutation);
+                complete(mutation);
+            } catch (RuntimeException e) {
+                failed.increment();
+                log.warn("Write-behind task write for user {} failed: {}", mutation.userId, e.getMessage());
+                mutation.result.completeExceptionally(e);
+            }
+        }
+    }
+
+    private static void complete(Mutation mutation) {
+        if (mutation.conflict != null) {
+            mutation.result.completeExceptionally(mutation.conflict);
+        } else {
+            mutation.result.complete(mutation.outcome);
+        }
+    }
+
+    int queued() {
+        return queue.size();
+    }
+}
@@ -0,0 +1,31 @@
+package com.testProjects.todolist.writebehind;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.time.Duration;
+
+/**
+ * Registers the read-your-writes wait when task writes are batched.
+ */
+@Configuration
+@ConditionalOnProperty(name = "todolist.write-behind.enabled", havingValue = "true")
+public class WriteBehindConfig implements WebMvcConfigurer {
+
+    private final TaskWriteBehind writeBehind;
+    private final Duration readTimeout;
+
+    public WriteBehindConfig(TaskWriteBehind writeBehind,
+                             @Value("${todolist.write-behind.read-timeout:5s}") Duration readTimeout) {
+        this.writeBehind = writeBehind;
+        this.readTimeout = readTimeout;
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new ReadYourWritesInterceptor(writeBehind, readTimeout));
+    }
+}
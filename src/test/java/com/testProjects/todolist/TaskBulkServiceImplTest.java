@@ -0,0 +1,138 @@
+package com.testProjects.todolist;
+
+import com.testProjects.todolist.cache.TaskCache;
+import com.testProjects.todolist.dto.BulkResult;
+import com.testProjects.todolist.dto.TaskCursor;
+import com.testProjects.todolist.dto.TaskSelection;
+import com.testProjects.todolist.feed.TaskChange;
+import com.testProjects.todolist.feed.TaskChangeHub;
+import com.testProjects.todolist.models.Priority;
+import com.testProjects.todolist.reminder.DeadlineReminder;
+import com.testProjects.todolist.reminder.DeadlineReminders;
+import com.testProjects.todolist.repositories.TaskRepository;
+import com.testProjects.todolist.repositories.UserRepository;
+import com.testProjects.todolist.search.TaskSearchIndex;
+import com.testProjects.todolist.services.Impl.TaskBulkServiceImpl;
+import com.testProjects.todolist.services.Impl.UserServiceImpl;
+import com.testProjects.todolist.stats.TaskStatistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.*;
+
+class TaskBulkServiceImplTest {
+
+    static final LocalDateTime CREATED = LocalDateTime.of(2024, 1, 1, 9, 0);
+
+    TaskRepository taskRepository;
+    UserRepository userRepository;
+    TaskSearchIndex searchIndex;
+    TaskCache taskCache;
+    DeadlineReminders deadlineReminders;
+    TaskStatistics taskStatistics;
+    TaskChangeHub changeHub;
+
+    @BeforeEach
+    void setUp() {
+        taskRepository = mock(TaskRepository.class);
+        userRepository = mock(UserRepository.class);
+        searchIndex = mock(TaskSearchIndex.class);
+        taskCache = mock(TaskCache.class);
+        deadlineReminders = mock(DeadlineReminders.class);
+        taskStatistics = mock(TaskStatistics.class);
+        changeHub = mock(TaskChangeHub.class);
+        SecurityContextHolder.getContext().setAuthentication(
+                UsernamePasswordAuthenticationToken.authenticated("ana", null, List.of()));
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    private TaskBulkServiceImpl service(int chunkSize) {
+        UserServiceImpl userService = mock(UserServiceImpl.class);
+        when(userService.getCurrentUserId()).thenReturn(7L);
+        return new TaskBulkServiceImpl(mock(PlatformTransactionManager.class), taskRepository, userRepository,
+                userService, searchIndex, taskCache, deadlineReminders, taskStatistics, changeHub, chunkSize);
+    }
+
+    private static List<TaskCursor> cursors(long... ids) {
+        return LongStream.of(ids).mapToObj(id -> new TaskCursor(CREATED, id)).toList();
+    }
+
+    @Test
+    void filter_isWalkedChunkByChunk_fromWhereTheLastChunkEnded() {
+        TaskSelection low = new TaskSelection(null, Priority.LOW, null, null, null);
+        when(taskRepository.lockOwned(7L, low, null, 2)).thenReturn(cursors(1, 2));
+        when(taskRepository.lockOwned(7L, low, new TaskCursor(CREATED, 2L), 2)).thenReturn(cursors(3));
+        when(taskRepository.completeOwnedIn(eq(7L), anyList(), any())).thenReturn(2, 1);
+
+        BulkResult result = service(2).setCompleted(low, true);
+
+        assertEquals(new BulkResult("complete", 3, 2, result.elapsedMillis()), result);
+        verify(taskRepository).completeOwnedIn(eq(7L), eq(List.of(1L, 2L)), any(LocalDateTime.class));
+        verify(taskRepository).completeOwnedIn(eq(7L), eq(List.of(3L)), any(LocalDateTime.class));
+        verify(userRepository, times(2)).bumpTasksVersion(7L);
+        verify(taskCache).evictAll("ana", List.of(1L, 2L));
+        verify(deadlineReminders).cancel(3L);
+        verify(taskStatistics).invalidate(7L);
+        verify(changeHub).publish(7L, TaskChange.completed(1L, true));
+        verify(changeHub).publish(7L, TaskChange.completed(3L, true));
+        verify(changeHub, never()).publish(7L, TaskChange.reload());
+    }
+
+    @Test
+    void idList_isCutIntoChunks_andOnlyTheLockedTasksAreDeleted() {
+        when(taskRepository.lockOwned(7L, TaskSelection.ofIds(List.of(1L, 3L)), null, 2)).thenReturn(cursors(1, 3));
+        when(taskRepository.lockOwned(7L, TaskSelection.ofIds(List.of(5L)), null, 2)).thenReturn(List.of());
+        when(taskRepository.deleteOwnedIn(7L, List.of(1L, 3L))).thenReturn(2);
+
+        BulkResult result = service(2).delete(TaskSelection.ofIds(List.of(5L, 1L, 3L, 1L)));
+
+        assertEquals(2, result.affected());
+        assertEquals(2, result.chunks());
+        verify(taskRepository, never()).deleteOwnedIn(eq(7L), eq(List.of()));
+        verify(userRepository, times(1)).bumpTasksVersion(7L);
+        verify(searchIndex).remove("ana", 3L);
+        verify(deadlineReminders).cancel(1L);
+        verify(changeHub).publish(7L, TaskChange.deleted(1L));
+        verify(changeHub).publish(7L, TaskChange.deleted(3L));
+    }
+
+    @Test
+    void shiftedDeadlines_areRemindedAgain_manyChangesReloadTheList_andNoSelectionIsRefused() {
+        long[] ids = LongStream.rangeClosed(1, 12).toArray();
+        TaskSelection due = new TaskSelection(null, null, false, null, LocalDate.of(2024, 1, 31));
+        when(taskRepository.lockOwned(7L, due, null, 500)).thenReturn(cursors(ids));
+        when(taskRepository.shiftDeadlinesOwnedIn(eq(7L), anyList(), eq(7))).thenReturn(12);
+        DeadlineReminder moved = new DeadlineReminder(4L, 7L, "pay rent", LocalDate.of(2024, 2, 7));
+        when(taskRepository.findOpenRemindersByIdIn(anyList())).thenReturn(List.of(moved));
+
+        assertEquals(12, service(500).shiftDeadlines(due, 7).affected());
+        verify(deadlineReminders).schedule(moved);
+        verify(changeHub).publish(7L, TaskChange.reload());
+        verify(changeHub, times(1)).publish(eq(7L), any());
+
+        TaskBulkServiceImpl service = service(500);
+        assertThrows(IllegalArgumentException.class,
+                () -> service.delete(new TaskSelection(null, null, null, null, null)));
+        assertThrows(IllegalArgumentException.class, () -> service.shiftDeadlines(due, 0));
+        verify(taskRepository, times(1)).lockOwned(any(), any(), isNull(), anyInt());
+    }
+}
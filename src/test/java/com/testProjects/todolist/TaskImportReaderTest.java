@@ -0,0 +1,100 @@
+package com.testProjects.todolist;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.testProjects.todolist.exporter.CsvTaskExportWriter;
+import com.testProjects.todolist.importer.CsvTaskRowReader;
+import com.testProjects.todolist.importer.ImportFormatException;
+import com.testProjects.todolist.importer.JsonTaskRowReader;
+import com.testProjects.todolist.importer.TaskRow;
+import com.testProjects.todolist.importer.TaskRowReader;
+import com.testProjects.todolist.models.Priority;
+import com.testProjects.todolist.models.Task;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TaskImportReaderTest {
+
+    private static InputStream utf8(String s) {
+        return new ByteArrayInputStream(s.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static List<TaskRow> readAll(TaskRowReader reader) throws IOException {
+        List<TaskRow> rows = new ArrayList<>();
+        TaskRow row;
+        while ((row = reader.next()) != null) {
+            rows.add(row);
+        }
+        return rows;
+    }
+
+    @Test
+    void csv_mapsColumnsByHeaderAndHandlesQuotes() throws IOException {
+        String csv = "priority,title,description,deadline\r\n"
+                + "high,\"Buy milk, eggs\",\"say \"\"hi\"\"\",2030-01-02\r\n"
+                + "\n"
+                + ",\"multi\nline\",,\n";
+
+        List<TaskRow> rows = readAll(new CsvTaskRowReader(utf8(csv)));
+
+        assertEquals(2, rows.size());
+        assertEquals(new TaskRow(1, "Buy milk, eggs", "say \"hi\"", "high", "2030-01-02"), rows.get(0));
+        assertEquals(new TaskRow(2, "multi\nline", null, null, null), rows.get(1));
+    }
+
+    @Test
+    void csv_requiresTitleColumn() {
+        assertThrows(ImportFormatException.class, () -> new CsvTaskRowReader(utf8("name,priority\nx,LOW\n")));
+    }
+
+    @Test
+    void json_readsArrayAndNdjson() throws IOException {
+        ObjectMapper mapper = new ObjectMapper();
+        String array = "[{\"title\":\"a\",\"priority\":\"LOW\"},{\"title\":\"b\",\"deadline\":null}]";
+        String ndjson = "{\"title\":\"a\"}\n{\"title\":\"b\"}\n";
+
+        assertEquals(List.of("a", "b"),
+                readAll(new JsonTaskRowReader(mapper, utf8(array))).stream().map(TaskRow::title).toList());
+        assertEquals(List.of("a", "b"),
+                readAll(new JsonTaskRowReader(mapper, utf8(ndjson))).stream().map(TaskRow::title).toList());
+    }
+
+    @Test
+    void toTask_validatesFields() {
+        Task task = new TaskRow(1, " T ", null, "low", "2030-05-06").toTask();
+        assertEquals("T", task.getTitle());
+        assertEquals(Priority.LOW, task.getPriority());
+        assertEquals(LocalDate.of(2030, 5, 6), task.getDeadline());
+
+        assertThrows(IllegalArgumentException.class, () -> new TaskRow(2, " ", null, null, null).toTask());
+        assertThrows(IllegalArgumentException.class, () -> new TaskRow(3, "T", null, "urgent", null).toTask());
+        assertThrows(IllegalArgumentException.class, () -> new TaskRow(4, "T", null, null, "06/05/2030").toTask());
+    }
+
+    @Test
+    void csvExport_canBeImportedAgain() throws IOException {
+        Task task = new Task();
+        task.setId(1L);
+        task.setTitle("Buy \"milk\", eggs");
+        task.setDescription("line1\nline2");
+        task.setPriority(Priority.HIGH);
+        task.setDeadline(LocalDate.of(2030, 1, 2));
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        CsvTaskExportWriter writer = new CsvTaskExportWriter(out);
+        writer.write(task);
+        writer.finish();
+
+        List<TaskRow> rows = readAll(new CsvTaskRowReader(new ByteArrayInputStream(out.toByteArray())));
+        assertEquals(List.of(new TaskRow(1, "Buy \"milk\", eggs", "line1\nline2", "HIGH", "2030-01-02")), rows);
+    }
+}
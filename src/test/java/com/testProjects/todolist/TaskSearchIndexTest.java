@@ -0,0 +1,129 @@
+package com.testProjects.todolist;
+
+import com.testProjects.todolist.dto.TaskText;
+import com.testProjects.todolist.models.Task;
+import com.testProjects.todolist.repositories.TaskRepository;
+import com.testProjects.todolist.search.SearchHit;
+import com.testProjects.todolist.search.TaskSearchIndex;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class TaskSearchIndexTest {
+
+    TaskRepository taskRepository;
+    TaskSearchIndex index;
+
+    private static TaskText text(long id, String title, String description) {
+        return new TaskText() {
+            public Long getId() { return id; }
+            public String getTitle() { return title; }
+            public String getDescription() { return description; }
+        };
+    }
+
+    private static List<Long> ids(List<SearchHit> hits) {
+        return hits.stream().map(SearchHit::taskId).toList();
+    }
+
+    @BeforeEach
+    void setUp() {
+        taskRepository = mock(TaskRepository.class);
+        when(taskRepository.findTextByUserUsername("admin")).thenReturn(List.of(
+                text(1, "Buy milk", "semi-skimmed"),
+                text(2, "Call plumber", "kitchen sink is leaking"),
+                text(3, "Milkshake recipe", null)));
+        index = new TaskSearchIndex(taskRepository, 10, Duration.ofMinutes(10));
+    }
+
+    @Test
+    void substringMatch_ranksWholeTokenAboveSubstring() {
+        assertEquals(List.of(1L, 3L), ids(index.search("admin", "MILK", 10)));
+        assertEquals(List.of(2L), ids(index.search("admin", "eak", 10)));
+    }
+
+    @Test
+    void shortTermsMatchAnywhere_notOnlyAsTokenPrefixes() {
+        assertEquals(List.of(2L), ids(index.search("admin", "pl", 10)));
+        // inside "milkshake", the start of no token
+        assertEquals(List.of(3L), ids(index.search("admin", "sh", 10)));
+        assertEquals(List.of(1L), ids(index.search("admin", "mm", 10)));
+    }
+
+    @Test
+    void punctuationOnlyQuery_matchesAsTyped() {
+        assertEquals(List.of(1L), ids(index.search("admin", "-", 10)));
+        assertTrue(index.search("admin", "++", 10).isEmpty());
+    }
+
+    @Test
+    void writeDuringARebuild_isInTheRebuiltIndex() {
+        Task added = new Task();
+        added.setId(4L);
+        added.setTitle("Plant tomatoes");
+        // the load reads what was committed before the write landed
+        when(taskRepository.findTextByUserUsername("admin")).thenAnswer(invocation -> {
+            index.put("admin", added);
+            index.remove("admin", 2L);
+            return List.of(text(1, "Buy milk", "semi-skimmed"), text(2, "Call plumber", "kitchen sink"));
+        });
+
+        assertEquals(List.of(4L), ids(index.search("admin", "tomato", 10)));
+        assertTrue(index.search("admin", "plumber", 10).isEmpty());
+        verify(taskRepository, times(1)).findTextByUserUsername("admin");
+    }
+
+    @Test
+    void invalidationDuringARebuild_discardsIt() {
+        when(taskRepository.findTextByUserUsername("admin")).thenAnswer(invocation -> {
+            index.invalidate("admin");
+            return List.of(text(1, "Buy milk", null));
+        });
+
+        index.search("admin", "milk", 10);
+        index.search("admin", "milk", 10);
+
+        verify(taskRepository, times(2)).findTextByUserUsername("admin");
+    }
+
+    @Test
+    void allTermsMustMatch() {
+        assertEquals(List.of(2L), ids(index.search("admin", "plumber sink", 10)));
+        assertTrue(index.search("admin", "plumber milk", 10).isEmpty());
+    }
+
+    @Test
+    void numericQueryMatchesIds() {
+        assertEquals(List.of(3L), ids(index.search("admin", "3", 10)));
+    }
+
+    @Test
+    void putAndRemoveKeepIndexCurrentWithoutReloading() {
+        index.search("admin", "milk", 10);
+
+        Task renamed = new Task();
+        renamed.setId(1L);
+        renamed.setTitle("Buy bread");
+        index.put("admin", renamed);
+        index.remove("admin", 3L);
+
+        assertTrue(index.search("admin", "milk", 10).isEmpty());
+        assertEquals(List.of(1L), ids(index.search("admin", "bread", 10)));
+        verify(taskRepository, times(1)).findTextByUserUsername("admin");
+    }
+
+    @Test
+    void writesForUnloadedUsersAreIgnored() {
+        Task t = new Task();
+        t.setId(9L);
+        t.setTitle("other");
+        index.put("bob", t);
+
+        verify(taskRepository, never()).findTextByUserUsername("bob");
+    }
+}
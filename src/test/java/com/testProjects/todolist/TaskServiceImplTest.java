@@ -1,10 +1,27 @@
 package com.testProjects.todolist;
 
+import com.testProjects.todolist.cache.TaskCache;
+import com.testProjects.todolist.dto.ArchivedTaskDto;
+import com.testProjects.todolist.dto.ArchivedTaskPage;
+import com.testProjects.todolist.dto.TaskCursor;
+import com.testProjects.todolist.dto.TaskPage;
+import com.testProjects.todolist.dto.TaskSummary;
+import com.testProjects.todolist.dto.VersionStamp;
+import com.testProjects.todolist.feed.TaskChange;
+import com.testProjects.todolist.feed.TaskChangeHub;
+import com.testProjects.todolist.models.ArchivedTask;
 import com.testProjects.todolist.models.Priority;
 import com.testProjects.todolist.models.Task;
 import com.testProjects.todolist.models.User;
+import com.testProjects.todolist.reminder.DeadlineReminders;
+import com.testProjects.todolist.repositories.ArchivedTaskRepository;
 import com.testProjects.todolist.repositories.TaskRepository;
 import com.testProjects.todolist.repositories.UserRepository;
+import com.testProjects.todolist.search.SearchHit;
+import com.testProjects.todolist.search.TaskSearchIndex;
+import com.testProjects.todolist.security.CustomUserDetails;
+import com.testProjects.todolist.stats.TaskFacts;
+import com.testProjects.todolist.stats.TaskStatistics;
 import com.testProjects.todolist.services.Impl.TaskServiceImpl;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -12,16 +29,25 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContext;
 import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
 
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -29,6 +55,12 @@ class TaskServiceImplTest {
 
     @Mock TaskRepository taskRepository;
     @Mock UserRepository userRepository;
+    @Mock TaskSearchIndex searchIndex;
+    @Mock TaskCache taskCache;
+    @Mock DeadlineReminders deadlineReminders;
+    @Mock TaskStatistics taskStatistics;
+    @Mock TaskChangeHub changeHub;
+    @Mock ArchivedTaskRepository archivedTaskRepository;
 
     @InjectMocks TaskServiceImpl taskService;
 
@@ -87,7 +119,7 @@ class TaskServiceImplTest {
     void findTaskById_returnsTaskIfPresent() {
         Task t = new Task();
         t.setId(7L);
-        when(taskRepository.findById(7L)).thenReturn(Optional.of(t));
+        when(taskRepository.findDetailById(7L)).thenReturn(Optional.of(t));
 
         Task res = taskService.findTaskById(7L);
 
@@ -97,7 +129,7 @@ class TaskServiceImplTest {
 
     @Test
     void findTaskById_returnsNullIfMissing() {
-        when(taskRepository.findById(99L)).thenReturn(Optional.empty());
+        when(taskRepository.findDetailById(99L)).thenReturn(Optional.empty());
 
         Task res = taskService.findTaskById(99L);
 
@@ -108,46 +140,318 @@ class TaskServiceImplTest {
     void deleteTask_deletesOnlyIfOwnerMatches() {
         User owner = new User(); owner.setId(1L); owner.setUsername("admin");
 
-        Task task = new Task();
-        task.setId(5L);
-        task.setUser(owner);
-
         when(userRepository.findByUsername("admin")).thenReturn(Optional.of(owner));
-        when(taskRepository.findById(5L)).thenReturn(Optional.of(task));
+        when(taskRepository.deleteOwned(5L, 1L, null)).thenReturn(1);
 
-        taskService.deleteTask(5L);
+        assertTrue(taskService.deleteTask(5L));
 
-        verify(taskRepository).deleteById(5L);
+        verify(taskRepository, never()).findById(anyLong());
+        verify(userRepository).bumpTasksVersion(1L);
+        verify(searchIndex).remove("admin", 5L);
     }
 
     @Test
     void deleteTask_doesNotDeleteIfNotOwner() {
         User current = new User(); current.setId(1L); current.setUsername("admin");
-        User other = new User(); other.setId(2L); other.setUsername("x");
 
-        Task task = new Task();
-        task.setId(5L);
-        task.setUser(other);
+        when(userRepository.findByUsername("admin")).thenReturn(Optional.of(current));
+        when(taskRepository.deleteOwned(5L, 1L, null)).thenReturn(0);
+
+        assertFalse(taskService.deleteTask(5L));
+
+        verify(userRepository, never()).bumpTasksVersion(anyLong());
+        verify(taskCache, never()).evict(any(), any());
+    }
+
+    @Test
+    void deleteTask_atAnotherVersion_conflicts_andLeavesTheTask() {
+        User owner = new User(); owner.setId(1L); owner.setUsername("admin");
+
+        when(userRepository.findByUsername("admin")).thenReturn(Optional.of(owner));
+        when(taskRepository.deleteOwned(5L, 1L, 3L)).thenReturn(0);
+        when(taskRepository.existsByIdAndUserId(5L, 1L)).thenReturn(true);
+
+        assertThrows(OptimisticLockingFailureException.class, () -> taskService.deleteTask(5L, 3L));
+
+        verify(userRepository, never()).bumpTasksVersion(anyLong());
+        verify(searchIndex, never()).remove(any(), anyLong());
+    }
+
+    @Test
+    void updateTask_writesInOneStatementAndBumpsOwnerVersion() {
+        User owner = new User(); owner.setId(1L); owner.setUsername("admin");
+        Task changes = new Task();
+        changes.setTitle("new");
+        changes.setPriority(Priority.HIGH);
+
+        when(userRepository.findByUsername("admin")).thenReturn(Optional.of(owner));
+        when(taskRepository.updateOwned(5L, 1L, 3L, "new", null, Priority.HIGH, null)).thenReturn(1);
+
+        assertTrue(taskService.updateTask(5L, 3L, changes));
+
+        verify(taskRepository, never()).findById(anyLong());
+        verify(taskRepository, never()).save(any());
+        verify(userRepository).bumpTasksVersion(1L);
+        verify(taskCache).evict("admin", 5L);
+    }
+
+    @Test
+    void updateTask_movesTrackedStatisticsByTheDifference() {
+        User owner = new User(); owner.setId(1L); owner.setUsername("admin");
+        Task changes = new Task();
+        changes.setTitle("new");
+        changes.setPriority(Priority.HIGH);
+        TaskFacts before = new TaskFacts(Priority.LOW, LocalDate.of(2030, 1, 1), LocalDateTime.now());
+
+        when(userRepository.findByUsername("admin")).thenReturn(Optional.of(owner));
+        when(taskStatistics.isTracked(1L)).thenReturn(true);
+        when(taskRepository.findFactsByIdAndUserId(5L, 1L)).thenReturn(Optional.of(before));
+        when(taskRepository.updateOwned(5L, 1L, null, "new", null, Priority.HIGH, null)).thenReturn(1);
+
+        assertTrue(taskService.updateTask(5L, null, changes));
+
+        verify(taskStatistics).changed(1L, before, Priority.HIGH, null);
+    }
+
+    @Test
+    void updateTask_staleVersionOfOwnTask_isAConflict() {
+        User owner = new User(); owner.setId(1L); owner.setUsername("admin");
+        Task changes = new Task();
+
+        when(userRepository.findByUsername("admin")).thenReturn(Optional.of(owner));
+        when(taskRepository.updateOwned(eq(5L), eq(1L), eq(3L), any(), any(), any(), any())).thenReturn(0);
+        when(taskRepository.existsByIdAndUserId(5L, 1L)).thenReturn(true);
+
+        assertThrows(OptimisticLockingFailureException.class, () -> taskService.updateTask(5L, 3L, changes));
+        verify(userRepository, never()).bumpTasksVersion(anyLong());
+    }
+
+    @Test
+    void updateTask_otherUsersTask_isNotFound() {
+        User current = new User(); current.setId(1L); current.setUsername("admin");
 
         when(userRepository.findByUsername("admin")).thenReturn(Optional.of(current));
+        when(taskRepository.updateOwned(eq(5L), eq(1L), eq(3L), any(), any(), any(), any())).thenReturn(0);
+        when(taskRepository.existsByIdAndUserId(5L, 1L)).thenReturn(false);
+
+        assertFalse(taskService.updateTask(5L, 3L, new Task()));
+    }
+
+    @Test
+    void setTaskCompleted_marksOwnTaskDone_andDropsItsReminder() {
+        User owner = new User(); owner.setId(1L); owner.setUsername("admin");
+
+        when(userRepository.findByUsername("admin")).thenReturn(Optional.of(owner));
+        when(taskRepository.completeOwned(eq(5L), eq(1L), any(LocalDateTime.class))).thenReturn(1);
+
+        assertTrue(taskService.setTaskCompleted(5L, true));
+
+        verify(userRepository).bumpTasksVersion(1L);
+        verify(taskCache).evict("admin", 5L);
+        verify(deadlineReminders).cancel(5L);
+        verify(taskStatistics).invalidate(1L);
+        verify(changeHub).publish(1L, TaskChange.completed(5L, true));
+    }
+
+    @Test
+    void setTaskCompleted_reopen_schedulesTheReminderAgain_otherUsersTaskIsNotFound() {
+        User owner = new User(); owner.setId(1L); owner.setUsername("admin");
+        Task task = new Task(); task.setId(5L); task.setUser(owner); task.setDeadline(LocalDate.of(2030, 1, 1));
+
+        when(userRepository.findByUsername("admin")).thenReturn(Optional.of(owner));
+        when(taskRepository.completeOwned(5L, 1L, null)).thenReturn(1);
+        when(taskRepository.completeOwned(6L, 1L, null)).thenReturn(0);
         when(taskRepository.findById(5L)).thenReturn(Optional.of(task));
 
-        taskService.deleteTask(5L);
+        assertTrue(taskService.setTaskCompleted(5L, false));
+        assertFalse(taskService.setTaskCompleted(6L, false));
 
-        verify(taskRepository, never()).deleteById(anyLong());
+        verify(deadlineReminders).schedule(task);
+        verify(userRepository, times(1)).bumpTasksVersion(1L);
     }
 
     @Test
-    void getTasksByPriority_delegatesToRepo() {
-        Task t = new Task();
-        t.setPriority(Priority.HIGH);
+    void completedTask_isStillCompleted_whenReadBackFromTheReadCache() {
+        ReflectionTestUtils.setField(taskService, "taskCache",
+                new TaskCache(true, 100, 100, Duration.ofMinutes(5)));
+        User owner = new User(); owner.setId(1L); owner.setUsername("admin");
+        Task task = new Task(); task.setId(5L); task.setUser(owner); task.setTitle("T");
+        task.setCompletedAt(LocalDateTime.of(2024, 6, 1, 12, 0));
+
+        when(userRepository.findByUsername("admin")).thenReturn(Optional.of(owner));
+        when(taskRepository.completeOwned(eq(5L), eq(1L), any(LocalDateTime.class))).thenReturn(1);
+        when(taskRepository.findOwnerStampById(5L)).thenReturn(Optional.of(new VersionStamp(1L, 4L)));
+        when(taskRepository.findDetailById(5L)).thenReturn(Optional.of(task));
+
+        assertTrue(taskService.setTaskCompleted(5L, true));
+        Task loaded = taskService.findTaskById(5L);
+        Task cached = taskService.findTaskById(5L);
+
+        verify(taskRepository, times(1)).findDetailById(5L);
+        assertNotSame(loaded, cached);
+        assertEquals(task.getCompletedAt(), cached.getCompletedAt());
+    }
+
+    @Test
+    void getArchivedTasks_searchesTheOwnersArchive_withWildcardsEscaped() {
+        User user = new User(); user.setId(1L);
+        ArchivedTask archived = new ArchivedTask();
+        archived.setId(9L);
+        archived.setTitle("100% done");
 
-        when(taskRepository.findByPriority(Priority.HIGH)).thenReturn(List.of(t));
+        when(userRepository.findByUsername("admin")).thenReturn(Optional.of(user));
+        when(archivedTaskRepository.searchByOwner(1L, "%100!% d%", PageRequest.of(2, 20)))
+                .thenReturn(new SliceImpl<>(List.of(archived), PageRequest.of(2, 20), true));
 
-        List<Task> res = taskService.getTasksByPriority(Priority.HIGH);
+        ArchivedTaskPage page = taskService.getArchivedTasksForCurrentUser(" 100% D", 2, 20);
+
+        assertEquals(List.of(9L), page.tasks().stream().map(ArchivedTaskDto::id).toList());
+        assertEquals(2, page.page());
+        assertTrue(page.hasPrev());
+        assertTrue(page.hasNext());
+        verify(archivedTaskRepository, never()).findByOwner(any(), any());
+    }
+
+    @Test
+    void getTasksByPriority_isScopedToCurrentUser() {
+        TaskSummary t = new TaskSummary(1L, "t", null, Priority.HIGH, null, null, null, 0);
+        User user = new User();
+        user.setId(1L);
+
+        when(userRepository.findByUsername("admin")).thenReturn(Optional.of(user));
+        when(taskRepository.findByOwnerAndPriority(1L, Priority.HIGH, Limit.of(20))).thenReturn(List.of(t));
+
+        List<TaskSummary> res = taskService.getTasksByPriorityForCurrentUser(Priority.HIGH, 20);
 
         assertEquals(1, res.size());
-        assertEquals(Priority.HIGH, res.get(0).getPriority());
-        verify(taskRepository).findByPriority(Priority.HIGH);
+        assertEquals(Priority.HIGH, res.get(0).priority());
+        verify(taskRepository).findByOwnerAndPriority(1L, Priority.HIGH, Limit.of(20));
+    }
+
+    @Test
+    void getOverdueTasks_capsLimitAtMaxPageSize() {
+        User user = new User();
+        user.setId(1L);
+        LocalDate today = LocalDate.of(2024, 6, 1);
+
+        when(userRepository.findByUsername("admin")).thenReturn(Optional.of(user));
+
+        taskService.getOverdueTasksForCurrentUser(today, 10_000);
+
+        verify(taskRepository).findOverdueByOwner(1L, today, Limit.of(TaskServiceImpl.MAX_PAGE_SIZE));
+    }
+
+    private static TaskSummary taskAt(long id, LocalDateTime createdAt) {
+        return new TaskSummary(id, "t" + id, null, Priority.LOW, null, createdAt, null, 0);
+    }
+
+    @Test
+    void getTaskPage_firstPage_fetchesOneExtraRowToDetectNext() {
+        LocalDateTime now = LocalDateTime.of(2025, 1, 1, 10, 0);
+        when(taskRepository.findFirstPage("admin", Limit.of(3)))
+                .thenReturn(List.of(taskAt(1, now), taskAt(2, now), taskAt(3, now)));
+
+        TaskPage page = taskService.getTaskPageForCurrentUser(null, null, 2);
+
+        assertEquals(2, page.tasks().size());
+        assertFalse(page.hasPrev());
+        assertTrue(page.hasNext());
+        assertEquals(new TaskCursor(now, 2L), TaskCursor.parse(page.nextCursor()));
+    }
+
+    @Test
+    void getTaskPage_after_usesKeysetQuery() {
+        LocalDateTime now = LocalDateTime.of(2025, 1, 1, 10, 0);
+        String cursor = new TaskCursor(now, 2L).encode();
+        when(taskRepository.findPageAfter(eq("admin"), eq(now), eq(2L), any(Limit.class)))
+                .thenReturn(List.of(taskAt(3, now)));
+
+        TaskPage page = taskService.getTaskPageForCurrentUser(cursor, null, 2);
+
+        assertEquals(1, page.tasks().size());
+        assertTrue(page.hasPrev());
+        assertFalse(page.hasNext());
+        verify(taskRepository, never()).findFirstPage(any(), any());
+    }
+
+    @Test
+    void getTaskPage_before_returnsRowsInDisplayOrder() {
+        LocalDateTime now = LocalDateTime.of(2025, 1, 1, 10, 0);
+        String cursor = new TaskCursor(now, 5L).encode();
+        when(taskRepository.findPageBefore(eq("admin"), eq(now), eq(5L), any(Limit.class)))
+                .thenReturn(List.of(taskAt(4, now), taskAt(3, now), taskAt(2, now)));
+
+        TaskPage page = taskService.getTaskPageForCurrentUser(null, cursor, 2);
+
+        assertEquals(List.of(3L, 4L), page.tasks().stream().map(TaskSummary::id).toList());
+        assertTrue(page.hasPrev());
+        assertTrue(page.hasNext());
+    }
+
+    @Test
+    void getTaskPage_malformedCursor_fallsBackToFirstPage() {
+        when(taskRepository.findFirstPage(eq("admin"), any(Limit.class))).thenReturn(List.of());
+
+        TaskPage page = taskService.getTaskPageForCurrentUser("not-a-cursor", null, 20);
+
+        assertTrue(page.tasks().isEmpty());
+        assertNull(page.nextCursor());
+    }
+
+    @Test
+    void searchTasks_loadsOnlyHitsInRankOrder() {
+        TaskSummary t3 = taskAt(3, LocalDateTime.now());
+        TaskSummary t8 = taskAt(8, LocalDateTime.now());
+        when(searchIndex.search("admin", "milk", 10))
+                .thenReturn(List.of(new SearchHit(8L, 6), new SearchHit(3L, 2), new SearchHit(4L, 1)));
+        when(taskRepository.findSummariesByIdIn(List.of(8L, 3L, 4L))).thenReturn(List.of(t3, t8));
+
+        List<TaskSummary> res = taskService.searchTasksForCurrentUser("milk", 10);
+
+        assertEquals(List.of(8L, 3L), res.stream().map(TaskSummary::id).toList());
+        verify(taskRepository, never()).findByUserUsername(any());
+    }
+
+    @Test
+    void saveTask_bumpsOwnerVersionAndEvictsCache() {
+        Task task = new Task();
+        task.setId(4L);
+        User user = new User(); user.setId(1L); user.setUsername("admin");
+        when(userRepository.findByUsername("admin")).thenReturn(Optional.of(user));
+        when(taskRepository.save(task)).thenReturn(task);
+
+        taskService.saveTask(task);
+
+        verify(userRepository).bumpTasksVersion(1L);
+        verify(taskCache).evict("admin", 4L);
+    }
+
+    @Test
+    void getTaskPage_servesCachedPageForCurrentVersion() {
+        TaskPage cached = new TaskPage(List.of(), null, null);
+        when(userRepository.findTasksVersionByUsername("admin")).thenReturn(Optional.of(7L));
+        when(taskCache.getPage(new TaskCache.PageKey("admin", null, null, 20), 7L)).thenReturn(cached);
+
+        TaskPage page = taskService.getTaskPageForCurrentUser(null, null, 20);
+
+        assertSame(cached, page);
+        verify(taskRepository, never()).findFirstPage(any(), any());
+    }
+
+    @Test
+    void saveTask_usesUserIdFromPrincipal_withoutUserLookup() {
+        User loggedIn = new User(); loggedIn.setId(1L); loggedIn.setUsername("admin"); loggedIn.setPassword("x");
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        when(auth.getPrincipal()).thenReturn(new CustomUserDetails(loggedIn));
+
+        User reference = new User(); reference.setId(1L);
+        when(userRepository.getReferenceById(1L)).thenReturn(reference);
+        Task task = new Task();
+        when(taskRepository.save(task)).thenReturn(task);
+
+        taskService.saveTask(task);
+
+        assertSame(reference, task.getUser());
+        verify(userRepository, never()).findByUsername(any());
     }
 }
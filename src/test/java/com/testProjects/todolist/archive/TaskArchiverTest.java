@@ -0,0 +1,98 @@
+package com.testProjects.todolist.archive;
+
+import com.testProjects.todolist.cache.TaskCache;
+import com.testProjects.todolist.feed.TaskChange;
+import com.testProjects.todolist.feed.TaskChangeHub;
+import com.testProjects.todolist.reminder.DeadlineReminders;
+import com.testProjects.todolist.repositories.TaskRepository;
+import com.testProjects.todolist.repositories.UserRepository;
+import com.testProjects.todolist.search.TaskSearchIndex;
+import com.testProjects.todolist.stats.TaskStatistics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.*;
+
+class TaskArchiverTest {
+
+    static final LocalDateTime NOW = LocalDateTime.of(2024, 6, 1, 12, 0);
+
+    TaskRepository taskRepository;
+    UserRepository userRepository;
+    TaskSearchIndex searchIndex;
+    TaskCache taskCache;
+    DeadlineReminders deadlineReminders;
+    TaskStatistics taskStatistics;
+    TaskChangeHub changeHub;
+    SimpleMeterRegistry registry;
+
+    @BeforeEach
+    void setUp() {
+        taskRepository = mock(TaskRepository.class);
+        userRepository = mock(UserRepository.class);
+        searchIndex = mock(TaskSearchIndex.class);
+        taskCache = mock(TaskCache.class);
+        deadlineReminders = mock(DeadlineReminders.class);
+        taskStatistics = mock(TaskStatistics.class);
+        changeHub = mock(TaskChangeHub.class);
+        registry = new SimpleMeterRegistry();
+    }
+
+    private TaskArchiver archiver(boolean enabled, int batchSize) {
+        return new TaskArchiver(new TransactionTemplate(mock(PlatformTransactionManager.class)), taskRepository,
+                userRepository, searchIndex, taskCache, deadlineReminders, taskStatistics, changeHub, registry,
+                enabled, Duration.ofDays(30), batchSize, Clock.fixed(NOW.toInstant(ZoneOffset.UTC), ZoneOffset.UTC));
+    }
+
+    @Test
+    void archivesBatchesUntilOneComesBackShort_andForgetsWhatMoved() {
+        LocalDateTime cutoff = NOW.minusDays(30);
+        when(taskRepository.archiveCompleted(cutoff, NOW, 2))
+                .thenReturn(List.of(new ArchivedTaskRef(1L, 7L, "ana"), new ArchivedTaskRef(2L, 8L, "bo")))
+                .thenReturn(List.of(new ArchivedTaskRef(3L, 7L, "ana")));
+
+        assertEquals(3, archiver(true, 2).archiveDue());
+
+        verify(taskRepository, times(2)).archiveCompleted(cutoff, NOW, 2);
+        verify(userRepository, times(2)).bumpTasksVersion(7L);
+        verify(userRepository).bumpTasksVersion(8L);
+        verify(searchIndex).remove("ana", 1L);
+        verify(searchIndex).remove("bo", 2L);
+        verify(searchIndex).remove("ana", 3L);
+        verify(taskCache).evict("ana", 3L);
+        verify(deadlineReminders).cancel(2L);
+        verify(taskStatistics, times(2)).invalidate(7L);
+        verify(changeHub).publish(7L, TaskChange.deleted(1L));
+        verify(changeHub).publish(8L, TaskChange.deleted(2L));
+        assertEquals(3, registry.counter("todolist.archive.tasks").count());
+    }
+
+    @Test
+    void manyTasksOfOneUser_reloadTheirList_andADisabledArchiverDoesNothing() {
+        List<ArchivedTaskRef> batch = LongStream.rangeClosed(1, 20)
+                .mapToObj(id -> new ArchivedTaskRef(id, 7L, "ana")).toList();
+        when(taskRepository.archiveCompleted(any(), any(), anyInt())).thenReturn(batch).thenReturn(List.of());
+
+        archiver(false, 20).run();
+        verifyNoInteractions(taskRepository);
+
+        archiver(true, 20).run();
+        verify(taskRepository, times(2)).archiveCompleted(any(), any(), anyInt());
+        verify(changeHub).publish(7L, TaskChange.reload());
+        verify(changeHub, never()).publish(7L, TaskChange.deleted(1L));
+        verify(userRepository, times(1)).bumpTasksVersion(7L);
+    }
+}
@@ -0,0 +1,128 @@
+package com.testProjects.todolist.cache;
+
+import com.testProjects.todolist.repositories.UserRepository;
+import com.testProjects.todolist.security.CustomUserDetails;
+import com.testProjects.todolist.writebehind.TaskWriteBehind;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.mock.web.MockHttpSession;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class RenderedPageCacheFilterTest {
+
+    UserRepository userRepository;
+    TaskWriteBehind writeBehind;
+    RenderedPageCache pageCache;
+    RenderedPageCacheFilter filter;
+    MockHttpSession session;
+    AtomicInteger renders;
+    FilterChain listView;
+
+    @BeforeEach
+    void setUp() {
+        userRepository = mock(UserRepository.class);
+        when(userRepository.findTasksVersionByUsername("ana")).thenReturn(Optional.of(3L));
+        writeBehind = mock(TaskWriteBehind.class);
+        pageCache = new RenderedPageCache(true, DataSize.ofMegabytes(1), Duration.ofMinutes(5));
+        filter = new RenderedPageCacheFilter(pageCache, userRepository, writeBehind, Duration.ofSeconds(1));
+        session = new MockHttpSession();
+        renders = new AtomicInteger();
+        listView = (request, response) -> {
+            response.setContentType("text/html;charset=UTF-8");
+            response.getWriter().write("<table>" + "<tr><td>task</td></tr>".repeat(50) + "</table>#"
+                    + renders.incrementAndGet());
+        };
+        CustomUserDetails user = new CustomUserDetails(7L, "ana");
+        SecurityContextHolder.getContext().setAuthentication(
+                UsernamePasswordAuthenticationToken.authenticated(user, null, user.getAuthorities()));
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    private MockHttpServletResponse get(String query, boolean gzip) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/");
+        request.setQueryString(query);
+        request.setSession(session);
+        if (gzip) {
+            request.addHeader("Accept-Encoding", "gzip, deflate");
+        }
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, listView);
+        return response;
+    }
+
+    private static String body(MockHttpServletResponse response) throws Exception {
+        byte[] bytes = response.getContentAsByteArray();
+        if ("gzip".equals(response.getHeader("Content-Encoding"))) {
+            bytes = RenderedPageCacheFilter.gunzip(bytes, Integer.MAX_VALUE);
+        }
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    @Test
+    void unchangedVersion_servesTheStoredPage_compressedWhenAccepted() throws Exception {
+        MockHttpServletResponse first = get(null, true);
+        MockHttpServletResponse second = get(null, true);
+        MockHttpServletResponse plain = get(null, false);
+
+        assertEquals(1, renders.get());
+        assertEquals("gzip", second.getHeader("Content-Encoding"));
+        assertTrue(second.getContentLength() < body(second).length());
+        assertEquals(body(first), body(second));
+        assertNull(plain.getHeader("Content-Encoding"));
+        assertTrue(body(plain).endsWith("#1"));
+        assertTrue(plain.getContentType().startsWith("text/html"));
+        verify(writeBehind, times(3)).awaitPending(7L, Duration.ofSeconds(1));
+    }
+
+    @Test
+    void newVersion_otherQuery_orOtherSession_renderAgain() throws Exception {
+        get(null, true);
+        get("q=milk", true);
+        assertEquals(2, renders.get());
+
+        when(userRepository.findTasksVersionByUsername("ana")).thenReturn(Optional.of(4L));
+        assertTrue(body(get(null, true)).endsWith("#3"));
+
+        session = new MockHttpSession();
+        assertTrue(body(get(null, true)).endsWith("#4"));
+        assertTrue(body(get(null, true)).endsWith("#4"));
+    }
+
+    @Test
+    void otherRequests_andDisabledCache_passThrough() throws Exception {
+        MockHttpServletRequest post = new MockHttpServletRequest("POST", "/");
+        post.setSession(session);
+        filter.doFilter(post, new MockHttpServletResponse(), listView);
+
+        RenderedPageCacheFilter disabled = new RenderedPageCacheFilter(
+                new RenderedPageCache(false, DataSize.ofMegabytes(1), Duration.ofMinutes(5)),
+                userRepository, writeBehind, Duration.ofSeconds(1));
+        for (int i = 0; i < 2; i++) {
+            MockHttpServletRequest request = new MockHttpServletRequest("GET", "/");
+            request.setSession(session);
+            disabled.doFilter(request, new MockHttpServletResponse(), listView);
+        }
+
+        assertEquals(3, renders.get());
+        verify(userRepository, never()).findTasksVersionByUsername(any());
+    }
+}
@@ -0,0 +1,56 @@
+package com.testProjects.todolist.cache;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class VersionedCacheTest {
+
+    private final AtomicLong now = new AtomicLong();
+
+    private VersionedCache<String, String> cache(long maxWeight) {
+        return new VersionedCache<>("test", maxWeight, 100, String::length, now::get);
+    }
+
+    @Test
+    void hitsOnlyForMatchingStamp() {
+        VersionedCache<String, String> cache = cache(100);
+        cache.put("k", 1L, "v");
+
+        assertEquals("v", cache.get("k", 1L));
+        assertNull(cache.get("k", 2L));
+        // a stale lookup drops the entry
+        assertNull(cache.get("k", 1L));
+
+        CacheStats stats = cache.stats();
+        assertEquals(1, stats.hits());
+        assertEquals(2, stats.misses());
+        assertEquals(1, stats.stale());
+    }
+
+    @Test
+    void expiresAfterTtl() {
+        VersionedCache<String, String> cache = cache(100);
+        cache.put("k", 1L, "v");
+        now.addAndGet(100);
+
+        assertNull(cache.get("k", 1L));
+        assertEquals(1, cache.stats().expired());
+    }
+
+    @Test
+    void evictsLeastRecentlyUsedByWeight() {
+        VersionedCache<String, String> cache = cache(6);
+        cache.put("a", 1L, "aaa");
+        cache.put("b", 1L, "bbb");
+        cache.get("a", 1L);
+        cache.put("c", 1L, "cc");
+
+        assertNotNull(cache.get("a", 1L));
+        assertNull(cache.get("b", 1L));
+        assertEquals(1, cache.stats().evicted());
+        assertEquals(5, cache.stats().weight());
+    }
+}
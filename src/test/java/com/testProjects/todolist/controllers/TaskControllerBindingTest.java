@@ -0,0 +1,58 @@
+package com.testProjects.todolist.controllers;
+
+import com.testProjects.todolist.models.Task;
+import com.testProjects.todolist.services.Impl.TaskServiceImpl;
+import com.testProjects.todolist.services.TaskBulkService;
+import com.testProjects.todolist.writebehind.TaskWriteBehind;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.redirectedUrl;
+
+class TaskControllerBindingTest {
+
+    TaskWriteBehind writeBehind = mock(TaskWriteBehind.class);
+    MockMvc mvc = MockMvcBuilders.standaloneSetup(
+            new TaskController(mock(TaskServiceImpl.class), writeBehind, mock(TaskBulkService.class))).build();
+
+    @Test
+    void create_ignoresAnIdVersionOwnerAndCompletion_soItCannotOverwriteAnotherTask() throws Exception {
+        mvc.perform(post("/")
+                        .param("title", "mine")
+                        .param("id", "99")
+                        .param("version", "4")
+                        .param("completedAt", "2024-01-01T00:00")
+                        .param("user.id", "2"))
+                .andExpect(redirectedUrl("/"));
+
+        ArgumentCaptor<Task> created = ArgumentCaptor.forClass(Task.class);
+        verify(writeBehind).create(created.capture());
+        assertEquals("mine", created.getValue().getTitle());
+        assertNull(created.getValue().getId());
+        assertEquals(0, created.getValue().getVersion());
+        assertNull(created.getValue().getCompletedAt());
+        assertNull(created.getValue().getUser());
+    }
+
+    @Test
+    void update_takesTheIdFromThePath_andTheVersionFromItsParameter() throws Exception {
+        when(writeBehind.update(eq(5L), eq(3L), any())).thenReturn(true);
+
+        mvc.perform(post("/5").param("title", "edited").param("id", "99").param("version", "3"))
+                .andExpect(redirectedUrl("/"));
+
+        ArgumentCaptor<Task> changes = ArgumentCaptor.forClass(Task.class);
+        verify(writeBehind).update(eq(5L), eq(3L), changes.capture());
+        assertNull(changes.getValue().getId());
+        verify(writeBehind, never()).update(eq(99L), any(), any());
+        verify(writeBehind, never()).update(any(), isNull(), any());
+    }
+}
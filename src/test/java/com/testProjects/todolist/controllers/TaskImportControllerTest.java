@@ -0,0 +1,25 @@
+package com.testProjects.todolist.controllers;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.testProjects.todolist.services.TaskImportService;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class TaskImportControllerTest {
+
+    TaskImportService importService = mock(TaskImportService.class);
+    MockMvc mvc = MockMvcBuilders.standaloneSetup(new TaskImportController(importService, new ObjectMapper())).build();
+
+    @Test
+    void csvWithoutTitleColumn_isABadRequest() throws Exception {
+        mvc.perform(post("/api/tasks/import").contentType("text/csv").content("name,priority\nx,LOW\n"))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(importService);
+    }
+}
@@ -0,0 +1,160 @@
+package com.testProjects.todolist.datasource;
+
+import com.testProjects.todolist.models.User;
+import com.testProjects.todolist.security.CustomUserDetails;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.context.SecurityContextImpl;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Routes between two in-memory H2 databases that each know their own name.
+ */
+class ReplicaRoutingDataSourceTest {
+
+    /** Replica stand-in that can be taken down. */
+    static final class SwitchableDataSource extends DelegatingDataSource {
+        volatile boolean down;
+
+        SwitchableDataSource(JdbcDataSource target) {
+            super(target);
+        }
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            if (down) {
+                throw new SQLException("replica unreachable");
+            }
+            return super.getConnection();
+        }
+    }
+
+    AtomicLong nanos = new AtomicLong();
+    SwitchableDataSource replica;
+    ReplicaRoutingDataSource routing;
+    JdbcTemplate jdbc;
+    TransactionTemplate readWrite;
+    TransactionTemplate readOnly;
+
+    private static JdbcDataSource h2(String name) {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1");
+        new JdbcTemplate(dataSource).execute("create table if not exists node (name varchar(20))");
+        new JdbcTemplate(dataSource).execute("delete from node");
+        new JdbcTemplate(dataSource).update("insert into node values (?)", name);
+        return dataSource;
+    }
+
+    private static void login(long userId) {
+        User user = new User();
+        user.setId(userId);
+        user.setUsername("user" + userId);
+        user.setPassword("x");
+        CustomUserDetails principal = new CustomUserDetails(user);
+        SecurityContextHolder.setContext(new SecurityContextImpl(
+                new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities())));
+    }
+
+    private String readOnlyNode() {
+        return readOnly.execute(status -> jdbc.queryForObject("select name from node", String.class));
+    }
+
+    private String readWriteNode() {
+        return readWrite.execute(status -> jdbc.queryForObject("select name from node", String.class));
+    }
+
+    @BeforeEach
+    void setUp() {
+        replica = new SwitchableDataSource(h2("replica"));
+        RecentWriters recentWriters = new RecentWriters(Duration.ofSeconds(5), nanos::get);
+        routing = new ReplicaRoutingDataSource(h2("primary"), replica, recentWriters, new SimpleMeterRegistry());
+        LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy(routing);
+
+        jdbc = new JdbcTemplate(dataSource);
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+        readWrite = new TransactionTemplate(transactionManager);
+        readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        login(1);
+    }
+
+    @AfterEach
+    void clearSecurityContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void readOnlyTransactions_goToTheReplica_everythingElseToThePrimary() {
+        assertEquals("replica", readOnlyNode());
+        assertEquals("primary", readWriteNode());
+        assertEquals("primary", jdbc.queryForObject("select name from node", String.class));
+    }
+
+    @Test
+    void explicitCredentials_areRoutedTheSameWay() {
+        assertEquals("replica", readOnly.execute(status -> nodeWithCredentials()));
+        assertEquals("primary", nodeWithCredentials());
+    }
+
+    private String nodeWithCredentials() {
+        try (Connection connection = routing.getConnection("", "");
+             ResultSet rows = connection.createStatement().executeQuery("select name from node")) {
+            rows.next();
+            return rows.getString(1);
+        } catch (SQLException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Test
+    void writer_readsFromThePrimary_untilTheWindowPasses() {
+        readWrite.executeWithoutResult(status -> jdbc.update("update node set name = name"));
+
+        assertEquals("primary", readOnlyNode());
+        login(2);
+        assertEquals("replica", readOnlyNode());
+
+        login(1);
+        nanos.addAndGet(Duration.ofSeconds(6).toNanos());
+        assertEquals("replica", readOnlyNode());
+    }
+
+    @Test
+    void rolledBackWrite_doesNotMakeTheUserSticky() {
+        readWrite.executeWithoutResult(status -> {
+            jdbc.update("update node set name = name");
+            status.setRollbackOnly();
+        });
+        assertEquals("replica", readOnlyNode());
+    }
+
+    @Test
+    void unhealthyReplica_fallsBackToThePrimary_untilTheCheckPasses() {
+        replica.down = true;
+        assertEquals("primary", readOnlyNode());
+        assertFalse(routing.isReplicaHealthy());
+
+        replica.down = false;
+        assertEquals("primary", readOnlyNode());
+        routing.checkReplica();
+        assertTrue(routing.isReplicaHealthy());
+        assertEquals("replica", readOnlyNode());
+    }
+}
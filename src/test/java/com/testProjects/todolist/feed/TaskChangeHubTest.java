@@ -0,0 +1,189 @@
+package com.testProjects.todolist.feed;
+
+import com.testProjects.todolist.models.Priority;
+import com.testProjects.todolist.models.Task;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TaskChangeHubTest {
+
+    /** Runs drains on demand, standing in for the virtual thread executor. */
+    static final class ManualExecutor extends AbstractExecutorService {
+        final List<Runnable> queued = new ArrayList<>();
+
+        void runAll() {
+            while (!queued.isEmpty()) {
+                queued.remove(0).run();
+            }
+        }
+
+        @Override
+        public void execute(Runnable command) {
+            queued.add(command);
+        }
+
+        @Override
+        public void shutdown() {
+        }
+
+        @Override
+        public List<Runnable> shutdownNow() {
+            return List.of();
+        }
+
+        @Override
+        public boolean isShutdown() {
+            return false;
+        }
+
+        @Override
+        public boolean isTerminated() {
+            return false;
+        }
+
+        @Override
+        public boolean awaitTermination(long timeout, TimeUnit unit) {
+            return true;
+        }
+    }
+
+    /** Records the names and payloads of what would be written to the stream. */
+    static final class RecordingEmitter extends SseEmitter {
+        final List<String> events = new ArrayList<>();
+        boolean completed;
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            Set<DataWithMediaType> parts = builder.build();
+            StringBuilder event = new StringBuilder();
+            for (DataWithMediaType part : parts) {
+                event.append(part.getData() instanceof TaskChange change ? change.type() + ":" + change.id()
+                        : part.getData().toString().trim());
+            }
+            events.add(event.toString());
+        }
+
+        @Override
+        public synchronized void complete() {
+            completed = true;
+        }
+    }
+
+    ManualExecutor executor;
+    SimpleMeterRegistry registry;
+    TaskChangeHub hub;
+
+    @BeforeEach
+    void setUp() {
+        executor = new ManualExecutor();
+        registry = new SimpleMeterRegistry();
+        hub = new TaskChangeHub(executor, registry, 2, 3, 4, Duration.ofMinutes(30));
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    private static Task task(long id) {
+        Task task = new Task();
+        task.setId(id);
+        task.setTitle("t" + id);
+        task.setPriority(Priority.HIGH);
+        return task;
+    }
+
+    @Test
+    void changes_reachEveryStreamOfTheirOwner_only() {
+        RecordingEmitter phone = new RecordingEmitter();
+        RecordingEmitter laptop = new RecordingEmitter();
+        RecordingEmitter other = new RecordingEmitter();
+        assertTrue(hub.register(1L, phone));
+        assertTrue(hub.register(1L, laptop));
+        assertTrue(hub.register(2L, other));
+
+        hub.publish(1L, TaskChange.created(task(10L)));
+        hub.publish(1L, TaskChange.deleted(10L));
+        hub.publish(3L, TaskChange.deleted(11L));
+        executor.runAll();
+
+        assertTrue(phone.events.get(0).startsWith("event:hello"));
+        assertEquals(3, phone.events.size());
+        assertTrue(phone.events.get(1).endsWith("CREATED:10"));
+        assertTrue(phone.events.get(2).endsWith("DELETED:10"));
+        assertEquals(phone.events, laptop.events);
+        assertEquals(1, other.events.size());
+        assertEquals(2, registry.counter("todolist.feed.events").count());
+    }
+
+    @Test
+    void insideATransaction_changesAreSentOnlyAfterCommit() {
+        RecordingEmitter emitter = new RecordingEmitter();
+        hub.register(1L, emitter);
+        executor.runAll();
+
+        TransactionSynchronizationManager.initSynchronization();
+        hub.publish(1L, TaskChange.updated(10L, task(10L)));
+        executor.runAll();
+        assertEquals(1, emitter.events.size());
+
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+        synchronizations.forEach(TransactionSynchronization::afterCommit);
+        executor.runAll();
+        assertEquals(2, emitter.events.size());
+        assertTrue(emitter.events.get(1).endsWith("UPDATED:10"));
+    }
+
+    @Test
+    void streamsPerUserAndPerNode_areCapped() {
+        assertTrue(hub.register(1L, new RecordingEmitter()));
+        assertTrue(hub.register(1L, new RecordingEmitter()));
+        assertFalse(hub.register(1L, new RecordingEmitter()));
+        assertTrue(hub.register(2L, new RecordingEmitter()));
+        assertFalse(hub.register(3L, new RecordingEmitter()));
+        assertEquals(3, hub.connections());
+        assertEquals(3.0, registry.get("todolist.feed.connections").gauge().value());
+    }
+
+    @Test
+    void slowStream_isClosedWhenItsBufferOverflows() {
+        RecordingEmitter slow = new RecordingEmitter();
+        hub.register(1L, slow);
+        executor.runAll();
+
+        // no drain gets to run while five changes arrive for a buffer of four
+        for (long id = 1; id <= 5; id++) {
+            hub.publish(1L, TaskChange.deleted(id));
+        }
+
+        assertTrue(slow.completed);
+        assertEquals(1, registry.counter("todolist.feed.dropped").count());
+        assertEquals(0, hub.connections());
+        executor.runAll();
+        assertEquals(1, slow.events.size());
+
+        RecordingEmitter reconnected = new RecordingEmitter();
+        assertTrue(hub.register(1L, reconnected));
+        hub.publish(1L, TaskChange.reload());
+        executor.runAll();
+        assertTrue(reconnected.events.get(1).endsWith("RELOAD:null"));
+    }
+}
@@ -0,0 +1,74 @@
+package com.testProjects.todolist.metrics;
+
+import com.testProjects.todolist.dto.TaskText;
+import com.testProjects.todolist.models.Task;
+import com.testProjects.todolist.repositories.TaskRepository;
+import com.testProjects.todolist.search.TaskSearchIndex;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class MethodMetricsAspectTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final MethodMetricsAspect aspect = new MethodMetricsAspect(registry);
+
+    @SuppressWarnings("unchecked")
+    private <T> T proxy(T target, Class<?>... interfaces) {
+        AspectJProxyFactory factory = new AspectJProxyFactory(target);
+        factory.setInterfaces(interfaces);
+        factory.setProxyTargetClass(interfaces.length == 0);
+        factory.addAspect(aspect);
+        return (T) factory.getProxy();
+    }
+
+    @Test
+    void recordsRowsReturnedByRepositoryQueries() {
+        TaskRepository target = mock(TaskRepository.class);
+        when(target.findByUserUsername("admin")).thenReturn(List.of(new Task(), new Task(), new Task()));
+        when(target.findById(1L)).thenReturn(Optional.empty());
+        TaskRepository repository = proxy(target, TaskRepository.class);
+
+        repository.findByUserUsername("admin");
+        repository.findById(1L);
+        repository.count();
+
+        DistributionSummary list = registry.get(MethodMetricsAspect.REPOSITORY_ROWS)
+                .tags("repository", "TaskRepository", "method", "findByUserUsername").summary();
+        assertEquals(1, list.count());
+        assertEquals(3, list.totalAmount());
+        DistributionSummary byId = registry.get(MethodMetricsAspect.REPOSITORY_ROWS)
+                .tags("method", "findById").summary();
+        assertEquals(0, byId.totalAmount());
+        // scalar results are not row counts
+        assertNull(registry.find(MethodMetricsAspect.REPOSITORY_ROWS).tags("method", "count").summary());
+    }
+
+    @Test
+    void timesSuccessfulAndFailedCallsSeparately() {
+        TaskRepository taskRepository = mock(TaskRepository.class);
+        when(taskRepository.findTextByUserUsername("admin")).thenReturn(List.<TaskText>of());
+        when(taskRepository.findTextByUserUsername("broken")).thenThrow(new IllegalStateException("db down"));
+        TaskSearchIndex index = proxy(new TaskSearchIndex(taskRepository, 10, Duration.ofMinutes(10)));
+
+        index.search("admin", "milk", 10);
+        index.search("admin", "bread", 10);
+        assertThrows(IllegalStateException.class, () -> index.search("broken", "milk", 10));
+
+        Timer ok = registry.get(MethodMetricsAspect.METHOD_TIMER)
+                .tags("class", "TaskSearchIndex", "method", "search", "exception", "none").timer();
+        Timer failed = registry.get(MethodMetricsAspect.METHOD_TIMER)
+                .tags("method", "search", "exception", "IllegalStateException").timer();
+        assertEquals(2, ok.count());
+        assertEquals(1, failed.count());
+    }
+}
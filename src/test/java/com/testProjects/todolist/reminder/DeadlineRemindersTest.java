@@ -0,0 +1,215 @@
+package com.testProjects.todolist.reminder;
+
+import com.testProjects.todolist.repositories.TaskRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class DeadlineRemindersTest {
+
+    static final LocalDate MONDAY = LocalDate.of(2024, 3, 4);
+
+    /** A clock the test moves by hand. */
+    static final class ManualClock extends Clock {
+        LocalDate today = MONDAY;
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return today.atStartOfDay(ZoneOffset.UTC).plusHours(9).toInstant();
+        }
+    }
+
+    TaskRepository taskRepository;
+    ManualClock clock;
+    List<DeadlineEvent> events;
+    DeadlineReminders reminders;
+
+    private static DeadlineReminder reminder(long id, LocalDate deadline) {
+        return new DeadlineReminder(id, 1L, "task " + id, deadline);
+    }
+
+    private List<String> drain() {
+        List<String> fired = events.stream()
+                .map(e -> e.reminder().taskId() + ":" + e.kind() + "@" + e.firedOn().getDayOfMonth())
+                .toList();
+        events.clear();
+        return fired;
+    }
+
+    private void advanceTo(LocalDate day) {
+        clock.today = day;
+        reminders.tick();
+    }
+
+    @BeforeEach
+    void setUp() {
+        taskRepository = mock(TaskRepository.class);
+        when(taskRepository.findDeadlinesBetween(any(), any())).thenReturn(List.of());
+        clock = new ManualClock();
+        events = new ArrayList<>();
+        reminders = new DeadlineReminders(taskRepository, List.of(events::add), true, 7, clock);
+    }
+
+    @Test
+    void recover_loadsTheHorizonInOneQuery_andFiresDueThenOverdue() {
+        when(taskRepository.findDeadlinesBetween(MONDAY.minusDays(1), MONDAY.plusDays(6))).thenReturn(List.of(
+                reminder(1, MONDAY), reminder(2, MONDAY.plusDays(2))));
+        reminders.recover();
+        verify(taskRepository, times(1)).findDeadlinesBetween(any(), any());
+
+        reminders.tick();
+        assertEquals(List.of("1:DUE@4"), drain());
+        reminders.tick();
+        assertEquals(List.of(), drain());
+
+        advanceTo(MONDAY.plusDays(1));
+        assertEquals(List.of("1:OVERDUE@5"), drain());
+        advanceTo(MONDAY.plusDays(2));
+        assertEquals(List.of("2:DUE@6"), drain());
+    }
+
+    @Test
+    void restart_stillRaisesOverdue_forADeadlineThatPassedTheDayBefore() {
+        when(taskRepository.findDeadlinesBetween(MONDAY.minusDays(1), MONDAY.plusDays(6)))
+                .thenReturn(List.of(reminder(1, MONDAY.minusDays(1))));
+        reminders.recover();
+
+        reminders.tick();
+        assertEquals(List.of("1:DUE@3", "1:OVERDUE@4"), drain());
+    }
+
+    @Test
+    void turningTheWheel_loadsOnlyTheDaysEnteringTheHorizon() {
+        reminders.recover();
+        reminders.tick();
+        LocalDate nextMonday = MONDAY.plusDays(7);
+        when(taskRepository.findDeadlinesBetween(nextMonday, nextMonday.plusDays(2)))
+                .thenReturn(List.of(reminder(7, nextMonday.plusDays(1))));
+
+        advanceTo(MONDAY.plusDays(2));
+        verify(taskRepository).findDeadlinesBetween(nextMonday, nextMonday.plusDays(2));
+
+        advanceTo(nextMonday.plusDays(1));
+        assertEquals(List.of("7:DUE@12"), drain());
+    }
+
+    @Test
+    void loadingTheDaysEnteringTheHorizon_doesNotBlockWrites_norUndoThem() {
+        LocalDate entering = MONDAY.plusDays(6);
+        when(taskRepository.findDeadlinesBetween(entering, entering.plusDays(1))).thenAnswer(invocation -> {
+            // writes from another thread, made after the query read the rows
+            CompletableFuture.runAsync(() -> {
+                reminders.cancel(5L);
+                reminders.schedule(reminder(6, MONDAY.plusDays(30)));
+            }).get(5, TimeUnit.SECONDS);
+            return List.of(reminder(5, entering), reminder(6, entering), reminder(7, entering));
+        });
+
+        reminders.tick();
+
+        advanceTo(entering);
+        assertEquals(List.of("7:DUE@10"), drain());
+    }
+
+    @Test
+    void failedLoad_isRetriedOnTheNextTick() {
+        LocalDate entering = MONDAY.plusDays(6);
+        when(taskRepository.findDeadlinesBetween(entering, entering.plusDays(1)))
+                .thenThrow(new IllegalStateException("database down"))
+                .thenReturn(List.of(reminder(7, entering)));
+
+        assertThrows(IllegalStateException.class, reminders::tick);
+        reminders.tick();
+
+        advanceTo(entering);
+        assertEquals(List.of("7:DUE@10"), drain());
+    }
+
+    @Test
+    void missedDays_fireInOrder() {
+        reminders.schedule(reminder(1, MONDAY.plusDays(1)));
+        reminders.schedule(reminder(2, MONDAY.plusDays(2)));
+
+        advanceTo(MONDAY.plusDays(5));
+        assertEquals(List.of("1:DUE@5", "2:DUE@6", "1:OVERDUE@6", "2:OVERDUE@7"), drain());
+    }
+
+    @Test
+    void taskDueToday_firesEvenIfAddedAfterTodaysTurn() {
+        reminders.tick();
+        reminders.schedule(reminder(1, MONDAY));
+        reminders.tick();
+        assertEquals(List.of("1:DUE@4"), drain());
+    }
+
+    @Test
+    void hooks_moveAndCancelReminders() {
+        reminders.schedule(reminder(1, MONDAY.plusDays(1)));
+        reminders.schedule(reminder(2, MONDAY.plusDays(1)));
+        reminders.schedule(reminder(1, MONDAY.plusDays(3)));   // deadline moved
+        reminders.cancel(2L);                                  // deleted
+        reminders.schedule(reminder(3, MONDAY.plusDays(1)));
+        reminders.schedule(reminder(3, null));                 // deadline cleared
+        reminders.schedule(reminder(4, MONDAY.plusDays(30)));  // beyond the horizon
+
+        advanceTo(MONDAY.plusDays(3));
+        assertEquals(List.of("1:DUE@7"), drain());
+    }
+
+    @Test
+    void editingADueTask_keepsItsProgress() {
+        reminders.schedule(reminder(1, MONDAY));
+        reminders.tick();
+        assertEquals(List.of("1:DUE@4"), drain());
+
+        reminders.schedule(new DeadlineReminder(1L, 1L, "renamed", MONDAY));
+        reminders.tick();
+        assertEquals(List.of(), drain());
+
+        advanceTo(MONDAY.plusDays(1));
+        assertEquals("renamed", events.get(0).reminder().title());
+        assertEquals(List.of("1:OVERDUE@5"), drain());
+    }
+
+    @Test
+    void failingSink_doesNotStopTheOthers() {
+        reminders = new DeadlineReminders(taskRepository, List.of(
+                e -> { throw new IllegalStateException("down"); }, events::add), true, 7, clock);
+        reminders.schedule(reminder(1, MONDAY));
+        reminders.tick();
+        assertEquals(List.of("1:DUE@4"), drain());
+    }
+
+    @Test
+    void disabled_queriesNothing_andHoldsNothing() {
+        reminders = new DeadlineReminders(taskRepository, List.of(events::add), false, 7, clock);
+        reminders.recover();
+        reminders.schedule(reminder(1, MONDAY));
+        reminders.tick();
+        assertEquals(List.of(), drain());
+        verifyNoInteractions(taskRepository);
+    }
+}
@@ -0,0 +1,174 @@
+package com.testProjects.todolist.repositories;
+
+import com.testProjects.todolist.config.IdAllocationConfig;
+import com.testProjects.todolist.models.Priority;
+import com.testProjects.todolist.models.Task;
+import com.testProjects.todolist.models.User;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Cache;
+import org.hibernate.Hibernate;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Counts the statements behind repository reads with the second-level cache on. Every
+ * call runs in its own transaction, so only the shared cache can save a query.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("h2")
+@Import(IdAllocationConfig.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class SecondLevelCacheTest {
+
+    @Autowired TaskRepository taskRepository;
+    @Autowired UserRepository userRepository;
+    @Autowired EntityManagerFactory entityManagerFactory;
+    @Autowired PlatformTransactionManager transactionManager;
+
+    Statistics statistics;
+    Cache cache;
+    User owner;
+    Task first;
+    Task second;
+
+    @BeforeEach
+    void seed() {
+        SessionFactory sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+        statistics = sessionFactory.getStatistics();
+        cache = sessionFactory.getCache();
+        cache.evictAllRegions();
+
+        owner = new User();
+        owner.setUsername("cached");
+        owner.setPassword("x");
+        owner = userRepository.save(owner);
+        first = task("first");
+        second = task("second");
+        taskRepository.saveAll(List.of(first, second));
+    }
+
+    @AfterEach
+    void cleanUp() {
+        taskRepository.deleteAllInBatch();
+        userRepository.deleteAllInBatch();
+        cache.evictAllRegions();
+    }
+
+    private Task task(String title) {
+        Task task = new Task();
+        task.setTitle(title);
+        task.setPriority(Priority.LOW);
+        task.setUser(owner);
+        return task;
+    }
+
+    private long statements(Runnable work) {
+        long before = statistics.getPrepareStatementCount();
+        work.run();
+        return statistics.getPrepareStatementCount() - before;
+    }
+
+    @Test
+    void userByUsername_isServedFromTheCache_afterTheFirstLoad() {
+        cache.evictAllRegions();
+        assertEquals(1, statements(() -> userRepository.findByUsername("cached").orElseThrow()));
+        assertEquals(0, statements(() -> assertEquals(owner.getId(),
+                userRepository.findByUsername("cached").orElseThrow().getId())));
+        assertTrue(userRepository.findByUsername("nobody").isEmpty());
+    }
+
+    @Test
+    void versionBump_leavesTheCachedUserInPlace() {
+        userRepository.findByUsername("cached").orElseThrow();
+        userRepository.bumpTasksVersion(owner.getId());
+
+        assertTrue(cache.containsEntity(User.class, owner.getId()));
+        assertEquals(0, statements(() -> userRepository.findByUsername("cached").orElseThrow()));
+        assertEquals(1L, userRepository.findTasksVersionByUsername("cached").orElseThrow());
+    }
+
+    @Test
+    void passwordUpdate_evictsTheCachedUser() {
+        userRepository.findByUsername("cached").orElseThrow();
+        assertEquals(1, userRepository.updatePassword(owner.getId(), "rehashed"));
+
+        assertFalse(cache.containsEntity(User.class, owner.getId()));
+        assertEquals("rehashed", userRepository.findByUsername("cached").orElseThrow().getPassword());
+    }
+
+    @Test
+    void detailLookup_isServedFromTheCache_andLeavesTheOwnerUnloaded() {
+        cache.evictAllRegions();
+        assertEquals(1, statements(() -> taskRepository.findDetailById(first.getId()).orElseThrow()));
+        assertEquals(0, statements(() -> {
+            Task detail = taskRepository.findDetailById(first.getId()).orElseThrow();
+            assertEquals("first", detail.getTitle());
+            assertFalse(Hibernate.isInitialized(detail.getUser()));
+        }));
+        assertTrue(taskRepository.findDetailById(-1L).isEmpty());
+    }
+
+    @Test
+    void exportStream_bypassesTheCache() {
+        cache.evictAllRegions();
+        long exported = new TransactionTemplate(transactionManager).execute(status -> {
+            try (Stream<Task> tasks = taskRepository.streamByUserId(owner.getId())) {
+                return tasks.count();
+            }
+        });
+
+        assertEquals(2, exported);
+        assertFalse(cache.containsEntity(Task.class, first.getId()));
+        assertFalse(cache.containsEntity(Task.class, second.getId()));
+    }
+
+    @Test
+    void ownedUpdate_evictsOnlyTheTaskItWrote() {
+        taskRepository.findById(first.getId()).orElseThrow();
+        taskRepository.findById(second.getId()).orElseThrow();
+
+        assertEquals(1, taskRepository.updateOwned(first.getId(), owner.getId(), first.getVersion(),
+                "changed", null, Priority.HIGH, null));
+        assertEquals(0, taskRepository.updateOwned(first.getId(), owner.getId(), first.getVersion(),
+                "stale", null, Priority.HIGH, null));
+
+        assertFalse(cache.containsEntity(Task.class, first.getId()));
+        assertEquals(1, statements(() -> {
+            Task reloaded = taskRepository.findById(first.getId()).orElseThrow();
+            assertEquals("changed", reloaded.getTitle());
+            assertEquals(first.getVersion() + 1, reloaded.getVersion());
+        }));
+        assertEquals(0, statements(() -> taskRepository.findById(second.getId()).orElseThrow()));
+    }
+
+    @Test
+    void ownedDelete_evictsTheTask_andOnlyForItsOwnerAtTheExpectedVersion() {
+        taskRepository.findById(first.getId()).orElseThrow();
+
+        assertEquals(0, taskRepository.deleteOwned(first.getId(), owner.getId() + 1, null));
+        assertEquals(0, taskRepository.deleteOwned(first.getId(), owner.getId(), first.getVersion() + 1));
+        assertTrue(cache.containsEntity(Task.class, first.getId()));
+
+        assertEquals(1, taskRepository.deleteOwned(first.getId(), owner.getId(), first.getVersion()));
+        assertFalse(cache.containsEntity(Task.class, first.getId()));
+        assertTrue(taskRepository.findById(first.getId()).isEmpty());
+    }
+}
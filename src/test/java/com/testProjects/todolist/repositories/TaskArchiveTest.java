@@ -0,0 +1,164 @@
+package com.testProjects.todolist.repositories;
+
+import com.testProjects.todolist.archive.ArchivedTaskRef;
+import com.testProjects.todolist.config.IdAllocationConfig;
+import com.testProjects.todolist.dto.TaskSummary;
+import com.testProjects.todolist.models.ArchivedTask;
+import com.testProjects.todolist.models.Priority;
+import com.testProjects.todolist.models.Task;
+import com.testProjects.todolist.models.User;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Completion and the archive move on H2: completed tasks leave the task table in
+ * batches, oldest completion first, and stay readable from archived_task.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("h2")
+@Import(IdAllocationConfig.class)
+class TaskArchiveTest {
+
+    static final LocalDateTime NOW = LocalDateTime.of(2024, 6, 1, 12, 0);
+
+    @Autowired TaskRepository taskRepository;
+    @Autowired UserRepository userRepository;
+    @Autowired ArchivedTaskRepository archivedTaskRepository;
+    @Autowired EntityManager entityManager;
+    @Autowired JdbcTemplate jdbc;
+
+    private User alice;
+    private User bob;
+    private final List<Task> tasks = new ArrayList<>();
+
+    @BeforeEach
+    void seed() {
+        alice = user("alice");
+        bob = user("bob");
+        for (int i = 0; i < 6; i++) {
+            Task task = new Task();
+            task.setTitle((i % 2 == 0 ? "alice" : "bob") + " task " + i);
+            task.setUser(i % 2 == 0 ? alice : bob);
+            task.setPriority(Priority.LOW);
+            task.setDeadline(LocalDate.of(2024, 1, 1));
+            tasks.add(task);
+        }
+        taskRepository.saveAllAndFlush(tasks);
+    }
+
+    private User user(String name) {
+        User user = new User();
+        user.setUsername(name);
+        user.setPassword("x");
+        return userRepository.save(user);
+    }
+
+    private void completedAt(Task task, LocalDateTime at) {
+        assertEquals(1, taskRepository.completeOwned(task.getId(), task.getUser().getId(), at));
+    }
+
+    @Test
+    void completion_keepsTheFirstTime_reopenClearsIt_andOnlyTheOwnerCanDoEither() {
+        Task task = tasks.get(0);
+        long version = jdbc.queryForObject("select version from task where id = ?", Long.class, task.getId());
+
+        completedAt(task, NOW.minusDays(2));
+        completedAt(task, NOW);
+        assertEquals(NOW.minusDays(2), jdbc.queryForObject(
+                "select completed_at from task where id = ?", LocalDateTime.class, task.getId()));
+        assertEquals(0, taskRepository.completeOwned(task.getId(), bob.getId(), null));
+        assertEquals(version + 2, jdbc.queryForObject("select version from task where id = ?", Long.class, task.getId()));
+
+        // completed tasks are neither overdue nor reminded of
+        List<TaskSummary> overdue = taskRepository.findOverdueByOwner(alice.getId(), LocalDate.of(2024, 2, 1),
+                Limit.of(10));
+        assertEquals(2, overdue.size());
+        assertEquals(5, taskRepository.findDeadlinesBetween(LocalDate.of(2024, 1, 1), LocalDate.of(2024, 1, 2)).size());
+        assertEquals(2, taskRepository.countByOwnerGroupByDeadline(alice.getId()).get(0).count());
+        assertNull(taskRepository.findFactsByIdAndUserId(task.getId(), alice.getId()).orElseThrow().deadline());
+
+        completedAt(task, null);
+        assertNull(jdbc.queryForObject("select completed_at from task where id = ?", LocalDateTime.class,
+                task.getId()));
+    }
+
+    @Test
+    void dueBetween_leavesCompletedTasksOut_likeOverdue() {
+        completedAt(tasks.get(0), NOW);
+
+        List<TaskSummary> due = taskRepository.findDueBetweenByOwner(alice.getId(),
+                LocalDate.of(2024, 1, 1), LocalDate.of(2024, 1, 31), Limit.of(10));
+
+        assertEquals(List.of(tasks.get(2).getId(), tasks.get(4).getId()),
+                due.stream().map(TaskSummary::id).toList());
+    }
+
+    @Test
+    void archiveCompleted_movesDueTasksInBatches_oldestCompletionFirst() {
+        completedAt(tasks.get(0), NOW.minusDays(40));
+        completedAt(tasks.get(1), NOW.minusDays(50));
+        completedAt(tasks.get(2), NOW.minusDays(45));
+        completedAt(tasks.get(3), NOW.minusDays(1));   // completed, but not long enough ago
+        LocalDateTime cutoff = NOW.minusDays(30);
+
+        List<ArchivedTaskRef> first = taskRepository.archiveCompleted(cutoff, NOW, 2);
+        List<ArchivedTaskRef> second = taskRepository.archiveCompleted(cutoff, NOW, 2);
+        List<ArchivedTaskRef> third = taskRepository.archiveCompleted(cutoff, NOW, 2);
+        entityManager.clear();
+
+        assertEquals(List.of(tasks.get(1).getId(), tasks.get(2).getId()),
+                first.stream().map(ArchivedTaskRef::taskId).toList());
+        assertEquals("bob", first.get(0).username());
+        assertEquals(List.of(new ArchivedTaskRef(tasks.get(0).getId(), alice.getId(), "alice")), second);
+        assertTrue(third.isEmpty());
+        assertEquals(3, taskRepository.count());
+        assertTrue(taskRepository.findById(tasks.get(0).getId()).isEmpty());
+
+        ArchivedTask archived = archivedTaskRepository.findById(tasks.get(2).getId()).orElseThrow();
+        assertEquals("alice task 2", archived.getTitle());
+        assertEquals(alice.getId(), archived.getUserId());
+        assertEquals(NOW.minusDays(45), archived.getCompletedAt());
+        assertEquals(NOW, archived.getArchivedAt());
+    }
+
+    @Test
+    void archiveSearch_readsOneOwnersArchive_newestCompletionFirst() {
+        completedAt(tasks.get(0), NOW.minusDays(40));
+        completedAt(tasks.get(2), NOW.minusDays(35));
+        completedAt(tasks.get(4), NOW.minusDays(50));
+        completedAt(tasks.get(1), NOW.minusDays(40));
+        taskRepository.archiveCompleted(NOW.minusDays(30), NOW, 10);
+
+        Slice<ArchivedTask> page = archivedTaskRepository.findByOwner(alice.getId(), PageRequest.of(0, 2));
+        assertEquals(List.of(tasks.get(2).getId(), tasks.get(0).getId()),
+                page.getContent().stream().map(ArchivedTask::getId).toList());
+        assertTrue(page.hasNext());
+        Slice<ArchivedTask> found = archivedTaskRepository.searchByOwner(alice.getId(), "%task 4%",
+                PageRequest.of(0, 2));
+        assertEquals(List.of(tasks.get(4).getId()), found.getContent().stream().map(ArchivedTask::getId).toList());
+        assertFalse(found.hasNext());
+
+        String plan = String.join("\n", jdbc.queryForList("explain select * from archived_task a "
+                + "where a.user_id = " + alice.getId() + " order by a.completed_at desc, a.id desc limit 21",
+                String.class));
+        assertTrue(plan.toLowerCase().contains("idx_archived_task_user_completed"), plan);
+    }
+}
@@ -0,0 +1,135 @@
+package com.testProjects.todolist.repositories;
+
+import com.testProjects.todolist.config.IdAllocationConfig;
+import com.testProjects.todolist.dto.TaskCursor;
+import com.testProjects.todolist.dto.TaskSelection;
+import com.testProjects.todolist.models.Priority;
+import com.testProjects.todolist.models.Task;
+import com.testProjects.todolist.models.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The set-based writes behind bulk actions on H2: chunks are locked in keyset order
+ * through the filters, and every statement stays within the owner's tasks.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("h2")
+@Import(IdAllocationConfig.class)
+class TaskBulkWriteTest {
+
+    static final LocalDate JAN_1 = LocalDate.of(2024, 1, 1);
+
+    @Autowired TaskRepository taskRepository;
+    @Autowired UserRepository userRepository;
+    @Autowired JdbcTemplate jdbc;
+
+    private User alice;
+    private final List<Task> aliceTasks = new ArrayList<>();
+    private Task bobTask;
+
+    @BeforeEach
+    void seed() {
+        alice = user("alice");
+        User bob = user("bob");
+        // LOW, HIGH, LOW, HIGH, LOW, HIGH due Jan 1..6; the last one has no deadline
+        for (int i = 0; i < 6; i++) {
+            aliceTasks.add(task(alice, "alice task " + i, i % 2 == 0 ? Priority.LOW : Priority.HIGH,
+                    i < 5 ? JAN_1.plusDays(i) : null));
+        }
+        bobTask = task(bob, "bob task", Priority.LOW, JAN_1);
+        taskRepository.saveAllAndFlush(aliceTasks);
+        taskRepository.saveAndFlush(bobTask);
+    }
+
+    private User user(String name) {
+        User user = new User();
+        user.setUsername(name);
+        user.setPassword("x");
+        return userRepository.save(user);
+    }
+
+    private static Task task(User owner, String title, Priority priority, LocalDate deadline) {
+        Task task = new Task();
+        task.setTitle(title);
+        task.setUser(owner);
+        task.setPriority(priority);
+        task.setDeadline(deadline);
+        return task;
+    }
+
+    private Long id(int i) {
+        return aliceTasks.get(i).getId();
+    }
+
+    private List<Long> lock(TaskSelection selection, TaskCursor after, int limit) {
+        return taskRepository.lockOwned(alice.getId(), selection, after, limit).stream()
+                .map(TaskCursor::id).toList();
+    }
+
+    private <T> T column(String column, Long id, Class<T> type) {
+        return jdbc.queryForObject("select " + column + " from task where id = ?", type, id);
+    }
+
+    @Test
+    void lockOwned_walksTheFilteredTasksInKeysetOrder_andNeverOthersTasks() {
+        TaskSelection low = new TaskSelection(null, Priority.LOW, null, null, null);
+        List<TaskCursor> first = taskRepository.lockOwned(alice.getId(), low, null, 2);
+        assertEquals(List.of(id(0), id(2)), first.stream().map(TaskCursor::id).toList());
+        assertEquals(List.of(id(4)), lock(low, first.get(1), 2));
+
+        assertEquals(List.of(id(1), id(2), id(3)),
+                lock(new TaskSelection(null, null, null, JAN_1.plusDays(1), JAN_1.plusDays(3)), null, 10));
+        assertEquals(List.of(id(3), id(5)), lock(TaskSelection.ofIds(List.of(id(5), bobTask.getId(), id(3))), null, 10));
+        assertEquals(List.of(id(5)),
+                lock(new TaskSelection(List.of(id(4), id(5)), Priority.HIGH, null, null, null), null, 10));
+
+        taskRepository.completeOwnedIn(alice.getId(), List.of(id(0), id(1)), LocalDateTime.now());
+        assertEquals(List.of(id(0), id(1)), lock(new TaskSelection(null, null, true, null, null), null, 10));
+        assertEquals(List.of(id(2), id(4)), lock(new TaskSelection(null, Priority.LOW, false, null, null), null, 10));
+    }
+
+    @Test
+    void bulkWrites_countOnlyTheTasksTheyChange_andLeaveOtherOwnersAlone() {
+        List<Long> all = new ArrayList<>(aliceTasks.stream().map(Task::getId).toList());
+        all.add(bobTask.getId());
+        Long aliceId = alice.getId();
+        long version = column("version", id(0), Long.class);
+
+        assertEquals(2, taskRepository.completeOwnedIn(aliceId, List.of(id(0), id(1), bobTask.getId()),
+                LocalDateTime.now()));
+        assertEquals(0, taskRepository.completeOwnedIn(aliceId, List.of(id(0), id(1)), LocalDateTime.now()));
+        assertEquals(1, taskRepository.completeOwnedIn(aliceId, List.of(id(1), id(2)), null));
+        assertNull(column("completed_at", bobTask.getId(), LocalDateTime.class));
+        assertEquals(version + 1, column("version", id(0), Long.class));
+
+        assertEquals(3, taskRepository.setPriorityOwnedIn(aliceId, all, Priority.HIGH));
+        assertEquals("HIGH", column("priority", id(4), String.class));
+        assertEquals("LOW", column("priority", bobTask.getId(), String.class));
+
+        assertEquals(5, taskRepository.shiftDeadlinesOwnedIn(aliceId, all, 7));
+        assertEquals(1, taskRepository.shiftDeadlinesOwnedIn(aliceId, List.of(id(0)), -3));
+        assertEquals(JAN_1.plusDays(4), column("deadline", id(0), LocalDate.class));
+        assertEquals(JAN_1.plusDays(11), column("deadline", id(4), LocalDate.class));
+        assertNull(column("deadline", id(5), LocalDate.class));
+        assertEquals(JAN_1, column("deadline", bobTask.getId(), LocalDate.class));
+
+        assertEquals(6, taskRepository.deleteOwnedIn(aliceId, all));
+        assertEquals(0, taskRepository.deleteOwnedIn(aliceId, List.of()));
+        assertEquals(1, taskRepository.count());
+    }
+}
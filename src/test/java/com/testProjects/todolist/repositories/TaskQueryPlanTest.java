@@ -0,0 +1,163 @@
+package com.testProjects.todolist.repositories;
+
+import com.testProjects.todolist.config.IdAllocationConfig;
+import com.testProjects.todolist.dto.TaskSummary;
+import com.testProjects.todolist.models.Priority;
+import com.testProjects.todolist.models.Task;
+import com.testProjects.todolist.models.User;
+import com.testProjects.todolist.reminder.DeadlineReminder;
+import com.testProjects.todolist.stats.DayCount;
+import com.testProjects.todolist.stats.PriorityCount;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Checks that the per-user list and filter queries are answered through one of the
+ * user_id-leading indexes declared on Task rather than a scan of the tasks table.
+ * Plans come from H2; the SQL mirrors the JPQL in {@link TaskRepository}.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("h2")
+@Import(IdAllocationConfig.class)
+class TaskQueryPlanTest {
+
+    @Autowired TaskRepository taskRepository;
+    @Autowired UserRepository userRepository;
+    @Autowired JdbcTemplate jdbc;
+
+    private User owner;
+
+    @BeforeEach
+    void seed() {
+        List<Task> tasks = new ArrayList<>();
+        for (String name : List.of("alice", "bob", "carol")) {
+            User user = new User();
+            user.setUsername(name);
+            user.setPassword("x");
+            user = userRepository.save(user);
+            if (owner == null) {
+                owner = user;
+            }
+            for (int i = 0; i < 200; i++) {
+                Task task = new Task();
+                task.setTitle(name + " " + i);
+                task.setUser(user);
+                task.setPriority(Priority.values()[i % 3]);
+                task.setDeadline(i % 5 == 0 ? null : LocalDate.of(2024, 1, 1).plusDays(i));
+                tasks.add(task);
+            }
+        }
+        taskRepository.saveAllAndFlush(tasks);
+    }
+
+    private String plan(String sql) {
+        return String.join("\n", jdbc.queryForList("explain " + sql, String.class));
+    }
+
+    private void assertUsesIndex(String index, String sql) {
+        String plan = plan(sql);
+        assertFalse(plan.contains("TASK.tableScan"), plan);
+        assertTrue(plan.toLowerCase().contains(index), plan);
+    }
+
+    private void assertSeeksByUser(String sql) {
+        String plan = plan(sql);
+        assertFalse(plan.contains("TASK.tableScan"), plan);
+        assertTrue(plan.contains(": USER_ID = U.ID */"), plan);
+    }
+
+    @Test
+    void keysetPagesSeekByUser() {
+        // H2 does not read the index in order, so it is free to pick the equally selective
+        // foreign key index; MySQL folds that one into idx_task_user_created
+        assertSeeksByUser("select t.* from task t join users u on u.id = t.user_id where u.username = 'alice' "
+                + "order by t.created_at, t.id limit 21");
+        assertSeeksByUser("select t.* from task t join users u on u.id = t.user_id where u.username = 'alice' "
+                + "and (t.created_at > timestamp '2024-01-01 10:00:00' "
+                + "or (t.created_at = timestamp '2024-01-01 10:00:00' and t.id > 50)) "
+                + "order by t.created_at, t.id limit 21");
+    }
+
+    @Test
+    void priorityFilterUsesPriorityDeadlineIndex() {
+        assertUsesIndex("idx_task_user_priority_deadline",
+                "select * from task t where t.user_id = " + owner.getId() + " and t.priority = 'HIGH' "
+                        + "order by t.deadline, t.id limit 100");
+    }
+
+    @Test
+    void deadlineFiltersUseDeadlineIndex() {
+        assertUsesIndex("idx_task_user_deadline",
+                "select * from task t where t.user_id = " + owner.getId() + " and t.deadline < date '2024-03-01' "
+                        + "and t.completed_at is null order by t.deadline, t.id limit 100");
+        assertUsesIndex("idx_task_user_deadline",
+                "select * from task t where t.user_id = " + owner.getId()
+                        + " and t.deadline between date '2024-02-01' and date '2024-02-28' "
+                        + "order by t.deadline, t.id limit 100");
+    }
+
+    @Test
+    void reminderWindowUsesDeadlineIndex() {
+        assertUsesIndex("idx_task_deadline",
+                "select t.id, t.user_id, t.title, t.deadline from task t "
+                        + "where t.deadline >= date '2024-02-01' and t.deadline < date '2024-02-08'");
+
+        // all three users' tasks of that week, with their owners
+        List<DeadlineReminder> week = taskRepository.findDeadlinesBetween(
+                LocalDate.of(2024, 2, 1), LocalDate.of(2024, 2, 8));
+        assertEquals(18, week.size());
+        assertEquals(3, week.stream().map(DeadlineReminder::userId).distinct().count());
+    }
+
+    @Test
+    void statisticsCountsUseTheOwnersIndexes() {
+        assertUsesIndex("idx_task_user_priority_deadline",
+                "select t.priority, count(*) from task t where t.user_id = " + owner.getId() + " group by t.priority");
+        assertUsesIndex("idx_task_user_deadline",
+                "select t.deadline, count(*) from task t where t.user_id = " + owner.getId()
+                        + " and t.deadline is not null group by t.deadline");
+
+        List<PriorityCount> byPriority = taskRepository.countByOwnerGroupByPriority(owner.getId());
+        assertEquals(200, byPriority.stream().mapToLong(PriorityCount::count).sum());
+        assertEquals(3, byPriority.size());
+        List<DayCount> byDeadline = taskRepository.countByOwnerGroupByDeadline(owner.getId());
+        assertEquals(160, byDeadline.stream().mapToLong(DayCount::count).sum());
+        // all of the owner's tasks were created just now
+        List<DayCount> created = taskRepository.countByOwnerCreatedSinceGroupByDay(owner.getId(),
+                LocalDate.now().minusDays(1).atStartOfDay());
+        assertEquals(200, created.stream().mapToLong(DayCount::count).sum());
+        assertTrue(created.stream().allMatch(c -> !c.day().isBefore(LocalDate.now().minusDays(1))));
+    }
+
+    @Test
+    void scopedQueriesReturnOnlyTheOwnersMatchingRows() {
+        List<TaskSummary> high = taskRepository.findByOwnerAndPriority(owner.getId(), Priority.HIGH, Limit.of(500));
+        assertEquals(66, high.size());
+        assertTrue(high.stream().allMatch(t -> t.priority() == Priority.HIGH && t.title().startsWith("alice")));
+
+        LocalDate today = LocalDate.of(2024, 2, 1);
+        List<TaskSummary> overdue = taskRepository.findOverdueByOwner(owner.getId(), today, Limit.of(500));
+        // deadlines 2024-01-02 .. 2024-01-31, minus every fifth task, which has none
+        assertEquals(24, overdue.size());
+        assertTrue(overdue.stream().allMatch(t -> t.deadline().isBefore(today)));
+
+        List<TaskSummary> due = taskRepository.findDueBetweenByOwner(owner.getId(),
+                LocalDate.of(2024, 1, 10), LocalDate.of(2024, 1, 19), Limit.of(5));
+        assertEquals(5, due.size());
+        assertEquals(LocalDate.of(2024, 1, 10), due.get(0).deadline());
+    }
+}
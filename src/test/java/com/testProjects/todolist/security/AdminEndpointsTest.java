@@ -0,0 +1,40 @@
+package com.testProjects.todolist.security;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.authorization.AuthorizationManager;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.web.access.intercept.RequestAuthorizationContext;
+
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AdminEndpointsTest {
+
+    private static boolean granted(AuthorizationManager<RequestAuthorizationContext> manager, Authentication authentication) {
+        return manager.check(() -> authentication, null).isGranted();
+    }
+
+    private static Authentication user(String username) {
+        return UsernamePasswordAuthenticationToken.authenticated(new CustomUserDetails(7L, username), null, null);
+    }
+
+    @Test
+    void onlyConfiguredAdmins_mayReadTheOperatorEndpoints() {
+        AuthorizationManager<RequestAuthorizationContext> admins = SecurityConfig.admins(Set.of("ops"));
+
+        assertTrue(granted(admins, user("ops")));
+        assertFalse(granted(admins, user("ana")), "a self-registered user is not an admin");
+        assertFalse(granted(admins, null));
+        assertFalse(granted(admins, new AnonymousAuthenticationToken("key", "ops",
+                AuthorityUtils.createAuthorityList("ROLE_ANONYMOUS"))));
+    }
+
+    @Test
+    void noAdminsConfigured_locksEveryoneOut() {
+        assertFalse(granted(SecurityConfig.admins(Set.of()), user("ana")));
+    }
+}
@@ -0,0 +1,105 @@
+package com.testProjects.todolist.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.*;
+
+class BoundedPasswordEncoderTest {
+
+    /** Hashes only once released, so the pool can be filled on purpose. */
+    static final class GatedEncoder implements PasswordEncoder {
+        final CountDownLatch started = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+
+        @Override
+        public String encode(CharSequence rawPassword) {
+            started.countDown();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return "hash:" + rawPassword;
+        }
+
+        @Override
+        public boolean matches(CharSequence rawPassword, String encodedPassword) {
+            return encode(rawPassword).equals(encodedPassword);
+        }
+    }
+
+    SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    @Test
+    void fullQueue_failsAtOnce_andTheQueuedHashStillRuns() throws Exception {
+        GatedEncoder gated = new GatedEncoder();
+        BoundedPasswordEncoder encoder = new BoundedPasswordEncoder(gated, 1, 1, Duration.ofSeconds(5), registry);
+        CompletableFuture<String> running = CompletableFuture.supplyAsync(() -> encoder.encode("a"));
+        assertTrue(gated.started.await(5, TimeUnit.SECONDS));
+        CompletableFuture<String> queued = CompletableFuture.supplyAsync(() -> encoder.encode("b"));
+        while (registry.get("todolist.password.queued").gauge().value() < 1) {
+            Thread.onSpinWait();
+        }
+
+        assertThrows(PasswordHashingUnavailableException.class, () -> encoder.encode("c"));
+        assertEquals(1, registry.counter("todolist.password.rejected").count());
+
+        gated.release.countDown();
+        assertEquals("hash:a", running.get(5, TimeUnit.SECONDS));
+        assertEquals("hash:b", queued.get(5, TimeUnit.SECONDS));
+        encoder.destroy();
+    }
+
+    @Test
+    void hashThatWaitedPastMaxWait_isSkipped() throws Exception {
+        GatedEncoder gated = new GatedEncoder();
+        BoundedPasswordEncoder encoder = new BoundedPasswordEncoder(gated, 1, 4, Duration.ofMillis(50), registry);
+        CompletableFuture<String> running = CompletableFuture.supplyAsync(() -> encoder.encode("a"));
+        assertTrue(gated.started.await(5, TimeUnit.SECONDS));
+        CompletableFuture<String> late = CompletableFuture.supplyAsync(() -> encoder.encode("b"));
+        Thread.sleep(100);
+        gated.release.countDown();
+
+        assertEquals("hash:a", running.get(5, TimeUnit.SECONDS));
+        Exception failure = assertThrows(Exception.class, () -> late.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(PasswordHashingUnavailableException.class, failure.getCause());
+        encoder.destroy();
+    }
+
+    @Test
+    void loginWithAHashOfALowerCost_storesANewHash() {
+        BoundedPasswordEncoder encoder = new BoundedPasswordEncoder(new BCryptPasswordEncoder(5), 1, 4,
+                Duration.ofSeconds(5), registry);
+        String oldHash = new BCryptPasswordEncoder(4).encode("pw");
+        UserDetailsPasswordService passwordService = mock(UserDetailsPasswordService.class);
+        when(passwordService.updatePassword(any(), any())).thenAnswer(invocation -> {
+            CustomUserDetails user = invocation.getArgument(0);
+            return new CustomUserDetails(user.getId(), user.getUsername(), invocation.getArgument(1));
+        });
+        DaoAuthenticationProvider provider = new DaoAuthenticationProvider();
+        provider.setPasswordEncoder(encoder);
+        provider.setUserDetailsPasswordService(passwordService);
+        provider.setUserDetailsService(username -> new CustomUserDetails(7L, username, oldHash));
+
+        provider.authenticate(UsernamePasswordAuthenticationToken.unauthenticated("ana", "pw"));
+
+        verify(passwordService).updatePassword(any(UserDetails.class), startsWith("$2a$05$"));
+        assertFalse(encoder.upgradeEncoding(new BCryptPasswordEncoder(5).encode("pw")));
+        encoder.destroy();
+    }
+}
@@ -0,0 +1,29 @@
+package com.testProjects.todolist.security;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CsrfExemptionTest {
+
+    private static MockHttpServletRequest post(String path, String authorization) {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", path);
+        request.setServletPath(path);
+        if (authorization != null) {
+            request.addHeader("Authorization", authorization);
+        }
+        return request;
+    }
+
+    @Test
+    void onlyApiCallsCarryingBasicCredentials_skipTheCsrfCheck() {
+        assertTrue(SecurityConfig.BASIC_API_CALL.matches(post("/api/tasks/5/complete", "Basic YW5hOnB3")));
+        assertTrue(SecurityConfig.BASIC_API_CALL.matches(post("/api/tasks", "basic YW5hOnB3")));
+
+        // cookie-authenticated API calls, as a cross-site form would send them
+        assertFalse(SecurityConfig.BASIC_API_CALL.matches(post("/api/tasks/5/complete", null)));
+        assertFalse(SecurityConfig.BASIC_API_CALL.matches(post("/api/tasks/5", "Bearer abc")));
+        assertFalse(SecurityConfig.BASIC_API_CALL.matches(post("/tasks/bulk", "Basic YW5hOnB3")));
+    }
+}
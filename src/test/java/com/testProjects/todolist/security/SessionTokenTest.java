@@ -0,0 +1,143 @@
+package com.testProjects.todolist.security;
+
+import jakarta.servlet.http.Cookie;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextImpl;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SessionTokenTest {
+
+    static final class ManualClock extends Clock {
+        Instant now = Instant.parse("2024-03-04T12:00:00Z");
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+
+    static final byte[] KEY = "0123456789abcdef0123456789abcdef".getBytes(StandardCharsets.US_ASCII);
+
+    ManualClock clock;
+    SessionTokenCodec codec;
+    TokenDenyList denyList;
+    TokenSecurityContextRepository repository;
+
+    @BeforeEach
+    void setUp() {
+        clock = new ManualClock();
+        codec = new SessionTokenCodec(KEY, Duration.ofMinutes(30), clock);
+        denyList = new TokenDenyList(clock);
+        repository = new TokenSecurityContextRepository(codec, denyList, "TODO_SESSION", Duration.ofSeconds(30), clock);
+    }
+
+    private static MockHttpServletRequest request(String token) {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        if (token != null) {
+            request.setCookies(new Cookie("TODO_SESSION", token));
+        }
+        return request;
+    }
+
+    private static String issued(MockHttpServletResponse response) {
+        Cookie cookie = response.getCookie("TODO_SESSION");
+        return cookie == null ? null : cookie.getValue();
+    }
+
+    private CustomUserDetails principal(String token) {
+        SecurityContext context = repository.loadDeferredContext(request(token)).get();
+        return context.getAuthentication() == null ? null : (CustomUserDetails) context.getAuthentication().getPrincipal();
+    }
+
+    private String login(long userId, String username) {
+        CustomUserDetails user = new CustomUserDetails(userId, username);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        repository.saveContext(new SecurityContextImpl(UsernamePasswordAuthenticationToken.authenticated(
+                user, null, user.getAuthorities())), request(null), response);
+        return issued(response);
+    }
+
+    @Test
+    void codec_roundTrips_andRejectsTamperedOrExpiredTokens() {
+        String token = codec.encode(7L, "ana.maria@x");
+        SessionToken decoded = codec.decode(token);
+        assertEquals(7L, decoded.userId());
+        assertEquals("ana.maria@x", decoded.username());
+        assertEquals(clock.now.plus(Duration.ofMinutes(30)), decoded.expiresAt());
+
+        assertNull(codec.decode(token.replaceFirst("^7\\.", "8.")));
+        assertNull(codec.decode("garbage"));
+        assertNull(new SessionTokenCodec("another key, also 32 bytes long!".getBytes(StandardCharsets.US_ASCII),
+                Duration.ofMinutes(30), clock).decode(token));
+
+        clock.now = clock.now.plus(Duration.ofMinutes(30));
+        assertNull(codec.decode(token));
+    }
+
+    @Test
+    void login_issuesATokenThatAuthenticatesWithoutALookup() {
+        String token = login(7L, "ana");
+        CustomUserDetails principal = principal(token);
+        assertEquals(7L, principal.getId());
+        assertEquals("ana", principal.getUsername());
+        assertNull(principal(null));
+    }
+
+    @Test
+    void ageingToken_isReplaced_andTheOldOneDeniedAfterTheGrace() {
+        String token = login(7L, "ana");
+        MockHttpServletResponse fresh = new MockHttpServletResponse();
+        repository.refresh(request(token), fresh);
+        assertNull(issued(fresh));
+
+        clock.now = clock.now.plus(Duration.ofMinutes(16));
+        MockHttpServletResponse refreshed = new MockHttpServletResponse();
+        repository.refresh(request(token), refreshed);
+        String next = issued(refreshed);
+        assertNotNull(next);
+        assertNotEquals(token, next);
+
+        assertNotNull(principal(token));
+        clock.now = clock.now.plus(Duration.ofSeconds(30));
+        assertNull(principal(token));
+        assertEquals(7L, principal(next).getId());
+    }
+
+    @Test
+    void logout_deniesTheTokenAtOnce_untilItWouldHaveExpired() {
+        String token = login(7L, "ana");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        repository.logout(request(token), response, null);
+
+        assertEquals("", issued(response));
+        assertNull(principal(token));
+        assertEquals(1, denyList.size());
+
+        clock.now = clock.now.plus(Duration.ofMinutes(31));
+        denyList.purge();
+        assertEquals(0, denyList.size());
+    }
+}
@@ -0,0 +1,142 @@
+package com.testProjects.todolist.stats;
+
+import com.testProjects.todolist.dto.TaskStats;
+import com.testProjects.todolist.models.Priority;
+import com.testProjects.todolist.repositories.TaskRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+class TaskStatisticsTest {
+
+    static final LocalDate TODAY = LocalDate.of(2024, 3, 4);
+
+    static final class ManualClock extends Clock {
+        LocalDate today = TODAY;
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return today.atStartOfDay(ZoneOffset.UTC).plusHours(12).toInstant();
+        }
+    }
+
+    TaskRepository taskRepository;
+    SimpleMeterRegistry registry;
+    ManualClock clock;
+    TaskStatistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        taskRepository = mock(TaskRepository.class);
+        // 5 tasks: 2 HIGH, 3 LOW; one overdue, one due in 3 days, one in 10 days; 4 created today
+        when(taskRepository.countByOwnerGroupByPriority(1L)).thenReturn(List.of(
+                new PriorityCount(Priority.HIGH, 2), new PriorityCount(Priority.LOW, 3)));
+        when(taskRepository.countByOwnerGroupByDeadline(1L)).thenReturn(List.of(
+                new DayCount(TODAY.minusDays(2), 1), new DayCount(TODAY.plusDays(3), 1),
+                new DayCount(TODAY.plusDays(10), 1)));
+        when(taskRepository.countByOwnerCreatedSinceGroupByDay(anyLong(), any())).thenReturn(List.of(
+                new DayCount(TODAY, 4)));
+        registry = new SimpleMeterRegistry();
+        clock = new ManualClock();
+        statistics = new TaskStatistics(taskRepository, registry, 30, 100, 100, clock);
+    }
+
+    @Test
+    void firstRead_loadsFromTheDatabase_laterReadsDoNot() {
+        TaskStats stats = statistics.get(1L);
+        assertEquals(5, stats.total());
+        assertEquals(2, stats.byPriority().get(Priority.HIGH));
+        assertEquals(0, stats.byPriority().get(Priority.MEDIUM));
+        assertEquals(1, stats.overdue());
+        assertEquals(1, stats.dueThisWeek());
+        assertEquals(30, stats.createdPerDay().size());
+        assertEquals(4, stats.createdPerDay().get(TODAY));
+
+        statistics.get(1L);
+        verify(taskRepository, times(1)).countByOwnerGroupByPriority(1L);
+    }
+
+    @Test
+    void writes_moveTheCountersByDeltas() {
+        assertFalse(statistics.isTracked(1L));
+        statistics.created(1L, Priority.MEDIUM, TODAY, TODAY.atTime(9, 0)); // ignored, not loaded yet
+        statistics.get(1L);
+        assertTrue(statistics.isTracked(1L));
+
+        statistics.created(1L, Priority.MEDIUM, TODAY, TODAY.atTime(9, 0));
+        statistics.changed(1L, new TaskFacts(Priority.HIGH, TODAY.plusDays(10), TODAY.atStartOfDay()),
+                Priority.LOW, TODAY.minusDays(1));
+        statistics.deleted(1L, new TaskFacts(Priority.LOW, TODAY.minusDays(2), TODAY.atStartOfDay()));
+
+        TaskStats stats = statistics.get(1L);
+        assertEquals(5, stats.total());
+        assertEquals(1, stats.byPriority().get(Priority.HIGH));
+        assertEquals(1, stats.byPriority().get(Priority.MEDIUM));
+        assertEquals(3, stats.byPriority().get(Priority.LOW));
+        assertEquals(1, stats.overdue());       // -1 deleted, +1 moved into the past
+        assertEquals(2, stats.dueThisWeek());   // the new task and the one in 3 days
+        assertEquals(4, stats.createdPerDay().get(TODAY));
+    }
+
+    @Test
+    void passingDays_foldIntoOverdue_withoutAQuery() {
+        statistics.get(1L);
+        clock.today = TODAY.plusDays(5);
+
+        TaskStats stats = statistics.get(1L);
+        assertEquals(TODAY.plusDays(5), stats.asOf());
+        assertEquals(2, stats.overdue());
+        assertEquals(1, stats.dueThisWeek());   // the one 10 days out is now 5 days out
+        assertEquals(4, stats.createdPerDay().get(TODAY));
+        verify(taskRepository, times(1)).countByOwnerGroupByPriority(1L);
+    }
+
+    @Test
+    void reconcile_replacesCountersThatDrifted() {
+        statistics.get(1L);
+        statistics.reconcile();
+        assertEquals(0, registry.counter("todolist.stats.corrections").count());
+
+        // a write on another node
+        when(taskRepository.countByOwnerGroupByPriority(1L)).thenReturn(List.of(
+                new PriorityCount(Priority.HIGH, 3), new PriorityCount(Priority.LOW, 3)));
+        statistics.reconcile();
+
+        assertEquals(1, registry.counter("todolist.stats.corrections").count());
+        assertEquals(6, statistics.get(1L).total());
+    }
+
+    @Test
+    void leastRecentlyReadUsers_areDropped() {
+        statistics = new TaskStatistics(taskRepository, registry, 30, 2, 100, clock);
+        statistics.get(1L);
+        statistics.get(2L);
+        statistics.get(1L);
+        statistics.get(3L);
+        assertTrue(statistics.isTracked(1L));
+        assertFalse(statistics.isTracked(2L));
+        assertTrue(statistics.isTracked(3L));
+    }
+}
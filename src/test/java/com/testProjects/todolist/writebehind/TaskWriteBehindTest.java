@@ -0,0 +1,234 @@
+package com.testProjects.todolist.writebehind;
+
+import com.testProjects.todolist.datasource.RecentWriters;
+import com.testProjects.todolist.models.Task;
+import com.testProjects.todolist.reminder.DeadlineReminders;
+import com.testProjects.todolist.search.TaskSearchIndex;
+import com.testProjects.todolist.security.CustomUserDetails;
+import com.testProjects.todolist.services.TaskService;
+import com.testProjects.todolist.stats.TaskStatistics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Drives the flusher by hand: nothing is started, batches are taken and applied by
+ * the test thread.
+ */
+class TaskWriteBehindTest {
+
+    TaskService taskService;
+    PlatformTransactionManager transactionManager;
+    DeadlineReminders deadlineReminders;
+    TaskStatistics taskStatistics;
+    TaskSearchIndex searchIndex;
+    SimpleMeterRegistry registry;
+    Authentication ana;
+
+    @BeforeEach
+    void setUp() {
+        taskService = mock(TaskService.class);
+        transactionManager = mock(PlatformTransactionManager.class);
+        when(transactionManager.getTransaction(any())).thenAnswer(invocation -> new SimpleTransactionStatus());
+        deadlineReminders = mock(DeadlineReminders.class);
+        taskStatistics = mock(TaskStatistics.class);
+        searchIndex = mock(TaskSearchIndex.class);
+        registry = new SimpleMeterRegistry();
+        CustomUserDetails user = new CustomUserDetails(7L, "ana");
+        ana = UsernamePasswordAuthenticationToken.authenticated(user, null, user.getAuthorities());
+        SecurityContextHolder.getContext().setAuthentication(ana);
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    private TaskWriteBehind writeBehind(boolean enabled, int capacity) {
+        return new TaskWriteBehind(taskService, transactionManager, deadlineReminders, taskStatistics,
+                searchIndex, registry, enabled, capacity, 100, Duration.ZERO, Duration.ofMillis(1));
+    }
+
+    private static Task task(String title) {
+        Task task = new Task();
+        task.setTitle(title);
+        return task;
+    }
+
+    private TaskWriteBehind.Mutation update(long taskId, Long version, String title) {
+        return new TaskWriteBehind.Mutation(ana, 7L, taskId, version, task(title));
+    }
+
+    @Test
+    void queuedCreates_areWrittenInOneTransaction_asTheirSubmitter() throws Exception {
+        TaskWriteBehind writeBehind = writeBehind(true, 16);
+        doAnswer(invocation -> {
+            assertEquals("ana", SecurityContextHolder.getContext().getAuthentication().getName());
+            return invocation.getArgument(0);
+        }).when(taskService).saveTask(any());
+
+        writeBehind.create(task("a"));
+        writeBehind.create(task("b"));
+        writeBehind.create(task("c"));
+        verifyNoInteractions(taskService);
+        assertEquals(3, writeBehind.queued());
+        assertFalse(writeBehind.awaitPending(7L, Duration.ofMillis(1)));
+
+        writeBehind.apply(writeBehind.nextBatch(0));
+
+        verify(taskService, times(3)).saveTask(any());
+        verify(transactionManager, times(1)).getTransaction(any());
+        verify(transactionManager, times(1)).commit(any());
+        assertTrue(writeBehind.awaitPending(7L, Duration.ofMillis(1)));
+        assertEquals(1, registry.summary("todolist.writebehind.batch.size").count());
+    }
+
+    @Test
+    void blindUpdatesOfOneTask_areMerged() throws Exception {
+        TaskWriteBehind writeBehind = writeBehind(true, 16);
+        when(taskService.updateTask(anyLong(), any(), any())).thenReturn(true);
+        TaskWriteBehind.Mutation first = update(1L, null, "first");
+        TaskWriteBehind.Mutation last = update(1L, null, "last");
+
+        writeBehind.apply(List.of(first, last));
+
+        verify(taskService, never()).updateTask(eq(1L), any(), eq(first.task));
+        verify(taskService).updateTask(1L, null, last.task);
+        assertTrue(first.result.get());
+        assertEquals(1, registry.counter("todolist.writebehind.merged").count());
+    }
+
+    @Test
+    void chainedVersionedUpdates_areMerged_checkingTheFirstVersion_staleOnesAreNot() throws Exception {
+        TaskWriteBehind writeBehind = writeBehind(true, 16);
+        TaskWriteBehind.Mutation v3 = update(2L, 3L, "v3");
+        TaskWriteBehind.Mutation v4 = update(2L, 4L, "v4");
+        TaskWriteBehind.Mutation v5 = update(2L, 5L, "v5");
+        TaskWriteBehind.Mutation again5 = update(2L, 5L, "again");
+        TaskWriteBehind.Mutation blind = update(2L, null, "blind");
+        when(taskService.updateTask(2L, 3L, v5.task)).thenReturn(true);
+        when(taskService.updateTask(2L, 5L, again5.task)).thenThrow(new OptimisticLockingFailureException("changed"));
+        when(taskService.updateTask(2L, null, blind.task)).thenReturn(true);
+
+        writeBehind.apply(List.of(v3, v4, v5, again5, blind));
+
+        verify(taskService, times(3)).updateTask(anyLong(), any(), any());
+        assertTrue(v3.result.get());
+        assertTrue(v4.result.get());
+        assertTrue(v5.result.get());
+        ExecutionException failure = assertThrows(ExecutionException.class, () -> again5.result.get());
+        assertInstanceOf(OptimisticLockingFailureException.class, failure.getCause());
+        assertTrue(blind.result.get());
+        assertEquals(2, registry.counter("todolist.writebehind.merged").count());
+    }
+
+    @Test
+    void versionConflict_failsOnlyItsOwnWrite() throws Exception {
+        TaskWriteBehind writeBehind = writeBehind(true, 16);
+        TaskWriteBehind.Mutation stale = update(2L, 1L, "stale");
+        TaskWriteBehind.Mutation fine = update(3L, 5L, "fine");
+        when(taskService.updateTask(2L, 1L, stale.task)).thenThrow(new OptimisticLockingFailureException("changed"));
+        when(taskService.updateTask(3L, 5L, fine.task)).thenReturn(true);
+
+        writeBehind.apply(List.of(stale, fine));
+
+        verify(transactionManager).commit(any());
+        verify(transactionManager, never()).rollback(any());
+        ExecutionException failure = assertThrows(ExecutionException.class, () -> stale.result.get());
+        assertInstanceOf(OptimisticLockingFailureException.class, failure.getCause());
+        assertTrue(fine.result.get());
+    }
+
+    @Test
+    void batchOfSeveralUsers_startsEachWritersReadYourWritesWindow() {
+        TaskWriteBehind writeBehind = writeBehind(true, 16);
+        RecentWriters recentWriters = new RecentWriters(Duration.ofMinutes(1));
+        ReflectionTestUtils.setField(writeBehind, "recentWriters", recentWriters);
+        TaskWriteBehind.Mutation ana1 = update(1L, null, "ana");
+        TaskWriteBehind.Mutation bob = new TaskWriteBehind.Mutation(ana, 8L, 2L, null, task("bob"));
+        TaskWriteBehind.Mutation stale = new TaskWriteBehind.Mutation(ana, 9L, 3L, 1L, task("stale"));
+        when(taskService.updateTask(1L, null, ana1.task)).thenReturn(true);
+        when(taskService.updateTask(2L, null, bob.task)).thenReturn(true);
+        when(taskService.updateTask(3L, 1L, stale.task)).thenThrow(new OptimisticLockingFailureException("changed"));
+
+        writeBehind.apply(List.of(ana1, bob, stale));
+
+        assertTrue(recentWriters.wroteRecently(7L));
+        assertTrue(recentWriters.wroteRecently(8L));
+        assertFalse(recentWriters.wroteRecently(9L));
+    }
+
+    @Test
+    void failedBatch_isRolledBack_andRetriedOneByOne() throws Exception {
+        TaskWriteBehind writeBehind = writeBehind(true, 16);
+        Task created = task("created");
+        Task broken = task("broken");
+        when(taskService.saveTask(created)).thenAnswer(invocation -> {
+            created.setId(41L);
+            created.setVersion(1);
+            return created;
+        });
+        when(taskService.saveTask(broken)).thenThrow(new IllegalStateException("constraint"));
+        writeBehind.create(created);
+        writeBehind.create(broken);
+
+        writeBehind.apply(writeBehind.nextBatch(0));
+
+        verify(transactionManager).rollback(any());
+        verify(deadlineReminders).cancel(41L);
+        verify(taskStatistics, atLeastOnce()).invalidate(7L);
+        verify(searchIndex, atLeastOnce()).invalidate("ana");
+        verify(taskService, times(2)).saveTask(created);
+        assertEquals(1, registry.counter("todolist.writebehind.failed").count());
+        assertTrue(writeBehind.awaitPending(7L, Duration.ofMillis(1)));
+    }
+
+    @Test
+    void fullBuffer_rejectsAfterTheOfferTimeout() {
+        TaskWriteBehind writeBehind = writeBehind(true, 1);
+        writeBehind.create(task("a"));
+        assertThrows(RejectedExecutionException.class, () -> writeBehind.create(task("b")));
+        assertEquals(1, registry.counter("todolist.writebehind.rejected").count());
+    }
+
+    @Test
+    void submitAfterStop_isRejected_insteadOfQueuedForNobody() throws Exception {
+        TaskWriteBehind writeBehind = writeBehind(true, 16);
+        writeBehind.stop();
+
+        assertThrows(RejectedExecutionException.class, () -> writeBehind.create(task("a")));
+        assertThrows(RejectedExecutionException.class, () -> writeBehind.update(1L, null, task("b")));
+        assertEquals(0, writeBehind.queued());
+        assertEquals(2, registry.counter("todolist.writebehind.rejected").count());
+        verifyNoInteractions(taskService);
+    }
+
+    @Test
+    void disabled_writesImmediately() {
+        TaskWriteBehind writeBehind = writeBehind(false, 16);
+        Task task = task("a");
+        writeBehind.create(task);
+        verify(taskService).saveTask(task);
+        assertEquals(0, writeBehind.queued());
+        verifyNoInteractions(transactionManager);
+    }
+}